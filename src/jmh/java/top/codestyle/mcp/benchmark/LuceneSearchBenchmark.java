@@ -0,0 +1,62 @@
+package top.codestyle.mcp.benchmark;
+
+import cn.hutool.core.io.FileUtil;
+import org.openjdk.jmh.annotations.*;
+import top.codestyle.mcp.service.LuceneIndexService;
+import top.codestyle.mcp.support.ServiceFixtures;
+import top.codestyle.mcp.support.TemplateRepositoryGenerator;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lucene本地检索基准
+ * <p>keyword为全文检索(命中同一关键词的所有模板组)，exact为 groupId/artifactId 精确检索
+ *
+ * @author movclantian
+ * @since 2025-12-25
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LuceneSearchBenchmark {
+
+    @Param({"10", "100"})
+    public int groups;
+
+    @Param({"10"})
+    public int artifactsPerGroup;
+
+    @Param({"keyword", "exact"})
+    public String mode;
+
+    private File repoDir;
+    private LuceneIndexService indexService;
+    private String query;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        repoDir = TemplateRepositoryGenerator.generateTemp(
+                new TemplateRepositoryGenerator.Spec(groups, artifactsPerGroup, 12));
+        indexService = ServiceFixtures.luceneIndexService(repoDir);
+        query = "exact".equals(mode)
+                ? TemplateRepositoryGenerator.groupId(groups / 2) + "/" + TemplateRepositoryGenerator.artifactId(1)
+                : "CRUD";
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        indexService.destroy();
+        FileUtil.del(repoDir);
+    }
+
+    @Benchmark
+    public List<LuceneIndexService.SearchResult> fetchLocalMetaConfig() {
+        return indexService.fetchLocalMetaConfig(query);
+    }
+}
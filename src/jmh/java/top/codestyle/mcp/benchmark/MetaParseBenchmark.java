@@ -0,0 +1,57 @@
+package top.codestyle.mcp.benchmark;
+
+import cn.hutool.core.io.FileUtil;
+import org.openjdk.jmh.annotations.*;
+import top.codestyle.mcp.model.sdk.MetaInfo;
+import top.codestyle.mcp.support.TemplateRepositoryGenerator;
+import top.codestyle.mcp.util.MetaCatalogUtils;
+import top.codestyle.mcp.util.MetaInfoConvertUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * meta.json解析基准
+ *
+ * @author movclantian
+ * @since 2025-12-25
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetaParseBenchmark {
+
+    @Param({"12", "120"})
+    public int filesPerArtifact;
+
+    private File repoDir;
+    private File metaFile;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        repoDir = TemplateRepositoryGenerator.generateTemp(
+                new TemplateRepositoryGenerator.Spec(1, 1, filesPerArtifact));
+        metaFile = FileUtil.file(repoDir, TemplateRepositoryGenerator.groupId(0),
+                TemplateRepositoryGenerator.artifactId(0), "meta.json");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        FileUtil.del(repoDir);
+    }
+
+    @Benchmark
+    public List<MetaInfo> parseMetaJsonLatestOnly() throws IOException {
+        return MetaInfoConvertUtil.parseMetaJsonLatestOnly(metaFile);
+    }
+
+    @Benchmark
+    public List<MetaInfo> catalogLatest() throws IOException {
+        return MetaCatalogUtils.load(metaFile).files(null);
+    }
+}
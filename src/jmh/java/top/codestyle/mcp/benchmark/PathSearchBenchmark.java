@@ -0,0 +1,60 @@
+package top.codestyle.mcp.benchmark;
+
+import cn.hutool.core.io.FileUtil;
+import org.openjdk.jmh.annotations.*;
+import top.codestyle.mcp.model.sdk.MetaInfo;
+import top.codestyle.mcp.support.TemplateRepositoryGenerator;
+import top.codestyle.mcp.util.SDKUtils;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 精确路径定位基准
+ *
+ * @author movclantian
+ * @since 2025-12-25
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PathSearchBenchmark {
+
+    @Param({"12", "120"})
+    public int filesPerArtifact;
+
+    private File repoDir;
+    private String repoPath;
+    private String exactPath;
+    private String rawPath;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        repoDir = TemplateRepositoryGenerator.generateTemp(
+                new TemplateRepositoryGenerator.Spec(4, 4, filesPerArtifact));
+        repoPath = repoDir.getAbsolutePath();
+        int last = filesPerArtifact - 1;
+        exactPath = String.join("/", TemplateRepositoryGenerator.groupId(2), TemplateRepositoryGenerator.artifactId(3),
+                TemplateRepositoryGenerator.VERSION, TemplateRepositoryGenerator.filePath(last),
+                TemplateRepositoryGenerator.filename(last));
+        rawPath = "group2\\\\CRUD0//1.0.0\\src//main\\java/com\\example//Controller.ftl";
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        FileUtil.del(repoDir);
+    }
+
+    @Benchmark
+    public MetaInfo searchByPath() {
+        return SDKUtils.searchByPath(exactPath, repoPath);
+    }
+
+    @Benchmark
+    public String normalizePath() {
+        return SDKUtils.normalizePath(rawPath);
+    }
+}
@@ -0,0 +1,52 @@
+package top.codestyle.mcp.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import top.codestyle.mcp.service.PromptService;
+import top.codestyle.mcp.support.ServiceFixtures;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 提示词模板填充基准
+ * <p>buildFromTemplate为私有方法，通过buildPrompt和buildSearchResult间接测量
+ *
+ * @author movclantian
+ * @since 2025-12-25
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PromptBenchmark {
+
+    @Param({"1024", "32768"})
+    public int contentSize;
+
+    private PromptService promptService;
+    private String content;
+    private String tree;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        promptService = ServiceFixtures.promptService();
+        StringBuilder sb = new StringBuilder(contentSize);
+        while (sb.length() < contentSize) {
+            sb.append("public class ${className} { // $1 ${comment}\n");
+        }
+        content = sb.substring(0, contentSize);
+        tree = content.replace("public", "  dir/");
+    }
+
+    @Benchmark
+    public String buildPrompt() {
+        return promptService.buildPrompt("group/CRUD/1.0.0/src/Controller.ftl",
+                "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08", "- className: 类名", content);
+    }
+
+    @Benchmark
+    public String buildSearchResult() {
+        return promptService.buildSearchResult("CRUD", "", tree, "模板组介绍");
+    }
+}
@@ -0,0 +1,69 @@
+package top.codestyle.mcp.benchmark;
+
+import cn.hutool.core.io.FileUtil;
+import org.openjdk.jmh.annotations.*;
+import top.codestyle.mcp.model.sdk.MetaInfo;
+import top.codestyle.mcp.model.tree.PathTrie;
+import top.codestyle.mcp.model.tree.TreeBudget;
+import top.codestyle.mcp.support.TemplateRepositoryGenerator;
+import top.codestyle.mcp.util.PromptUtils;
+import top.codestyle.mcp.util.SDKUtils;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 目录树构建与渲染基准
+ * <p>模拟命名空间聚合搜索：一个groupId下所有模板的文件合并成一棵目录树
+ *
+ * @author movclantian
+ * @since 2025-12-25
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TreeBenchmark {
+
+    @Param({"10", "50"})
+    public int artifacts;
+
+    @Param({"12", "60"})
+    public int filesPerArtifact;
+
+    private List<MetaInfo> metaInfos;
+    private PathTrie tree;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        File repoDir = TemplateRepositoryGenerator.generateTemp(
+                new TemplateRepositoryGenerator.Spec(1, artifacts, filesPerArtifact));
+        metaInfos = new ArrayList<>();
+        String groupId = TemplateRepositoryGenerator.groupId(0);
+        for (int a = 0; a < artifacts; a++) {
+            metaInfos.addAll(SDKUtils.searchLocalRepository(groupId, TemplateRepositoryGenerator.artifactId(a),
+                    repoDir.getAbsolutePath()));
+        }
+        FileUtil.del(repoDir);
+        tree = PromptUtils.buildTree(metaInfos);
+    }
+
+    @Benchmark
+    public PathTrie buildTree() {
+        return PromptUtils.buildTree(metaInfos);
+    }
+
+    @Benchmark
+    public String buildTreeStr() {
+        return PromptUtils.buildTreeStr(tree);
+    }
+
+    @Benchmark
+    public String buildTreeStrBudgeted() {
+        return PromptUtils.buildTreeStr(tree, null, new TreeBudget(0, 400, 16000));
+    }
+}
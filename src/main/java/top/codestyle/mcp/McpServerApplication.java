@@ -2,6 +2,8 @@ package top.codestyle.mcp;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import top.codestyle.mcp.config.CodestyleRuntimeHints;
 
 /**
  * MCP代码模板服务器应用程序
@@ -11,6 +13,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * @since 2025-09-03
  */
 @SpringBootApplication
+@ImportRuntimeHints(CodestyleRuntimeHints.class)
 public class McpServerApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,105 @@
+package top.codestyle.mcp.concurrent;
+
+import top.codestyle.mcp.util.DeadlineUtils;
+import top.codestyle.mcp.util.MetricsUtils;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 舱壁(并发许可)
+ * <p>按操作类型隔离并发，慢操作占满自身许可时不影响其他类型的操作。
+ * 等待许可的时间计入当前请求时限，时限内未获得许可时记录降级说明并放弃执行；
+ * 未绑定请求时限的调用(后台预取、资源读取等)最多等待固定的时间，不会因许可泄漏或长时间占用而永久阻塞；
+ * 等待耗时以 {@code bulkhead.<name>} 记录到 {@link MetricsUtils#OPERATION}。
+ *
+ * @author movclantian
+ * @since 2025-12-26
+ */
+public class Bulkhead {
+
+    private final String name;
+    private final String label;
+    private final int maxConcurrent;
+    private final long maxWaitMs;
+    private final Semaphore permits;
+
+    /**
+     * 创建舱壁
+     *
+     * @param name          名称，用于指标
+     * @param label         操作说明，用于降级说明
+     * @param maxConcurrent 最大并发数
+     * @param maxWaitMs     未绑定请求时限时等待许可的最长时间(毫秒)
+     */
+    public Bulkhead(String name, String label, int maxConcurrent, long maxWaitMs) {
+        this.name = name;
+        this.label = label;
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.maxWaitMs = Math.max(0, maxWaitMs);
+        this.permits = new Semaphore(this.maxConcurrent, true);
+    }
+
+    /**
+     * 获取许可，最多等待到当前请求时限，未设置时限时最多等待 maxWaitMs
+     *
+     * @return 是否获得许可，获得后必须调用 {@link #release()}
+     */
+    public boolean tryAcquire() {
+        long start = System.nanoTime();
+        boolean acquired = false;
+        try {
+            long remaining = DeadlineUtils.remainingMillis();
+            long timeoutMs = remaining == Long.MAX_VALUE ? maxWaitMs : remaining;
+            acquired = permits.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            MetricsUtils.record(MetricsUtils.OPERATION, "bulkhead." + name, start, acquired);
+        }
+        if (!acquired) {
+            DeadlineUtils.degrade(label + "并发已满，未能在请求时限内执行");
+        }
+        return acquired;
+    }
+
+    /**
+     * 归还许可
+     */
+    public void release() {
+        permits.release();
+    }
+
+    /**
+     * 在许可内执行任务
+     *
+     * @param task     任务
+     * @param rejected 未获得许可时的返回值
+     * @return 任务结果
+     * @throws E 任务异常
+     */
+    public <T, E extends Exception> T call(MetricsUtils.Task<T, E> task, T rejected) throws E {
+        if (!tryAcquire()) {
+            return rejected;
+        }
+        try {
+            return task.call();
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * 获取最大并发数
+     */
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    /**
+     * 获取当前占用的许可数
+     */
+    public int getActive() {
+        return maxConcurrent - permits.availablePermits();
+    }
+}
@@ -0,0 +1,204 @@
+package top.codestyle.mcp.concurrent;
+
+import top.codestyle.mcp.util.MetricsUtils;
+
+import java.util.ArrayDeque;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 按客户端公平调度的并发许可
+ * <p>许可释放时在有排队请求的客户端之间轮转分配，同一客户端内按到达顺序放行，
+ * 单个客户端排队再多，其他客户端的请求最多等待一轮即可获得许可。
+ * 可限制单个客户端同时占用的许可数，为其他客户端预留容量；不限制时空闲许可可被单个客户端用满。
+ * 客户端以对象身份区分，无运行中和排队中请求的客户端随即移除。
+ *
+ * @author movclantian
+ * @since 2025-12-26
+ */
+public class FairScheduler {
+
+    private final String name;
+    private final int maxConcurrent;
+    private final int perClientMax;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Object, Client> clients = new IdentityHashMap<>();
+
+    /**
+     * 有排队请求的客户端，按轮转顺序排列
+     */
+    private final ArrayDeque<Client> ready = new ArrayDeque<>();
+
+    private int running;
+
+    /**
+     * 客户端状态
+     */
+    private static final class Client {
+        private final Object key;
+        private final ArrayDeque<Waiter> waiting = new ArrayDeque<>();
+        private int running;
+
+        private Client(Object key) {
+            this.key = key;
+        }
+    }
+
+    /**
+     * 排队中的请求
+     */
+    private static final class Waiter {
+        private final Condition condition;
+        private boolean granted;
+
+        private Waiter(Condition condition) {
+            this.condition = condition;
+        }
+    }
+
+    /**
+     * 创建调度器
+     *
+     * @param name          名称，用于指标
+     * @param maxConcurrent 最大并发数
+     * @param perClientMax  单个客户端的最大并发数，<=0表示不限制
+     */
+    public FairScheduler(String name, int maxConcurrent, int perClientMax) {
+        this.name = name;
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.perClientMax = perClientMax;
+    }
+
+    /**
+     * 为客户端获取许可
+     *
+     * @param clientKey 客户端标识(按对象身份区分)
+     * @param timeoutMs 最长等待时间(毫秒)，Long.MAX_VALUE表示一直等待
+     * @return 是否获得许可，获得后必须以同一标识调用 {@link #release(Object)}
+     */
+    public boolean acquire(Object clientKey, long timeoutMs) {
+        long start = System.nanoTime();
+        boolean granted = false;
+        lock.lock();
+        Client client = clients.computeIfAbsent(clientKey, Client::new);
+        Waiter waiter = new Waiter(lock.newCondition());
+        try {
+            client.waiting.add(waiter);
+            if (client.waiting.size() == 1) {
+                ready.add(client);
+            }
+            dispatch();
+            long nanos = timeoutMs == Long.MAX_VALUE ? Long.MAX_VALUE : TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+            while (!waiter.granted && nanos > 0) {
+                nanos = waiter.condition.awaitNanos(nanos);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (waiter.granted) {
+                // 中断前已获得许可，归还后放弃
+                releaseLocked(client);
+            }
+            waiter.granted = false;
+        } finally {
+            granted = waiter.granted;
+            if (!granted) {
+                abandon(client, waiter);
+            }
+            lock.unlock();
+            MetricsUtils.record(MetricsUtils.OPERATION, "scheduler." + name, start, granted);
+        }
+        return granted;
+    }
+
+    /**
+     * 归还客户端的许可
+     *
+     * @param clientKey 客户端标识
+     */
+    public void release(Object clientKey) {
+        lock.lock();
+        try {
+            Client client = clients.get(clientKey);
+            if (client != null) {
+                releaseLocked(client);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 获取运行中的请求数
+     */
+    public int getRunning() {
+        lock.lock();
+        try {
+            return running;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 归还许可并放行后续请求(需持有锁)
+     *
+     * @param client 客户端
+     */
+    private void releaseLocked(Client client) {
+        running--;
+        client.running--;
+        removeIfIdle(client);
+        dispatch();
+    }
+
+    /**
+     * 放弃排队(需持有锁)
+     *
+     * @param client 客户端
+     * @param waiter 排队中的请求
+     */
+    private void abandon(Client client, Waiter waiter) {
+        if (client.waiting.remove(waiter) && client.waiting.isEmpty()) {
+            ready.remove(client);
+        }
+        removeIfIdle(client);
+    }
+
+    /**
+     * 轮转放行排队请求，直到许可用尽或剩余客户端均达到单客户端上限(需持有锁)
+     */
+    private void dispatch() {
+        int skipped = 0;
+        while (running < maxConcurrent && skipped < ready.size()) {
+            Client client = ready.poll();
+            if (perClientMax > 0 && client.running >= perClientMax) {
+                ready.add(client);
+                skipped++;
+                continue;
+            }
+            Waiter waiter = client.waiting.poll();
+            waiter.granted = true;
+            waiter.condition.signal();
+            running++;
+            client.running++;
+            if (!client.waiting.isEmpty()) {
+                ready.add(client);
+            }
+            skipped = 0;
+        }
+    }
+
+    /**
+     * 移除空闲客户端(需持有锁)
+     *
+     * @param client 客户端
+     */
+    private void removeIfIdle(Client client) {
+        if (client.running == 0 && client.waiting.isEmpty()) {
+            clients.remove(client.key);
+        }
+    }
+}
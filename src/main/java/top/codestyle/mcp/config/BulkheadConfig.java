@@ -0,0 +1,94 @@
+package top.codestyle.mcp.config;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import top.codestyle.mcp.concurrent.Bulkhead;
+import top.codestyle.mcp.concurrent.FairScheduler;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 并发隔离配置类
+ * 按操作类型划分舱壁(远程访问、本地读取)，按工具划分调用许可并在客户端之间公平轮转，
+ * 避免慢速的远程下载挤占本地读取的并发，或单个客户端的大量调用拖慢其他客户端。
+ * 索引写入由Lucene索引服务的写入锁串行化，不占用其他舱壁。
+ *
+ * @author movclantian
+ * @since 2025-12-26
+ */
+@Configuration
+public class BulkheadConfig {
+
+    /**
+     * 远程检索和模板下载的最大并发数
+     */
+    @Value("${codestyle.bulkhead.remote:4}")
+    private int remote;
+
+    /**
+     * 本地模板读取和索引检索的最大并发数
+     */
+    @Value("${codestyle.bulkhead.local-read:16}")
+    private int localRead;
+
+    /**
+     * 每个工具的最大并发调用数
+     */
+    @Value("${codestyle.bulkhead.tool:8}")
+    private int tool;
+
+    /**
+     * 每个客户端在单个工具上的最大并发调用数，0表示不限制
+     */
+    @Value("${codestyle.bulkhead.per-client:0}")
+    private int perClient;
+
+    /**
+     * 未绑定请求时限的调用(后台预取、资源读取等)等待舱壁许可的最长时间(毫秒)
+     */
+    @Value("${codestyle.bulkhead.max-wait-ms:10000}")
+    private long maxWaitMs;
+
+    private Bulkhead remoteBulkhead;
+    private Bulkhead localReadBulkhead;
+
+    /**
+     * 工具调用调度器，key为工具名
+     */
+    private final Map<String, FairScheduler> toolSchedulers = new ConcurrentHashMap<>();
+
+    /**
+     * 按配置创建舱壁
+     */
+    @PostConstruct
+    public void init() {
+        remoteBulkhead = new Bulkhead("remote", "远程仓库访问", remote, maxWaitMs);
+        localReadBulkhead = new Bulkhead("local-read", "本地模板读取", localRead, maxWaitMs);
+    }
+
+    /**
+     * 获取远程访问舱壁
+     */
+    public Bulkhead getRemoteBulkhead() {
+        return remoteBulkhead;
+    }
+
+    /**
+     * 获取本地读取舱壁
+     */
+    public Bulkhead getLocalReadBulkhead() {
+        return localReadBulkhead;
+    }
+
+    /**
+     * 获取工具调用调度器
+     *
+     * @param toolName 工具名
+     * @return 该工具独立的调度器
+     */
+    public FairScheduler getToolScheduler(String toolName) {
+        return toolSchedulers.computeIfAbsent(toolName, name -> new FairScheduler("tool." + name, tool, perClient));
+    }
+}
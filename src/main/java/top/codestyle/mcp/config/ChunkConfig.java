@@ -0,0 +1,28 @@
+package top.codestyle.mcp.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 模板内容分段配置类
+ * 管理 getTemplateByPath 单次返回的模板内容字节数，超出的大文件按字节范围分段返回
+ *
+ * @author movclantian
+ * @since 2025-12-26
+ */
+@Configuration
+public class ChunkConfig {
+
+    /**
+     * 单次返回的模板内容最大字节数(UTF-8)，超过的文件自动分段，也是调用方指定length的上限，0表示不分段
+     */
+    @Value("${codestyle.chunk.max-bytes:65536}")
+    private int maxBytes;
+
+    /**
+     * 获取单次返回的模板内容最大字节数
+     */
+    public int getMaxBytes() {
+        return maxBytes;
+    }
+}
@@ -1,13 +1,40 @@
 package top.codestyle.mcp.config;
 
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.server.McpSyncServerExchange;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.mcp.McpToolUtils;
+import org.springframework.ai.model.ModelOptionsUtils;
+import org.springframework.ai.tool.ToolCallback;
 import org.springframework.ai.tool.ToolCallbackProvider;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.metadata.ToolMetadata;
 import org.springframework.ai.tool.method.MethodToolCallbackProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import reactor.core.publisher.Mono;
+import top.codestyle.mcp.concurrent.FairScheduler;
 import top.codestyle.mcp.service.CodestyleService;
+import top.codestyle.mcp.service.StatsService;
+import top.codestyle.mcp.util.DeadlineUtils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * 管理MCP工具的注册 配置类
+ * <p>SYNC模式下通过ToolCallbackProvider注册；ASYNC模式下将工具调用提交到与模板任务线程池隔离的工具调用线程池，
+ * 以CompletableFuture/Mono返回，传输线程不会被磁盘和网络I/O阻塞；线程池饱和时直接返回繁忙提示，
+ * 返回的Mono被取消时同步取消工具调用的请求时限。
+ * 两种模式下每个工具都有独立的调用许可，排队的调用按客户端(MCP会话)轮转放行。
  *
  * @author ChonghaoGao
  * @date 2025/12/13 22:44)
@@ -15,9 +42,152 @@ import top.codestyle.mcp.service.CodestyleService;
 @Configuration
 public class CodestyleMCPToolsConfig {
 
+    /**
+     * 匿名客户端标识，工具上下文中没有MCP会话时使用
+     */
+    private static final Object ANONYMOUS_CLIENT = new Object();
+
+    @Bean
+    @ConditionalOnProperty(prefix = "spring.ai.mcp.server", name = "type", havingValue = "SYNC", matchIfMissing = true)
+    public ToolCallbackProvider codestyleTools(CodestyleService codestyleService, StatsService statsService,
+            BulkheadConfig bulkheadConfig, DeadlineConfig deadlineConfig){
+        return ToolCallbackProvider.from(scheduledToolCallbacks(codestyleService, statsService, bulkheadConfig,
+                deadlineConfig));
+    }
+
+    /**
+     * ASYNC模式的工具注册
+     * <p>标记为Primary以取代自动配置中基于ToolCallback Bean生成的异步工具列表
+     *
+     * @param codestyleService 工具服务
+     * @param statsService     运行指标服务
+     * @param toolCallExecutor 工具调用执行线程池，与模板任务线程池隔离
+     * @return 异步工具规格列表
+     */
     @Bean
-    public ToolCallbackProvider codestyleTools(CodestyleService codestyleService){
-        return MethodToolCallbackProvider.builder().toolObjects(codestyleService).build();
+    @Primary
+    @ConditionalOnProperty(prefix = "spring.ai.mcp.server", name = "type", havingValue = "ASYNC")
+    public List<McpServerFeatures.AsyncToolSpecification> codestyleAsyncTools(CodestyleService codestyleService,
+            StatsService statsService, BulkheadConfig bulkheadConfig, DeadlineConfig deadlineConfig,
+            ExecutorService toolCallExecutor) {
+        return scheduledToolCallbacks(codestyleService, statsService, bulkheadConfig, deadlineConfig).stream()
+                .map(callback -> toAsyncToolSpecification(callback, toolCallExecutor))
+                .toList();
+    }
+
+    /**
+     * 创建受调用许可约束的工具回调
+     *
+     * @param codestyleService 工具服务
+     * @param statsService     运行指标服务
+     * @param bulkheadConfig   并发隔离配置
+     * @param deadlineConfig   请求时限配置
+     * @return 工具回调列表
+     */
+    private static List<ToolCallback> scheduledToolCallbacks(CodestyleService codestyleService,
+            StatsService statsService, BulkheadConfig bulkheadConfig, DeadlineConfig deadlineConfig) {
+        ToolCallback[] callbacks = MethodToolCallbackProvider.builder().toolObjects(codestyleService, statsService).build()
+                .getToolCallbacks();
+        return Arrays.stream(callbacks)
+                .<ToolCallback>map(callback -> new ScheduledToolCallback(callback,
+                        bulkheadConfig.getToolScheduler(callback.getToolDefinition().name()),
+                        deadlineConfig.getRequestTimeoutMs()))
+                .toList();
+    }
+
+    /**
+     * 将工具回调转换为异步工具规格
+     * <p>工具在线程池中执行，结果以Mono返回；执行异常和线程池拒绝提交转换为isError的工具结果。
+     * 订阅被取消时取消请求时限，进行中的远程请求、下载和检索在下一个检查点退出
+     *
+     * @param callback 工具回调
+     * @param executor 执行线程池
+     * @return 异步工具规格
+     */
+    private static McpServerFeatures.AsyncToolSpecification toAsyncToolSpecification(ToolCallback callback,
+            ExecutorService executor) {
+        var definition = callback.getToolDefinition();
+        var tool = new McpSchema.Tool(definition.name(), definition.description(), definition.inputSchema());
+        return new McpServerFeatures.AsyncToolSpecification(tool, (exchange, arguments) -> {
+            DeadlineUtils.Deadline deadline = DeadlineUtils.create(0);
+            return Mono.fromFuture(() -> CompletableFuture.supplyAsync(() -> DeadlineUtils.runWith(deadline,
+                                    () -> callback.call(ModelOptionsUtils.toJsonString(arguments),
+                                            new ToolContext(Map.of(McpToolUtils.TOOL_CONTEXT_MCP_EXCHANGE_KEY,
+                                                    new McpSyncServerExchange(exchange))))), executor))
+                    .doOnCancel(deadline::cancel)
+                    .map(result -> new McpSchema.CallToolResult(List.of(new McpSchema.TextContent(result)), false))
+                    .onErrorResume(e -> Mono.just(new McpSchema.CallToolResult(
+                            List.of(new McpSchema.TextContent(errorMessage(definition.name(), rootCause(e)))), true)));
+        });
+    }
+
+    /**
+     * 生成isError工具结果的说明
+     *
+     * @param toolName 工具名
+     * @param e        原始异常
+     * @return 错误说明，线程池拒绝提交时为繁忙提示
+     */
+    private static String errorMessage(String toolName, Throwable e) {
+        if (e instanceof RejectedExecutionException) {
+            return "服务器繁忙: " + toolName + " 调用过多，请稍后重试";
+        }
+        return String.valueOf(e.getMessage());
+    }
+
+    /**
+     * 获取CompletableFuture包装下的原始异常
+     *
+     * @param e 异常
+     * @return 原始异常
+     */
+    private static Throwable rootCause(Throwable e) {
+        return e.getCause() != null && e instanceof CompletionException ? e.getCause() : e;
+    }
+
+    /**
+     * 受调用许可约束的工具回调
+     * <p>请求时限自排队时起算，时限内未获得许可时返回繁忙提示。
+     * SDK 0.9.0 不暴露会话ID，同一会话的 clientInfo 是初始化时反序列化出的同一个实例，以其对象身份区分客户端
+     *
+     * @param delegate  原工具回调
+     * @param scheduler 该工具的调度器
+     * @param timeoutMs 请求时限(毫秒)，<=0表示不限制
+     */
+    private record ScheduledToolCallback(ToolCallback delegate, FairScheduler scheduler, long timeoutMs)
+            implements ToolCallback {
+
+        @Override
+        public ToolDefinition getToolDefinition() {
+            return delegate.getToolDefinition();
+        }
+
+        @Override
+        public ToolMetadata getToolMetadata() {
+            return delegate.getToolMetadata();
+        }
+
+        @Override
+        public String call(String toolInput) {
+            return call(toolInput, null);
+        }
+
+        @Override
+        public String call(String toolInput, ToolContext toolContext) {
+            Object client = McpToolUtils.getMcpExchange(toolContext)
+                    .<Object>map(McpSyncServerExchange::getClientInfo)
+                    .orElse(ANONYMOUS_CLIENT);
+            return DeadlineUtils.runWith(DeadlineUtils.create(timeoutMs), () -> {
+                if (!scheduler.acquire(client, DeadlineUtils.remainingMillis())) {
+                    return "服务器繁忙: " + delegate.getToolDefinition().name() + " 排队超时，请稍后重试";
+                }
+                try {
+                    return delegate.call(toolInput, toolContext);
+                } finally {
+                    scheduler.release(client);
+                }
+            });
+        }
     }
 
     //可以拓展新的工具
@@ -0,0 +1,117 @@
+package top.codestyle.mcp.config;
+
+import cn.hutool.core.io.IoUtil;
+import cn.hutool.core.util.StrUtil;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import top.codestyle.mcp.model.meta.LocalMetaConfig;
+import top.codestyle.mcp.model.meta.LocalMetaInfo;
+import top.codestyle.mcp.model.meta.LocalMetaVariable;
+import top.codestyle.mcp.model.sdk.MetaInfo;
+import top.codestyle.mcp.model.sdk.MetaVariable;
+import top.codestyle.mcp.model.sdk.RemoteMetaConfig;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+
+/**
+ * GraalVM原生镜像运行时提示
+ * <p>Spring AOT已覆盖Bean本身，此处补充框架无法推断的部分:
+ * <ul>
+ *   <li>Hutool JSONUtil/BeanUtil 通过反射读写的Lombok模型(含嵌套类)</li>
+ *   <li>classpath下的提示词模板</li>
+ *   <li>Lucene SPI服务文件及其实现类(编解码器、分词器工厂等按无参构造反射实例化)</li>
+ *   <li>SmartChineseAnalyzer 的词典和停用词</li>
+ * </ul>
+ *
+ * @author movclantian
+ * @since 2025-12-26
+ */
+public class CodestyleRuntimeHints implements RuntimeHintsRegistrar {
+
+    /**
+     * 通过反射序列化/反序列化的模型
+     */
+    private static final List<Class<?>> MODEL_TYPES = List.of(
+            LocalMetaConfig.class, LocalMetaInfo.class, LocalMetaVariable.class,
+            MetaInfo.class, MetaVariable.class, RemoteMetaConfig.class);
+
+    /**
+     * 需要保留实现类的Lucene SPI接口
+     */
+    private static final List<String> LUCENE_SERVICES = List.of(
+            "org.apache.lucene.codecs.Codec",
+            "org.apache.lucene.codecs.PostingsFormat",
+            "org.apache.lucene.codecs.DocValuesFormat",
+            "org.apache.lucene.codecs.KnnVectorsFormat",
+            "org.apache.lucene.analysis.TokenizerFactory",
+            "org.apache.lucene.analysis.TokenFilterFactory",
+            "org.apache.lucene.analysis.CharFilterFactory");
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (Class<?> type : MODEL_TYPES) {
+            registerModel(hints, type);
+        }
+
+        hints.resources().registerPattern("prompt/*.txt");
+        hints.resources().registerPattern("org/apache/lucene/analysis/cn/smart/stopwords.txt");
+        hints.resources().registerPattern("org/apache/lucene/analysis/cn/smart/hhmm/*.mem");
+
+        for (String service : LUCENE_SERVICES) {
+            String location = "META-INF/services/" + service;
+            hints.resources().registerPattern(location);
+            for (String implementation : serviceImplementations(classLoader, location)) {
+                hints.reflection().registerType(TypeReference.of(implementation),
+                        MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+            }
+        }
+    }
+
+    /**
+     * 注册模型及其嵌套类的构造器、公共方法和字段
+     *
+     * @param hints 运行时提示
+     * @param type  模型类型
+     */
+    private static void registerModel(RuntimeHints hints, Class<?> type) {
+        hints.reflection().registerType(type, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                MemberCategory.INVOKE_PUBLIC_METHODS, MemberCategory.DECLARED_FIELDS);
+        for (Class<?> nested : type.getDeclaredClasses()) {
+            registerModel(hints, nested);
+        }
+    }
+
+    /**
+     * 读取classpath上所有同名SPI服务文件中声明的实现类
+     *
+     * @param classLoader 类加载器
+     * @param location    服务文件路径
+     * @return 实现类全限定名
+     */
+    private static List<String> serviceImplementations(ClassLoader classLoader, String location) {
+        try {
+            Enumeration<URL> urls = classLoader.getResources(location);
+            List<String> implementations = new ArrayList<>();
+            while (urls.hasMoreElements()) {
+                try (InputStream in = urls.nextElement().openStream()) {
+                    for (String line : StrUtil.splitTrim(IoUtil.read(in, StandardCharsets.UTF_8), '\n')) {
+                        if (!line.isEmpty() && !line.startsWith("#")) {
+                            implementations.add(line);
+                        }
+                    }
+                }
+            }
+            return implementations;
+        } catch (IOException e) {
+            throw new IllegalStateException("读取SPI服务文件失败: " + location, e);
+        }
+    }
+}
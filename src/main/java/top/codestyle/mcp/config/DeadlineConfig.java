@@ -0,0 +1,56 @@
+package top.codestyle.mcp.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 请求时限配置类
+ * 管理单次工具调用的总时限、Lucene检索时限以及超时后未完成下载的处理方式
+ *
+ * @author movclantian
+ * @since 2025-12-26
+ */
+@Configuration
+public class DeadlineConfig {
+
+    /**
+     * 单次工具调用的总时限(毫秒)，远程检索、下载、解压、索引更新和目录树构建共享，0表示不限制
+     */
+    @Value("${codestyle.deadline.request-timeout-ms:20000}")
+    private long requestTimeoutMs;
+
+    /**
+     * 单次Lucene检索的时限(毫秒)，超时返回已收集的部分结果，0表示仅受请求时限约束
+     */
+    @Value("${codestyle.deadline.search-timeout-ms:3000}")
+    private long searchTimeoutMs;
+
+    /**
+     * 请求超时后未完成的模板下载: background-转入后台继续完成, cancel-立即取消
+     */
+    @Value("${codestyle.deadline.abandoned-download:background}")
+    private String abandonedDownload;
+
+    /**
+     * 获取单次工具调用的总时限(毫秒)
+     */
+    public long getRequestTimeoutMs() {
+        return requestTimeoutMs;
+    }
+
+    /**
+     * 获取单次Lucene检索的时限(毫秒)
+     */
+    public long getSearchTimeoutMs() {
+        return searchTimeoutMs;
+    }
+
+    /**
+     * 请求超时后是否取消未完成的下载
+     *
+     * @return true-取消, false-转入后台继续
+     */
+    public boolean isCancelAbandonedDownload() {
+        return "cancel".equalsIgnoreCase(abandonedDownload);
+    }
+}
@@ -0,0 +1,236 @@
+package top.codestyle.mcp.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 线程池配置类
+ * 管理模板解析、文件校验等可并行任务使用的线程池，以及与之隔离的ASYNC模式工具调用线程池、模板下载线程池和后台任务线程池。
+ * 工具调用会向模板任务线程池提交并等待子任务，二者共用有界线程池时，并发调用占满工作线程后子任务无线程可用，因此分开。
+ * 运行在Java 21+时默认使用虚拟线程，Java 17下回退为有界平台线程池。
+ *
+ * @author movclantian
+ * @since 2025-12-21
+ */
+@Configuration
+public class ExecutorConfig {
+
+    /**
+     * 后台任务队列容量(仅平台线程池)，积压的后台任务没有价值，队列较小
+     */
+    private static final int BACKGROUND_QUEUE_CAPACITY = 64;
+
+    /**
+     * 是否使用虚拟线程: auto-运行时支持则使用, true-强制使用(不支持时回退), false-不使用
+     */
+    @Value("${codestyle.executor.virtual-threads:auto}")
+    private String virtualThreads;
+
+    /**
+     * 最大线程数(仅平台线程池)，0表示按CPU核数自动计算
+     */
+    @Value("${codestyle.executor.max-threads:0}")
+    private int maxThreads;
+
+    /**
+     * 任务队列容量(仅平台线程池)，队列满时模板任务由调用线程执行，ASYNC模式工具调用直接拒绝
+     */
+    @Value("${codestyle.executor.queue-capacity:1024}")
+    private int queueCapacity;
+
+    /**
+     * ASYNC模式工具调用线程数(仅平台线程池)，0表示按CPU核数自动计算
+     */
+    @Value("${codestyle.executor.tool-threads:0}")
+    private int toolThreads;
+
+    /**
+     * 后台任务线程数(仅平台线程池)
+     */
+    @Value("${codestyle.executor.background-threads:2}")
+    private int backgroundThreads;
+
+    /**
+     * 模板下载线程数(仅平台线程池)，与远程访问舱壁的并发数一致
+     */
+    @Value("${codestyle.bulkhead.remote:4}")
+    private int remoteThreads;
+
+    /**
+     * 命名空间聚合搜索和模板组并行渲染的整体超时时间(毫秒)
+     */
+    @Value("${codestyle.search.fan-out-timeout-ms:10000}")
+    private long fanOutTimeoutMs;
+
+    /**
+     * 获取命名空间聚合搜索和模板组并行渲染的整体超时时间(毫秒)
+     */
+    public long getFanOutTimeoutMs() {
+        return fanOutTimeoutMs;
+    }
+
+    /**
+     * 创建模板任务线程池
+     * <p>优先使用虚拟线程；不支持或被禁用时使用有界平台线程池
+     *
+     * @return 线程池
+     */
+    @Bean
+    public ExecutorService templateTaskExecutor() {
+        if (!"false".equalsIgnoreCase(virtualThreads)) {
+            ExecutorService executor = newVirtualThreadExecutor();
+            if (executor != null) {
+                return executor;
+            }
+        }
+        int threads = maxThreads > 0 ? maxThreads : Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+        return newBoundedExecutor(threads, queueCapacity);
+    }
+
+    /**
+     * 创建ASYNC模式的工具调用线程池
+     * <p>工具调用在此线程池中执行，其中的并行子任务提交到模板任务线程池，调用线程阻塞等待时不占用子任务的线程。
+     * 平台线程池饱和时拒绝提交而不是在调用线程执行，避免工具调用占用订阅Mono的传输线程
+     *
+     * @return 线程池
+     */
+    @Bean
+    public ExecutorService toolCallExecutor() {
+        if (!"false".equalsIgnoreCase(virtualThreads)) {
+            ExecutorService executor = newVirtualThreadExecutor();
+            if (executor != null) {
+                return executor;
+            }
+        }
+        int threads = toolThreads > 0 ? toolThreads : Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+        return newBoundedExecutor(threads, queueCapacity, "codestyle-tool-", new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * 创建模板下载线程池
+     * <p>慢速下载不占用工具调用和本地解析的线程；并发数由远程访问舱壁限制
+     *
+     * @return 线程池
+     */
+    @Bean
+    public ExecutorService remoteTaskExecutor() {
+        if (!"false".equalsIgnoreCase(virtualThreads)) {
+            ExecutorService executor = newVirtualThreadExecutor();
+            if (executor != null) {
+                return executor;
+            }
+        }
+        return newBoundedExecutor(Math.max(1, remoteThreads), queueCapacity, "codestyle-remote-");
+    }
+
+    /**
+     * 创建后台任务线程池
+     * <p>用于可放弃的后台工作(如内容预取)。平台线程池饱和时拒绝提交，调用方直接放弃，
+     * 不会像模板任务线程池那样回退到调用线程执行而拖慢当前请求
+     *
+     * @return 线程池
+     */
+    @Bean
+    public ExecutorService backgroundTaskExecutor() {
+        if (!"false".equalsIgnoreCase(virtualThreads)) {
+            ExecutorService executor = newVirtualThreadExecutor();
+            if (executor != null) {
+                return executor;
+            }
+        }
+        return newBoundedExecutor(Math.max(1, backgroundThreads), BACKGROUND_QUEUE_CAPACITY, "codestyle-background-",
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * 当前运行时是否支持虚拟线程(Java 21+)
+     *
+     * @return 是否支持
+     */
+    public static boolean isVirtualThreadSupported() {
+        return Runtime.version().feature() >= 21;
+    }
+
+    /**
+     * 创建每任务一个虚拟线程的执行器
+     * <p>通过反射调用，保证Java 17下可编译运行
+     *
+     * @return 虚拟线程执行器，运行时不支持时返回null
+     */
+    public static ExecutorService newVirtualThreadExecutor() {
+        if (!isVirtualThreadSupported()) {
+            return null;
+        }
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 创建有界平台线程池
+     * <p>模板解析以磁盘I/O为主，默认线程数为CPU核数的2倍且不少于4
+     *
+     * @param threads       线程数
+     * @param queueCapacity 队列容量
+     * @return 有界线程池
+     */
+    public static ExecutorService newBoundedExecutor(int threads, int queueCapacity) {
+        return newBoundedExecutor(threads, queueCapacity, "codestyle-task-");
+    }
+
+    /**
+     * 创建有界平台线程池，队列满时由调用线程执行
+     *
+     * @param threads       线程数
+     * @param queueCapacity 队列容量
+     * @param threadPrefix  线程名前缀
+     * @return 有界线程池
+     */
+    public static ExecutorService newBoundedExecutor(int threads, int queueCapacity, String threadPrefix) {
+        return newBoundedExecutor(threads, queueCapacity, threadPrefix, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * 创建有界平台线程池
+     *
+     * @param threads       线程数
+     * @param queueCapacity 队列容量
+     * @param threadPrefix  线程名前缀
+     * @param rejection     队列满时的处理策略
+     * @return 有界线程池
+     */
+    public static ExecutorService newBoundedExecutor(int threads, int queueCapacity, String threadPrefix,
+                                                     RejectedExecutionHandler rejection) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueCapacity), namedThreadFactory(threadPrefix), rejection);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * 创建带名称前缀的守护线程工厂
+     *
+     * @param prefix 线程名前缀
+     * @return 线程工厂
+     */
+    private static ThreadFactory namedThreadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
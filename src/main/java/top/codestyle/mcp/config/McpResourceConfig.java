@@ -0,0 +1,50 @@
+package top.codestyle.mcp.config;
+
+import io.modelcontextprotocol.server.McpServerFeatures;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import top.codestyle.mcp.service.ResourceService;
+
+import java.util.List;
+
+/**
+ * 管理MCP资源的注册 配置类
+ * <p>启动时发布本地仓库中的模板组和模板文件，资源列表非空时自动配置启用服务器的资源能力；
+ * 之后的增删由 {@link ResourceService} 在模板变化时通过服务器动态完成
+ *
+ * @author movclantian
+ * @since 2025-12-26
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "codestyle.resources", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class McpResourceConfig {
+
+    /**
+     * SYNC模式的资源注册
+     *
+     * @param resourceService 资源服务
+     * @return 同步资源规格列表
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "spring.ai.mcp.server", name = "type", havingValue = "SYNC", matchIfMissing = true)
+    public List<McpServerFeatures.SyncResourceSpecification> codestyleResources(ResourceService resourceService) {
+        return resourceService.initialResources().stream()
+                .map(resourceService::syncSpecification)
+                .toList();
+    }
+
+    /**
+     * ASYNC模式的资源注册，资源读取在模板任务线程池中执行
+     *
+     * @param resourceService 资源服务
+     * @return 异步资源规格列表
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "spring.ai.mcp.server", name = "type", havingValue = "ASYNC")
+    public List<McpServerFeatures.AsyncResourceSpecification> codestyleAsyncResources(ResourceService resourceService) {
+        return resourceService.initialResources().stream()
+                .map(resourceService::asyncSpecification)
+                .toList();
+    }
+}
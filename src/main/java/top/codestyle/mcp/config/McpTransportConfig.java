@@ -0,0 +1,121 @@
+package top.codestyle.mcp.config;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.server.transport.StdioServerTransportProvider;
+import io.modelcontextprotocol.server.transport.WebMvcSseServerTransportProvider;
+import io.modelcontextprotocol.spec.McpSchema;
+import io.modelcontextprotocol.spec.McpServerSession;
+import io.modelcontextprotocol.spec.McpServerTransport;
+import io.modelcontextprotocol.spec.McpServerTransportProvider;
+import org.springframework.ai.mcp.server.autoconfigure.McpServerProperties;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.function.RouterFunction;
+import org.springframework.web.servlet.function.ServerResponse;
+import reactor.core.publisher.Mono;
+
+/**
+ * MCP传输层配置
+ * <p>SDK 0.9.0 的两种服务端传输都不支持同一会话并发写出: stdio以 tryEmitNext 写入单播Sink，
+ * 并发时消息以 "Failed to enqueue message" 被丢弃；SSE直接写响应流，并发时分块交错导致客户端解析失败。
+ * 上一条响应尚未写完、客户端已发来的下一请求就已完成时即会触发，表现为客户端一直等不到结果。
+ * 此处取代自动配置的传输Bean，为每个会话的传输加写出锁。
+ *
+ * @author movclantian
+ * @since 2025-12-26
+ */
+@Configuration
+public class McpTransportConfig {
+
+    /**
+     * stdio传输
+     *
+     * @return 会话写出串行化的stdio传输
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "spring.ai.mcp.server", name = "stdio", havingValue = "true", matchIfMissing = true)
+    public McpServerTransportProvider stdioServerTransport() {
+        return new StdioServerTransportProvider() {
+            @Override
+            public void setSessionFactory(McpServerSession.Factory sessionFactory) {
+                super.setSessionFactory(serialized(sessionFactory));
+            }
+        };
+    }
+
+    /**
+     * HTTP/SSE传输，端点与自动配置一致
+     *
+     * @param objectMapper JSON序列化
+     * @param properties   MCP服务器配置
+     * @return 会话写出串行化的SSE传输
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "spring.ai.mcp.server", name = "stdio", havingValue = "false")
+    public WebMvcSseServerTransportProvider webMvcSseServerTransportProvider(ObjectProvider<ObjectMapper> objectMapper,
+            McpServerProperties properties) {
+        return new WebMvcSseServerTransportProvider(objectMapper.getIfAvailable(ObjectMapper::new),
+                properties.getSseMessageEndpoint()) {
+            @Override
+            public void setSessionFactory(McpServerSession.Factory sessionFactory) {
+                super.setSessionFactory(serialized(sessionFactory));
+            }
+        };
+    }
+
+    /**
+     * SSE端点路由，自动配置在已有传输Bean时整体退出，需一并注册
+     *
+     * @param transportProvider SSE传输
+     * @return SSE与消息端点路由
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "spring.ai.mcp.server", name = "stdio", havingValue = "false")
+    public RouterFunction<ServerResponse> mvcMcpRouterFunction(WebMvcSseServerTransportProvider transportProvider) {
+        return transportProvider.getRouterFunction();
+    }
+
+    /**
+     * 包装会话工厂，新会话使用写出串行化的传输
+     *
+     * @param sessionFactory 原会话工厂
+     * @return 包装后的会话工厂
+     */
+    private static McpServerSession.Factory serialized(McpServerSession.Factory sessionFactory) {
+        return transport -> sessionFactory.create(new SerializedTransport(transport));
+    }
+
+    /**
+     * 写出串行化的会话传输
+     * <p>两种传输的 sendMessage 在订阅时同步完成写出，因此在锁内订阅即可保证同一会话的消息逐条写出
+     */
+    private record SerializedTransport(McpServerTransport delegate) implements McpServerTransport {
+
+        @Override
+        public Mono<Void> sendMessage(McpSchema.JSONRPCMessage message) {
+            return Mono.create(sink -> {
+                synchronized (delegate) {
+                    delegate.sendMessage(message).subscribe(null, sink::error, sink::success);
+                }
+            });
+        }
+
+        @Override
+        public <T> T unmarshalFrom(Object data, TypeReference<T> typeRef) {
+            return delegate.unmarshalFrom(data, typeRef);
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+
+        @Override
+        public Mono<Void> closeGracefully() {
+            return delegate.closeGracefully();
+        }
+    }
+}
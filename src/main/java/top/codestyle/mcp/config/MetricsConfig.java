@@ -0,0 +1,39 @@
+package top.codestyle.mcp.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 指标配置类
+ * 在未引入actuator的情况下提供内存指标注册表，并挂载到全局注册表，
+ * 供静态工具类记录指标、codestyleStats工具读取快照
+ *
+ * @author movclantian
+ * @since 2025-12-23
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * 创建内存指标注册表
+     * <p>启动阶段即有指标记录(如索引重建)，依赖方需通过@DependsOn保证注册表先于其创建；
+     * 容器关闭时从全局注册表移除并关闭
+     *
+     * @return 指标注册表
+     */
+    @Bean
+    public MeterRegistry codestyleMeterRegistry() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry() {
+            @Override
+            public void close() {
+                Metrics.removeRegistry(this);
+                super.close();
+            }
+        };
+        Metrics.addRegistry(registry);
+        return registry;
+    }
+}
@@ -0,0 +1,54 @@
+package top.codestyle.mcp.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 模板内容预取配置类
+ * 搜索命中单个模板组时，将排名靠前的文件内容提前读入内容缓存，或按字节预算随搜索结果内联返回
+ *
+ * @author movclantian
+ * @since 2025-12-26
+ */
+@Configuration
+public class PrefetchConfig {
+
+    /**
+     * 是否在搜索后台预取模板文件内容
+     */
+    @Value("${codestyle.prefetch.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * 预取或内联的文件数上限(按 meta.json 中的文件顺序，展开路径下的文件优先)
+     */
+    @Value("${codestyle.prefetch.max-files:8}")
+    private int maxFiles;
+
+    /**
+     * 内联模式下随搜索结果返回的文件内容总字节数上限(UTF-8)
+     */
+    @Value("${codestyle.prefetch.inline-max-bytes:32768}")
+    private int inlineMaxBytes;
+
+    /**
+     * 是否在搜索后台预取模板文件内容
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 获取预取或内联的文件数上限
+     */
+    public int getMaxFiles() {
+        return maxFiles;
+    }
+
+    /**
+     * 获取内联文件内容总字节数上限
+     */
+    public int getInlineMaxBytes() {
+        return inlineMaxBytes;
+    }
+}
@@ -0,0 +1,41 @@
+package top.codestyle.mcp.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 模板渲染配置类
+ * 管理模板组批量渲染的单次输出预算，超出预算的文件分多次返回，分部分返回的渲染结果按有效期保留
+ *
+ * @author movclantian
+ * @since 2025-12-26
+ */
+@Configuration
+public class RenderConfig {
+
+    /**
+     * 批量渲染单次返回的最大字符数(按渲染内容计)，超出部分按文件拆分到后续部分，0表示不限制
+     */
+    @Value("${codestyle.render.max-chars:60000}")
+    private int maxChars;
+
+    /**
+     * 获取批量渲染单次返回的最大字符数
+     */
+    public int getMaxChars() {
+        return maxChars;
+    }
+
+    /**
+     * 分部分返回的渲染结果保留时间(毫秒)，超时后需从第1部分重新渲染
+     */
+    @Value("${codestyle.render.result-ttl-ms:600000}")
+    private long resultTtlMs;
+
+    /**
+     * 获取分部分返回的渲染结果保留时间(毫秒)
+     */
+    public long getResultTtlMs() {
+        return resultTtlMs;
+    }
+}
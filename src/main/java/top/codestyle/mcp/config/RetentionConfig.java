@@ -0,0 +1,88 @@
+package top.codestyle.mcp.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * 历史版本保留策略配置类
+ * 管理后台清理任务的执行周期，以及按版本数、存放时间和总占用空间淘汰本地历史版本的阈值。
+ * 每个模板组的最新版本始终保留；被淘汰的版本先从 meta.json 中移除，版本目录移入回收目录，超过宽限期后才删除。
+ *
+ * @author movclantian
+ * @since 2025-12-26
+ */
+@Configuration
+@EnableScheduling
+public class RetentionConfig {
+
+    /**
+     * 回收目录名(位于仓库根目录下)
+     */
+    public static final String TRASH_DIR = ".trash";
+
+    /**
+     * 是否启用后台清理，会删除本地仓库中的历史版本，默认关闭
+     */
+    @Value("${codestyle.retention.enabled:false}")
+    private boolean enabled;
+
+    /**
+     * 每个模板组保留的最近版本数(含最新版本)，0表示不限制
+     */
+    @Value("${codestyle.retention.keep-versions:5}")
+    private int keepVersions;
+
+    /**
+     * 历史版本的最长保留天数(按版本目录修改时间)，0表示不限制
+     */
+    @Value("${codestyle.retention.max-age-days:0}")
+    private int maxAgeDays;
+
+    /**
+     * 本地仓库模板版本的总占用上限(MB)，超出时从最旧的历史版本开始淘汰，0表示不限制
+     */
+    @Value("${codestyle.retention.max-total-mb:0}")
+    private long maxTotalMb;
+
+    /**
+     * 回收目录中版本目录的宽限期(毫秒)，超过后删除，期间仍在读取的请求不受影响
+     */
+    @Value("${codestyle.retention.grace-period-ms:600000}")
+    private long gracePeriodMs;
+
+    /**
+     * 是否启用后台清理
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 获取每个模板组保留的最近版本数
+     */
+    public int getKeepVersions() {
+        return keepVersions;
+    }
+
+    /**
+     * 获取历史版本的最长保留时间(毫秒)，0表示不限制
+     */
+    public long getMaxAgeMs() {
+        return maxAgeDays * 24L * 60 * 60 * 1000;
+    }
+
+    /**
+     * 获取本地仓库模板版本的总占用上限(字节)，0表示不限制
+     */
+    public long getMaxTotalBytes() {
+        return maxTotalMb * 1024 * 1024;
+    }
+
+    /**
+     * 获取回收目录的宽限期(毫秒)
+     */
+    public long getGracePeriodMs() {
+        return gracePeriodMs;
+    }
+}
@@ -0,0 +1,56 @@
+package top.codestyle.mcp.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import top.codestyle.mcp.model.tree.TreeBudget;
+
+/**
+ * 目录树输出配置类
+ * 管理搜索结果目录树的默认输出预算，避免大命名空间返回超长响应
+ *
+ * @author movclantian
+ * @since 2025-12-20
+ */
+@Configuration
+public class TreeOutputConfig {
+
+    /**
+     * 默认最大展示深度，0表示不限制
+     */
+    @Value("${codestyle.tree.max-depth:0}")
+    private int maxDepth;
+
+    /**
+     * 默认最大输出条目数，0表示不限制
+     */
+    @Value("${codestyle.tree.max-entries:400}")
+    private int maxEntries;
+
+    /**
+     * 默认最大输出字符数，0表示不限制
+     */
+    @Value("${codestyle.tree.max-chars:16000}")
+    private int maxChars;
+
+    /**
+     * 获取默认输出预算
+     */
+    public TreeBudget getDefaultBudget() {
+        return new TreeBudget(maxDepth, maxEntries, maxChars);
+    }
+
+    /**
+     * 合并调用方传入的预算参数，未传入的项使用默认值
+     *
+     * @param maxDepth   最大深度，可为null
+     * @param maxEntries 最大条目数，可为null
+     * @param maxChars   最大字符数，可为null
+     * @return 输出预算
+     */
+    public TreeBudget resolve(Integer maxDepth, Integer maxEntries, Integer maxChars) {
+        return new TreeBudget(
+                maxDepth != null ? maxDepth : this.maxDepth,
+                maxEntries != null ? maxEntries : this.maxEntries,
+                maxChars != null ? maxChars : this.maxChars);
+    }
+}
@@ -0,0 +1,38 @@
+package top.codestyle.mcp.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Lucene索引全量重建事件
+ *
+ * @author movclantian
+ * @since 2025-12-24
+ */
+@Name("top.codestyle.IndexRebuild")
+@Label("Index Rebuild")
+@Category({"Codestyle", "Index"})
+@Description("扫描本地仓库全部meta.json并重建Lucene索引")
+@StackTrace(false)
+public class IndexRebuildEvent extends Event {
+
+    @Label("Repository Dir")
+    public String repositoryDir;
+
+    @Label("Documents")
+    @Description("重建后的索引文档数")
+    public int documents;
+
+    @Label("Lock Wait")
+    @Description("等待索引写锁的时间")
+    @Timespan
+    public long lockWait;
+
+    @Label("Success")
+    public boolean success;
+}
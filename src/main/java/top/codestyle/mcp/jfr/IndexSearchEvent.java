@@ -0,0 +1,46 @@
+package top.codestyle.mcp.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Lucene本地检索事件
+ *
+ * @author movclantian
+ * @since 2025-12-24
+ */
+@Name("top.codestyle.IndexSearch")
+@Label("Index Search")
+@Category({"Codestyle", "Index"})
+@Description("本地Lucene检索(模板检索或模板文件内容检索)，持续时间不含自动重建检查")
+@StackTrace(false)
+public class IndexSearchEvent extends Event {
+
+    @Label("Mode")
+    @Description("template-模板检索, file-模板文件内容检索")
+    public String mode;
+
+    @Label("Keyword")
+    public String keyword;
+
+    @Label("Hits")
+    @Description("命中的模板组数或文件数")
+    public int hits;
+
+    @Label("Lock Wait")
+    @Description("等待本地读取并发许可的时间")
+    @Timespan
+    public long lockWait;
+
+    @Label("Timed Out")
+    @Description("检索因时限中止，命中结果不完整")
+    public boolean timedOut;
+
+    @Label("Success")
+    public boolean success;
+}
@@ -0,0 +1,46 @@
+package top.codestyle.mcp.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * 模板下载解压事件
+ *
+ * @author movclantian
+ * @since 2025-12-24
+ */
+@Name("top.codestyle.TemplateDownload")
+@Label("Template Download")
+@Category({"Codestyle", "Remote"})
+@Description("从远程仓库下载模板ZIP并解压到本地缓存")
+@StackTrace(false)
+public class TemplateDownloadEvent extends Event {
+
+    @Label("Group Id")
+    public String groupId;
+
+    @Label("Artifact Id")
+    public String artifactId;
+
+    @Label("Version")
+    public String version;
+
+    @Label("Bytes")
+    @Description("下载的ZIP大小")
+    @DataAmount
+    public long bytes;
+
+    @Label("Download Time")
+    @Description("HTTP下载耗时，其余为解压和meta.json合并耗时")
+    @Timespan
+    public long downloadTime;
+
+    @Label("Success")
+    public boolean success;
+}
@@ -0,0 +1,39 @@
+package top.codestyle.mcp.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 模板文件读取事件
+ *
+ * @author movclantian
+ * @since 2025-12-24
+ */
+@Name("top.codestyle.TemplateRead")
+@Label("Template Read")
+@Category({"Codestyle", "Template"})
+@StackTrace(false)
+public class TemplateReadEvent extends Event {
+
+    @Label("Group Id")
+    public String groupId;
+
+    @Label("Artifact Id")
+    public String artifactId;
+
+    @Label("Version")
+    public String version;
+
+    @Label("Path")
+    @Description("相对版本目录的文件路径")
+    public String path;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+}
@@ -21,4 +21,9 @@ public class LocalMetaInfo extends MetaInfo {
      */
     private String templateContent;
 
+    /**
+     * 模板文件内容的SHA256(按实际内容计算，本地修改过的文件可能与 meta.json 声明的值不同)
+     */
+    private String templateSha256;
+
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+package top.codestyle.mcp.model.meta;
+
+/**
+ * 本地模板变化事件
+ * <p>模板下载更新、meta.json 变化或模板文件内容被修改时发布，
+ * 各字段为null表示变化范围覆盖整个仓库或整个模板组
+ *
+ * @param groupId      组ID，为null表示整个仓库
+ * @param artifactId   项目ID，为null表示整个仓库
+ * @param templatePath 内容发生变化的完整模板文件路径，为null表示模板组的文件列表可能变化
+ * @author movclantian
+ * @since 2025-12-26
+ */
+public record TemplateChangedEvent(String groupId, String artifactId, String templatePath) {
+
+    /**
+     * 整个仓库可能变化
+     *
+     * @return 事件
+     */
+    public static TemplateChangedEvent repository() {
+        return new TemplateChangedEvent(null, null, null);
+    }
+
+    /**
+     * 模板组的文件列表或版本可能变化
+     *
+     * @param groupId    组ID
+     * @param artifactId 项目ID
+     * @return 事件
+     */
+    public static TemplateChangedEvent group(String groupId, String artifactId) {
+        return new TemplateChangedEvent(groupId, artifactId, null);
+    }
+
+    /**
+     * 模板文件内容变化
+     *
+     * @param templatePath 完整模板文件路径
+     * @return 事件
+     */
+    public static TemplateChangedEvent file(String templatePath) {
+        return new TemplateChangedEvent(null, null, templatePath);
+    }
+}
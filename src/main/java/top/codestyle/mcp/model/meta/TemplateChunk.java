@@ -0,0 +1,74 @@
+package top.codestyle.mcp.model.meta;
+
+/**
+ * 模板文件分段
+ * <p>大文件按字节范围分段返回，续读令牌记录下一段的起始偏移以及本次读取时的文件大小和修改时间，
+ * 续读时二者不一致说明文件已被修改，需从头重新获取
+ *
+ * @param offset       本段起始字节偏移
+ * @param end          本段结束字节偏移(不含)
+ * @param size         文件总字节数
+ * @param lastModified 文件修改时间(毫秒)
+ * @param content      本段内容
+ * @author movclantian
+ * @since 2025-12-26
+ */
+public record TemplateChunk(long offset, long end, long size, long lastModified, String content) {
+
+    /**
+     * 是否已读到文件末尾
+     */
+    public boolean last() {
+        return end >= size;
+    }
+
+    /**
+     * 生成读取下一段的续读令牌
+     *
+     * @return 续读令牌，格式: 下一段偏移.文件大小.修改时间(均为36进制)
+     */
+    public String continuationToken() {
+        return Long.toString(end, 36) + "." + Long.toString(size, 36) + "." + Long.toString(lastModified, 36);
+    }
+
+    /**
+     * 续读令牌
+     *
+     * @param offset       下一段起始字节偏移
+     * @param size         生成令牌时的文件总字节数
+     * @param lastModified 生成令牌时的文件修改时间(毫秒)
+     */
+    public record Token(long offset, long size, long lastModified) {
+
+        /**
+         * 解析续读令牌
+         *
+         * @param token 续读令牌
+         * @return 令牌，格式错误时返回null
+         */
+        public static Token parse(String token) {
+            String[] parts = token.strip().split("\\.");
+            if (parts.length != 3) {
+                return null;
+            }
+            try {
+                long offset = Long.parseLong(parts[0], 36);
+                long size = Long.parseLong(parts[1], 36);
+                long lastModified = Long.parseLong(parts[2], 36);
+                return offset < 0 || offset > size ? null : new Token(offset, size, lastModified);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        /**
+         * 判断分段读取时文件是否与生成令牌时一致
+         *
+         * @param chunk 按令牌读取的分段
+         * @return 文件大小和修改时间均未变化时返回true
+         */
+        public boolean matches(TemplateChunk chunk) {
+            return size == chunk.size() && lastModified == chunk.lastModified();
+        }
+    }
+}
@@ -0,0 +1,470 @@
+package top.codestyle.mcp.model.tree;
+
+import top.codestyle.mcp.model.sdk.MetaInfo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 紧凑路径前缀树
+ * <p>目录节点和文件名以数组保存，节点下标按深度优先前序分配，根节点下标为0。
+ * 路径段名称在构建时驻留复用，同一目录下的子目录和文件均按字典序排列。
+ * 文件记录SHA256前缀(由调用方传入文件内容的SHA256，未传入时取 meta.json 声明值)，客户端可据此判断已获取的模板是否需要重新获取。
+ *
+ * @author movclantian
+ * @since 2025-12-20
+ */
+public final class PathTrie {
+
+    /**
+     * 根节点下标
+     */
+    public static final int ROOT = 0;
+
+    /**
+     * 无节点标记
+     */
+    public static final int NONE = -1;
+
+    /**
+     * 文件SHA256保留的前缀长度(十六进制字符数)
+     */
+    public static final int HASH_PREFIX_LENGTH = 12;
+
+    /**
+     * 目录节点名称
+     */
+    private final String[] names;
+
+    /**
+     * 第一个子目录节点下标
+     */
+    private final int[] firstChild;
+
+    /**
+     * 下一个兄弟目录节点下标
+     */
+    private final int[] nextSibling;
+
+    /**
+     * 节点下文件在files中的起始下标
+     */
+    private final int[] fileStart;
+
+    /**
+     * 节点下文件数量
+     */
+    private final int[] fileCount;
+
+    /**
+     * 子树中的目录数量(不含节点自身)
+     */
+    private final int[] subtreeDirs;
+
+    /**
+     * 子树中的文件数量
+     */
+    private final int[] subtreeFiles;
+
+    /**
+     * 所有文件名，同一节点的文件连续存放
+     */
+    private final String[] files;
+
+    /**
+     * 文件SHA256前缀，与files一一对应，未知时为null
+     */
+    private final String[] fileHashes;
+
+    private PathTrie(String[] names, int[] firstChild, int[] nextSibling, int[] fileStart, int[] fileCount,
+            int[] subtreeDirs, int[] subtreeFiles, String[] files, String[] fileHashes) {
+        this.names = names;
+        this.firstChild = firstChild;
+        this.nextSibling = nextSibling;
+        this.fileStart = fileStart;
+        this.fileCount = fileCount;
+        this.subtreeDirs = subtreeDirs;
+        this.subtreeFiles = subtreeFiles;
+        this.files = files;
+        this.fileHashes = fileHashes;
+    }
+
+    /**
+     * 根据模板信息列表构建前缀树
+     * <p>先将所有路径拆分为路径段并排序，再单次顺序扫描建树，不需要按路径前缀查找节点
+     *
+     * @param list 模板元信息列表
+     * @return 路径前缀树
+     */
+    public static PathTrie build(List<MetaInfo> list) {
+        return build(list, null);
+    }
+
+    /**
+     * 根据模板信息列表和文件SHA256构建前缀树
+     *
+     * @param list    模板元信息列表
+     * @param sha256s 与list一一对应的文件SHA256，元素为null时不显示哈希；整体为null时取 meta.json 声明值
+     * @return 路径前缀树
+     */
+    public static PathTrie build(List<MetaInfo> list, List<String> sha256s) {
+        Map<String, String> pool = new HashMap<>();
+        List<Entry> entries = new ArrayList<>(list.size());
+        for (int i = 0; i < list.size(); i++) {
+            MetaInfo t = list.get(i);
+            entries.add(toEntry(t, sha256s == null ? t.getSha256() : sha256s.get(i), pool));
+        }
+        entries.sort(Entry.ORDER);
+
+        Builder builder = new Builder(entries.size());
+        int[] stack = new int[16];
+        String[] prevDirs = new String[0];
+        String prevFile = null;
+        int prevNode = NONE;
+
+        for (Entry entry : entries) {
+            String[] dirs = entry.dirs;
+            int common = commonPrefix(prevDirs, dirs);
+            if (stack.length <= dirs.length) {
+                stack = Arrays.copyOf(stack, dirs.length * 2 + 1);
+            }
+            // 栈中保留公共前缀部分，其余路径段依次创建新节点
+            for (int k = common; k < dirs.length; k++) {
+                stack[k + 1] = builder.addNode(stack[k], dirs[k]);
+            }
+            int node = stack[dirs.length];
+            // 同一目录下的重复文件只保留一个
+            if (entry.file != null && !(node == prevNode && entry.file.equals(prevFile))) {
+                builder.addFile(node, entry.file, entry.hash);
+            }
+            prevDirs = dirs;
+            prevFile = entry.file;
+            prevNode = node;
+        }
+        return builder.toTrie();
+    }
+
+    /**
+     * 将模板元信息拆分为路径段
+     * <p>路径格式: groupId/artifactId/version/filePath/filename
+     *
+     * @param t      模板元信息
+     * @param sha256 文件SHA256，可为null
+     * @param pool   路径段驻留池
+     * @return 路径条目
+     */
+    private static Entry toEntry(MetaInfo t, String sha256, Map<String, String> pool) {
+        List<String> dirs = new ArrayList<>(8);
+        addSegment(dirs, t.getGroupId(), pool);
+        addSegment(dirs, t.getArtifactId(), pool);
+        addSegment(dirs, t.getVersion(), pool);
+        String filePath = t.getFilePath();
+        if (filePath != null) {
+            int start = 0;
+            for (int i = 0; i <= filePath.length(); i++) {
+                if (i == filePath.length() || filePath.charAt(i) == '/' || filePath.charAt(i) == '\\') {
+                    if (i > start) {
+                        addSegment(dirs, filePath.substring(start, i), pool);
+                    }
+                    start = i + 1;
+                }
+            }
+        }
+        // 以"/"结尾的文件名视为目录占位，不挂载文件
+        String filename = t.getFilename();
+        String file = filename == null || filename.isEmpty() || filename.endsWith("/") ? null : filename;
+        String hash = sha256 == null || sha256.length() < HASH_PREFIX_LENGTH
+                ? null : sha256.substring(0, HASH_PREFIX_LENGTH).toLowerCase(Locale.ROOT);
+        return new Entry(dirs.toArray(new String[0]), file, hash);
+    }
+
+    /**
+     * 追加路径段(忽略空段和"."段)
+     *
+     * @param dirs    路径段列表
+     * @param segment 路径段
+     * @param pool    路径段驻留池
+     */
+    private static void addSegment(List<String> dirs, String segment, Map<String, String> pool) {
+        if (segment == null || segment.isEmpty() || ".".equals(segment)) {
+            return;
+        }
+        String interned = pool.putIfAbsent(segment, segment);
+        dirs.add(interned != null ? interned : segment);
+    }
+
+    /**
+     * 计算两个路径段数组的公共前缀长度
+     *
+     * @param a 路径段数组
+     * @param b 路径段数组
+     * @return 公共前缀长度
+     */
+    private static int commonPrefix(String[] a, String[] b) {
+        int n = Math.min(a.length, b.length);
+        int i = 0;
+        while (i < n && a[i].equals(b[i])) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * 目录节点数量(含根节点)
+     *
+     * @return 节点数量
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * 节点名称，根节点为空字符串
+     *
+     * @param node 节点下标
+     * @return 节点名称
+     */
+    public String name(int node) {
+        return names[node];
+    }
+
+    /**
+     * 第一个子目录节点
+     *
+     * @param node 节点下标
+     * @return 子节点下标，无子节点返回{@link #NONE}
+     */
+    public int firstChild(int node) {
+        return firstChild[node];
+    }
+
+    /**
+     * 下一个兄弟目录节点
+     *
+     * @param node 节点下标
+     * @return 兄弟节点下标，无兄弟节点返回{@link #NONE}
+     */
+    public int nextSibling(int node) {
+        return nextSibling[node];
+    }
+
+    /**
+     * 节点下直接包含的文件数量
+     *
+     * @param node 节点下标
+     * @return 文件数量
+     */
+    public int fileCount(int node) {
+        return fileCount[node];
+    }
+
+    /**
+     * 节点下第i个文件名
+     *
+     * @param node 节点下标
+     * @param i    文件序号
+     * @return 文件名
+     */
+    public String fileName(int node, int i) {
+        return files[fileStart[node] + i];
+    }
+
+    /**
+     * 节点下第i个文件的SHA256前缀
+     *
+     * @param node 节点下标
+     * @param i    文件序号
+     * @return SHA256前缀(小写)，未知时返回null
+     */
+    public String fileHash(int node, int i) {
+        return fileHashes[fileStart[node] + i];
+    }
+
+    /**
+     * 子树中的目录数量(不含节点自身)
+     *
+     * @param node 节点下标
+     * @return 目录数量
+     */
+    public int subtreeDirCount(int node) {
+        return subtreeDirs[node];
+    }
+
+    /**
+     * 子树中的文件数量
+     *
+     * @param node 节点下标
+     * @return 文件数量
+     */
+    public int subtreeFileCount(int node) {
+        return subtreeFiles[node];
+    }
+
+    /**
+     * 按目录路径查找节点
+     *
+     * @param path 目录路径，如: backend/CRUD/1.0.0/src，支持"/"和"\\"分隔
+     * @return 节点下标，未找到返回{@link #NONE}
+     */
+    public int find(String path) {
+        int node = ROOT;
+        if (path == null) {
+            return node;
+        }
+        for (String segment : path.split("[/\\\\]")) {
+            if (segment.isEmpty() || ".".equals(segment)) {
+                continue;
+            }
+            int c = firstChild[node];
+            while (c != NONE && !names[c].equals(segment)) {
+                c = nextSibling[c];
+            }
+            if (c == NONE) {
+                return NONE;
+            }
+            node = c;
+        }
+        return node;
+    }
+
+    /**
+     * 路径条目：目录路径段、文件名和SHA256前缀
+     *
+     * @param dirs 目录路径段
+     * @param file 文件名，可为null
+     * @param hash SHA256前缀，可为null
+     */
+    private record Entry(String[] dirs, String file, String hash) {
+
+        /**
+         * 按路径段逐段字典序排列，前缀较短者在前，目录相同时按文件名排列
+         */
+        static final Comparator<Entry> ORDER = (x, y) -> {
+            int n = Math.min(x.dirs.length, y.dirs.length);
+            for (int i = 0; i < n; i++) {
+                int c = x.dirs[i].compareTo(y.dirs[i]);
+                if (c != 0) {
+                    return c;
+                }
+            }
+            if (x.dirs.length != y.dirs.length) {
+                return Integer.compare(x.dirs.length, y.dirs.length);
+            }
+            if (x.file == null || y.file == null) {
+                return x.file == null ? (y.file == null ? 0 : -1) : 1;
+            }
+            return x.file.compareTo(y.file);
+        };
+    }
+
+    /**
+     * 可增长数组构建器
+     */
+    private static final class Builder {
+        private String[] names;
+        private int[] parent;
+        private int[] firstChild;
+        private int[] lastChild;
+        private int[] nextSibling;
+        private int[] fileStart;
+        private int[] fileCount;
+        private String[] files;
+        private String[] fileHashes;
+        private int nodeCount;
+        private int totalFiles;
+
+        Builder(int expectedFiles) {
+            int capacity = Math.max(16, expectedFiles);
+            names = new String[capacity];
+            parent = new int[capacity];
+            firstChild = new int[capacity];
+            lastChild = new int[capacity];
+            nextSibling = new int[capacity];
+            fileStart = new int[capacity];
+            fileCount = new int[capacity];
+            files = new String[Math.max(16, expectedFiles)];
+            fileHashes = new String[files.length];
+            addNode(NONE, "");
+        }
+
+        /**
+         * 新建目录节点并挂到父节点的子节点链表末尾
+         *
+         * @param parentNode 父节点下标，根节点为NONE
+         * @param name       节点名称
+         * @return 新节点下标
+         */
+        int addNode(int parentNode, String name) {
+            if (nodeCount == names.length) {
+                int capacity = names.length * 2;
+                names = Arrays.copyOf(names, capacity);
+                parent = Arrays.copyOf(parent, capacity);
+                firstChild = Arrays.copyOf(firstChild, capacity);
+                lastChild = Arrays.copyOf(lastChild, capacity);
+                nextSibling = Arrays.copyOf(nextSibling, capacity);
+                fileStart = Arrays.copyOf(fileStart, capacity);
+                fileCount = Arrays.copyOf(fileCount, capacity);
+            }
+            int node = nodeCount++;
+            names[node] = name;
+            parent[node] = parentNode;
+            firstChild[node] = NONE;
+            lastChild[node] = NONE;
+            nextSibling[node] = NONE;
+            if (parentNode != NONE) {
+                if (firstChild[parentNode] == NONE) {
+                    firstChild[parentNode] = node;
+                } else {
+                    nextSibling[lastChild[parentNode]] = node;
+                }
+                lastChild[parentNode] = node;
+            }
+            return node;
+        }
+
+        /**
+         * 向节点追加文件(同一节点的文件必须连续追加)
+         *
+         * @param node 节点下标
+         * @param file 文件名
+         * @param hash SHA256前缀，可为null
+         */
+        void addFile(int node, String file, String hash) {
+            if (totalFiles == files.length) {
+                files = Arrays.copyOf(files, files.length * 2);
+                fileHashes = Arrays.copyOf(fileHashes, files.length);
+            }
+            if (fileCount[node] == 0) {
+                fileStart[node] = totalFiles;
+            }
+            fileHashes[totalFiles] = hash;
+            files[totalFiles++] = file;
+            fileCount[node]++;
+        }
+
+        PathTrie toTrie() {
+            // 节点按前序编号，子节点下标总大于父节点，逆序累加即可得到子树统计
+            int[] subtreeDirs = new int[nodeCount];
+            int[] subtreeFiles = Arrays.copyOf(fileCount, nodeCount);
+            for (int node = nodeCount - 1; node > ROOT; node--) {
+                subtreeDirs[parent[node]] += subtreeDirs[node] + 1;
+                subtreeFiles[parent[node]] += subtreeFiles[node];
+            }
+            return new PathTrie(
+                    Arrays.copyOf(names, nodeCount),
+                    Arrays.copyOf(firstChild, nodeCount),
+                    Arrays.copyOf(nextSibling, nodeCount),
+                    Arrays.copyOf(fileStart, nodeCount),
+                    Arrays.copyOf(fileCount, nodeCount),
+                    subtreeDirs,
+                    subtreeFiles,
+                    Arrays.copyOf(files, totalFiles),
+                    Arrays.copyOf(fileHashes, totalFiles));
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package top.codestyle.mcp.model.tree;
+
+/**
+ * 目录树输出预算
+ * <p>各项取值小于等于0时表示不限制
+ *
+ * @param maxDepth   最大展示深度(groupId为第1层)，超出深度的子树折叠为统计信息
+ * @param maxEntries 最大输出条目数(目录和文件各计1条)
+ * @param maxChars   最大输出字符数
+ * @author movclantian
+ * @since 2025-12-20
+ */
+public record TreeBudget(int maxDepth, int maxEntries, int maxChars) {
+
+    /**
+     * 不限制输出
+     */
+    public static final TreeBudget UNLIMITED = new TreeBudget(0, 0, 0);
+
+    /**
+     * 是否限制深度
+     */
+    public boolean depthLimited() {
+        return maxDepth > 0;
+    }
+
+    /**
+     * 是否限制条目数
+     */
+    public boolean entriesLimited() {
+        return maxEntries > 0;
+    }
+
+    /**
+     * 是否限制字符数
+     */
+    public boolean charsLimited() {
+        return maxChars > 0;
+    }
+
+    /**
+     * 缓存key片段
+     *
+     * @return 形如 d12:e400:c16000 的字符串
+     */
+    public String cacheKey() {
+        return "d" + maxDepth + ":e" + maxEntries + ":c" + maxChars;
+    }
+}
@@ -0,0 +1,58 @@
+package top.codestyle.mcp.service;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.cjk.CJKBigramFilter;
+import org.apache.lucene.analysis.core.FlattenGraphFilter;
+import org.apache.lucene.analysis.miscellaneous.WordDelimiterGraphFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+
+/**
+ * 模板代码分词器
+ * <p>按标点切分代码，再按驼峰、下划线、点号和数字边界拆分标识符并保留原词，
+ * 使 {@code UserController} 可被 {@code UserController}、{@code user}、{@code controller} 检索到；
+ * 注释中的中文按二元组切分。拆分出的子词沿用原词的偏移量，高亮时标记整个标识符。
+ *
+ * @author movclantian
+ * @since 2025-12-26
+ */
+class CodeAnalyzer extends Analyzer {
+
+    private static final int DELIMITER_FLAGS = WordDelimiterGraphFilter.GENERATE_WORD_PARTS
+            | WordDelimiterGraphFilter.GENERATE_NUMBER_PARTS
+            | WordDelimiterGraphFilter.SPLIT_ON_CASE_CHANGE
+            | WordDelimiterGraphFilter.SPLIT_ON_NUMERICS
+            | WordDelimiterGraphFilter.PRESERVE_ORIGINAL;
+
+    /**
+     * 是否用于索引写入，写入时需将词图展平
+     */
+    private final boolean indexing;
+
+    /**
+     * 创建分词器
+     *
+     * @param indexing true-索引写入, false-查询解析
+     */
+    CodeAnalyzer(boolean indexing) {
+        this.indexing = indexing;
+    }
+
+    @Override
+    protected TokenStreamComponents createComponents(String fieldName) {
+        var tokenizer = new StandardTokenizer();
+        TokenStream stream = new CJKBigramFilter(tokenizer);
+        stream = new WordDelimiterGraphFilter(stream, DELIMITER_FLAGS, null);
+        if (indexing) {
+            stream = new FlattenGraphFilter(stream);
+        }
+        stream = new LowerCaseFilter(stream);
+        return new TokenStreamComponents(tokenizer, stream);
+    }
+
+    @Override
+    protected TokenStream normalize(String fieldName, TokenStream in) {
+        return new LowerCaseFilter(in);
+    }
+}
@@ -1,19 +1,35 @@
 package top.codestyle.mcp.service;
 
+import cn.hutool.core.util.StrUtil;
+import cn.hutool.json.JSONUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.ai.tool.annotation.Tool;
 import org.springframework.ai.tool.annotation.ToolParam;
 import org.springframework.stereotype.Service;
+import top.codestyle.mcp.config.ChunkConfig;
+import top.codestyle.mcp.config.DeadlineConfig;
+import top.codestyle.mcp.config.PrefetchConfig;
+import top.codestyle.mcp.config.RenderConfig;
 import top.codestyle.mcp.config.RepositoryConfig;
+import top.codestyle.mcp.config.TreeOutputConfig;
 import top.codestyle.mcp.model.meta.LocalMetaInfo;
+import top.codestyle.mcp.model.meta.TemplateChunk;
 import top.codestyle.mcp.model.sdk.MetaInfo;
 import top.codestyle.mcp.model.sdk.RemoteMetaConfig;
-import top.codestyle.mcp.model.tree.TreeNode;
+import top.codestyle.mcp.model.tree.PathTrie;
+import top.codestyle.mcp.model.tree.TreeBudget;
+import top.codestyle.mcp.util.DeadlineUtils;
+import top.codestyle.mcp.util.ManifestUtils;
+import top.codestyle.mcp.util.MetricsUtils;
 import top.codestyle.mcp.util.PromptUtils;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 /**
@@ -26,10 +42,31 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class CodestyleService {
 
+    /**
+     * 内容检索默认和最大返回文件数
+     */
+    private static final int DEFAULT_CONTENT_RESULTS = 10, MAX_CONTENT_RESULTS = 50;
+
+    /**
+     * 未指定length时分段读取的最小字节数，单次返回上限配置过小时仍保证每段能容纳常见长度的一行
+     */
+    private static final int MIN_CHUNK_BYTES = 1024;
+
+    /**
+     * 调用方指定length的最小值，即一个UTF-8字符的最大字节数
+     */
+    private static final int MIN_LENGTH = 4;
+
     private final TemplateService templateService;
     private final PromptService promptService;
     private final LuceneIndexService luceneIndexService;
     private final RepositoryConfig repositoryConfig;
+    private final TreeOutputConfig treeOutputConfig;
+    private final DeadlineConfig deadlineConfig;
+    private final RenderService renderService;
+    private final RenderConfig renderConfig;
+    private final PrefetchConfig prefetchConfig;
+    private final ChunkConfig chunkConfig;
 
     /**
      * 搜索代码模板
@@ -37,6 +74,12 @@ public class CodestyleService {
      * 支持本地Lucene检索和远程检索两种模式。
      *
      * @param templateKeyword 模板提示词，支持关键词或 groupId/artifactId 格式，如: CRUD, backend, frontend, continew/DatabaseConfig
+     * @param maxDepth        目录树最大展示深度，可选
+     * @param maxEntries      目录树最大条目数，可选
+     * @param maxChars        目录树最大字符数，可选
+     * @param expandPath      需要展开的子目录路径，可选
+     * @param inlineContent   是否内联返回排名靠前的文件内容，可选
+     * @param version         模板版本号，可选，默认最新版本
      * @return 模板目录树和描述信息字符串
      */
     @Tool(name = "codestyleSearch", description = """
@@ -44,108 +87,694 @@ public class CodestyleService {
             支持以下搜索格式：
             1. 关键词搜索：CRUD, frontend, backend 等
             2. 精确搜索：groupId/artifactId 格式
+            目录树较大时会按输出预算折叠或截断，可通过 expandPath 展开指定子目录。
+            文件名后的 #xxxxxxxxxxxx 为文件内容SHA256前缀，与已获取内容的SHA256前缀一致时无需重新获取。
+            命中单个模板组且 inlineContent=true 时，按字节预算随结果返回排名靠前的文件内容(expandPath 下的文件优先)，省去逐个调用 getTemplateByPath。
+            默认检索各模板组的最新版本，模板组有多个版本时结果中会列出全部版本，可通过 version 检索和查看历史版本。
             """)
     public String codestyleSearch(
-            @ToolParam(description = "模板提示词，如: CRUD, bankend, frontend等") String templateKeyword) {
+            @ToolParam(description = "模板提示词，如: CRUD, bankend, frontend等") String templateKeyword,
+            @ToolParam(description = "目录树最大展示深度(groupId为第1层，指定expandPath时从该目录起算)，超出部分折叠为统计信息，<=0表示不限制", required = false) Integer maxDepth,
+            @ToolParam(description = "目录树最大条目数，<=0表示不限制", required = false) Integer maxEntries,
+            @ToolParam(description = "目录树最大字符数，<=0表示不限制", required = false) Integer maxChars,
+            @ToolParam(description = "需要展开的子目录路径，如: backend/CRUD/1.0.0/src", required = false) String expandPath,
+            @ToolParam(description = "命中单个模板组时是否同时返回排名靠前的模板文件内容，默认false", required = false) Boolean inlineContent,
+            @ToolParam(description = "模板版本号，如: 1.0.0，默认最新版本", required = false) String version) {
+        TreeBudget budget = treeOutputConfig.resolve(maxDepth, maxEntries, maxChars);
+        boolean inline = Boolean.TRUE.equals(inlineContent);
+        String targetVersion = StrUtil.isBlank(version) ? null : version.strip();
         try {
-            // 远程检索模式
-            if (templateService.isRemoteSearchEnabled()) {
-                RemoteMetaConfig remoteConfig = templateService.fetchRemoteMetaConfig(templateKeyword);
+            return MetricsUtils.time(MetricsUtils.TOOL, "codestyleSearch",
+                    () -> withDeadline(() -> doSearch(templateKeyword, targetVersion, expandPath, budget, inline)));
+        } catch (Exception e) {
+            return "模板搜索失败: " + e.getMessage();
+        }
+    }
 
-                if (remoteConfig == null) {
-                    return promptService.buildRemoteUnavailable(templateKeyword);
-                }
+    /**
+     * 执行模板搜索
+     *
+     * @param templateKeyword 模板提示词
+     * @param version         模板版本号，为null时取最新版本
+     * @param expandPath      需要展开的子目录路径，可为null
+     * @param budget          目录树输出预算
+     * @param inline          是否内联返回排名靠前的文件内容
+     * @return 模板目录树和描述信息字符串
+     * @throws Exception 搜索失败
+     */
+    private String doSearch(String templateKeyword, String version, String expandPath, TreeBudget budget,
+                            boolean inline) throws Exception {
+        // 远程检索模式
+        if (templateService.isRemoteSearchEnabled()) {
+            RemoteMetaConfig remoteConfig = templateService.fetchRemoteMetaConfig(templateKeyword);
 
-                templateService.smartDownloadTemplate(remoteConfig);
+            if (remoteConfig == null) {
+                return promptService.buildRemoteUnavailable(templateKeyword);
+            }
 
-                String groupId = remoteConfig.getGroupId();
-                String artifactId = remoteConfig.getArtifactId();
-                String description = remoteConfig.getDescription();
+            boolean downloaded = templateService.smartDownloadTemplate(remoteConfig);
 
-                List<MetaInfo> metaInfos = templateService.searchLocalRepository(groupId, artifactId);
-                if (metaInfos.isEmpty()) {
-                    return "本地仓库模板文件不完整,请检查模板目录";
-                }
+            String groupId = remoteConfig.getGroupId();
+            String artifactId = remoteConfig.getArtifactId();
+            String description = remoteConfig.getDescription();
 
-                TreeNode treeNode = PromptUtils.buildTree(metaInfos);
-                String treeStr = PromptUtils.buildTreeStr(treeNode, "").trim();
-                return promptService.buildSearchResult(artifactId, treeStr, description);
+            List<MetaInfo> metaInfos = templateService.searchLocalRepository(groupId, artifactId, version);
+            if (metaInfos.isEmpty() && version != null) {
+                return buildVersionNotFound(groupId, artifactId, version);
+            }
+            if (metaInfos.isEmpty()) {
+                // 下载未在时限内完成且本地无缓存版本，具体原因见降级说明
+                return !downloaded && DeadlineUtils.isExpired()
+                        ? "模板 " + groupId + "/" + artifactId + " 暂不可用"
+                        : "本地仓库模板文件不完整,请检查模板目录";
+            }
+            if (!downloaded && DeadlineUtils.isExpired()) {
+                DeadlineUtils.degrade("目录树基于本地已缓存的版本，可能不是远程最新版本");
             }
 
-            // 本地Lucene全文检索模式
-            List<LuceneIndexService.SearchResult> searchResults = luceneIndexService.fetchLocalMetaConfig(templateKeyword);
+            String treeStr = templateService.buildTreeStr(metaInfos, expandPath, budget);
+            String result = promptService.buildSearchResult(artifactId,
+                    buildVersionInfo(groupId, artifactId, metaInfos.get(0).getVersion()), treeStr, description);
+            return withContents(result, metaInfos, expandPath, inline);
+        }
 
-            if (searchResults.isEmpty()) {
-                return promptService.buildLocalNotFound(repositoryConfig.getRepositoryDir(), templateKeyword);
-            }
+        // 本地Lucene全文检索模式
+        List<LuceneIndexService.SearchResult> searchResults = luceneIndexService.fetchLocalMetaConfig(templateKeyword,
+                version);
 
-            // 检查是否为同一groupId的多个模板（命名空间搜索）
-            if (templateService.isGroupIdSearch(searchResults)) {
-                return templateService.buildGroupAggregatedResult(templateKeyword, searchResults);
-            }
+        if (searchResults.isEmpty()) {
+            return promptService.buildLocalNotFound(repositoryConfig.getRepositoryDir(),
+                    version != null ? templateKeyword + " (版本 " + version + ")" : templateKeyword);
+        }
 
-            // 处理多个不同模板的情况（让AI选择）
-            if (searchResults.size() > 1) {
-                return templateService.buildMultiResultResponse(templateKeyword, searchResults);
-            }
+        // 检查是否为同一groupId的多个模板（命名空间搜索）
+        if (templateService.isGroupIdSearch(searchResults)) {
+            return templateService.buildGroupAggregatedResult(templateKeyword, searchResults, expandPath, budget);
+        }
 
-            // 单模板结果
-            LuceneIndexService.SearchResult searchResult = searchResults.get(0);
-            List<MetaInfo> metaInfos = templateService.searchLocalRepository(
-                    searchResult.groupId(), searchResult.artifactId());
+        // 处理多个不同模板的情况（让AI选择）
+        if (searchResults.size() > 1) {
+            return templateService.buildMultiResultResponse(templateKeyword, searchResults);
+        }
 
-            if (metaInfos.isEmpty()) {
-                return "本地仓库模板文件不完整,请检查模板目录";
+        // 单模板结果
+        LuceneIndexService.SearchResult searchResult = searchResults.get(0);
+        List<MetaInfo> metaInfos = templateService.searchLocalRepository(
+                searchResult.groupId(), searchResult.artifactId(), searchResult.version());
+
+        if (metaInfos.isEmpty()) {
+            return "本地仓库模板文件不完整,请检查模板目录";
+        }
+
+        String treeStr = templateService.buildTreeStr(metaInfos, expandPath, budget);
+        String result = promptService.buildSearchResult(searchResult.artifactId(),
+                buildVersionInfo(searchResult.groupId(), searchResult.artifactId(), searchResult.version()),
+                treeStr, searchResult.description());
+        return withContents(result, metaInfos, expandPath, inline);
+    }
+
+    /**
+     * 构建模板组的版本说明
+     *
+     * @param groupId    组ID
+     * @param artifactId 项目ID
+     * @param version    当前展示的版本号
+     * @return 版本说明，只有一个版本时返回空字符串
+     */
+    private String buildVersionInfo(String groupId, String artifactId, String version) {
+        List<String> versions = templateService.listVersions(groupId, artifactId);
+        if (versions.size() <= 1) {
+            return "";
+        }
+        String latest = versions.get(versions.size() - 1);
+        return "版本: " + version + (latest.equals(version) ? "(最新)" : "")
+                + "，全部版本: " + String.join(", ", versions) + "，可通过 version 参数查看其他版本";
+    }
+
+    /**
+     * 构建版本不存在的提示
+     *
+     * @param groupId    组ID
+     * @param artifactId 项目ID
+     * @param version    版本号
+     * @return 提示信息，附带本地已有的版本
+     */
+    private String buildVersionNotFound(String groupId, String artifactId, String version) {
+        List<String> versions = templateService.listVersions(groupId, artifactId);
+        return String.format("模板 %s/%s 本地没有版本 %s。%s", groupId, artifactId, version,
+                versions.isEmpty() ? "" : "可用版本: " + String.join(", ", versions));
+    }
+
+    /**
+     * 处理单个模板组搜索结果的文件内容
+     * <p>内联模式下按字节预算将排名靠前的文件内容追加到搜索结果之后，放不下的文件跳过，继续尝试后面较小的文件；
+     * 普通模式下在后台将这些文件预取到内容缓存，后续 getTemplateByPath 直接命中缓存
+     *
+     * @param result     搜索结果
+     * @param metaInfos  模板组的全部文件
+     * @param expandPath 需要展开的子目录路径，可为null，该目录下的文件优先
+     * @param inline     是否内联返回
+     * @return 搜索结果，内联模式下附带文件内容
+     * @throws IOException 文件读取异常
+     */
+    private String withContents(String result, List<MetaInfo> metaInfos, String expandPath, boolean inline)
+            throws IOException {
+        List<MetaInfo> ranked = metaInfos;
+        if (StrUtil.isNotBlank(expandPath)) {
+            String prefix = StrUtil.removeSuffix(expandPath.strip(), "/") + "/";
+            ranked = new ArrayList<>(metaInfos);
+            // 稳定排序，同组内保持 meta.json 中的顺序
+            ranked.sort(Comparator.comparing(meta -> !ManifestUtils.templatePath(meta).startsWith(prefix)));
+        }
+        if (!inline) {
+            templateService.prefetch(ranked);
+            return result;
+        }
+
+        List<MetaInfo> top = ranked.subList(0, Math.min(ranked.size(), prefetchConfig.getMaxFiles()));
+        StringBuilder contents = new StringBuilder();
+        List<String> skipped = new ArrayList<>();
+        int inlined = 0;
+        long remainingBytes = prefetchConfig.getInlineMaxBytes();
+        for (MetaInfo meta : top) {
+            String templatePath = ManifestUtils.templatePath(meta);
+            if (DeadlineUtils.isExpired()) {
+                DeadlineUtils.degrade("请求时限已耗尽，部分文件内容未内联");
+                skipped.add(templatePath);
+                continue;
+            }
+            LocalMetaInfo template = templateService.loadTemplate(meta);
+            if (template == null) {
+                skipped.add(templatePath);
+                continue;
+            }
+            int bytes = template.getTemplateContent().getBytes(StandardCharsets.UTF_8).length;
+            if (bytes > remainingBytes) {
+                skipped.add(templatePath);
+                continue;
+            }
+            remainingBytes -= bytes;
+            inlined++;
+            if (!contents.isEmpty()) {
+                contents.append("\n\n");
             }
+            contents.append(buildContentPrompt(templatePath, template));
+        }
+        if (inlined == 0) {
+            return result;
+        }
 
-            TreeNode treeNode = PromptUtils.buildTree(metaInfos);
-            String treeStr = PromptUtils.buildTreeStr(treeNode, "").trim();
-            return promptService.buildSearchResult(searchResult.artifactId(), treeStr, searchResult.description());
-        } catch (Exception e) {
-            return "模板搜索失败: " + e.getMessage();
+        StringBuilder trailer = new StringBuilder();
+        if (!skipped.isEmpty()) {
+            trailer.append("\n以下文件未内联，可通过 getTemplateByPath 获取:");
+            for (String path : skipped) {
+                trailer.append("\n- ").append(path);
+            }
         }
+        return result.stripTrailing() + "\n\n" + promptService.buildInlineContent(
+                String.valueOf(inlined),
+                contents.toString(),
+                trailer.toString().strip());
     }
 
     /**
      * 获取模板文件内容
-     * <p>根据完整的模板文件路径获取详细内容，包括变量说明和模板代码
+     * <p>根据完整的模板文件路径获取详细内容，包括变量说明和模板代码。
+     * 传入客户端已有内容的SHA256且与当前内容一致时，只返回内容未变化的简短响应。
+     * 超过单次返回上限的大文件或指定了字节范围时按段返回，变量说明只随首段返回
      *
-     * @param templatePath 完整模板文件路径（包含版本号和.ftl扩展名），如: backend/CRUD/1.0.0/src/main/java/com/air/controller/Controller.ftl
+     * @param templatePath      完整模板文件路径（包含版本号和.ftl扩展名），如: backend/CRUD/1.0.0/src/main/java/com/air/controller/Controller.ftl
+     * @param knownSha256       客户端已有内容的SHA256或其前缀，可选
+     * @param offset            起始字节偏移，可选
+     * @param length            本段最大字节数，可选
+     * @param continuationToken 上一段返回的续读令牌，可选，传入时忽略offset
      * @return 模板文件的详细信息字符串（包含变量说明和模板内容）
      * @throws IOException 文件读取异常
      */
-    @Tool(name = "getTemplateByPath", description = "传入模板文件路径,获取模板文件的详细内容(包括变量说明和模板代码)")
+    @Tool(name = "getTemplateByPath", description = """
+            传入模板文件路径,获取模板文件的详细内容(包括变量说明、内容SHA256和模板代码)。
+            已获取过该文件时可传入 knownSha256(完整SHA256或目录树中的前缀)，内容未变化时只返回简短说明。
+            大文件按字节范围分段返回(在换行处断开)，变量说明只随首段返回；未读完时响应末尾给出 continuationToken，传入即可获取下一段。
+            也可通过 offset 和 length 指定字节范围：返回内容不超过 length 字节，范围内没有换行符时在完整字符处断开，length 至少为 4。
+            """)
     public String getTemplateByPath(
-            @ToolParam(description = "模板文件路径,如:backend/CRUD/1.0.0/src/main/java/com/air/controller/Controller.ftl") String templatePath)
+            @ToolParam(description = "模板文件路径,如:backend/CRUD/1.0.0/src/main/java/com/air/controller/Controller.ftl") String templatePath,
+            @ToolParam(description = "已获取内容的SHA256，至少12位前缀，可选", required = false) String knownSha256,
+            @ToolParam(description = "起始字节偏移，从0开始，可选", required = false) Long offset,
+            @ToolParam(description = "本段最大字节数，至少4，不超过服务端单次返回上限，可选", required = false) Integer length,
+            @ToolParam(description = "上一段响应末尾给出的续读令牌，可选", required = false) String continuationToken)
             throws IOException {
+        return MetricsUtils.time(MetricsUtils.TOOL, "getTemplateByPath",
+                () -> withDeadline(() -> buildTemplateContent(templatePath, knownSha256, offset, length,
+                        continuationToken)));
+    }
 
-        // 使用精确路径搜索模板
-        LocalMetaInfo matchedTemplate = templateService.searchByPath(templatePath);
+    /**
+     * 检索模板文件内容
+     * <p>在本地已缓存模板的最新版本文件内容中全文检索，返回匹配的文件路径和命中行片段
+     *
+     * @param query      检索内容，如: @RequestMapping, UserService, 分页查询
+     * @param maxResults 最大返回文件数，可选
+     * @param version    模板版本号，可选，默认最新版本
+     * @return 匹配的文件路径及片段字符串
+     */
+    @Tool(name = "codestyleContentSearch", description = """
+            在模板文件内容中全文检索，返回匹配的模板文件路径和命中行片段(带行号，命中词以 «» 标记)。
+            适合按注解、类名、方法名、变量名或注释查找模板，如: @RequestMapping, UserService, 分页查询。
+            标识符按驼峰、下划线和点号拆分，多个词需全部命中；默认检索本地已缓存模板的最新版本，可通过 version 检索历史版本。
+            返回的路径可直接传给 getTemplateByPath 获取完整内容。
+            """)
+    public String codestyleContentSearch(
+            @ToolParam(description = "检索内容，如: @RequestMapping, UserService, 分页查询") String query,
+            @ToolParam(description = "最大返回文件数，默认10，最大50", required = false) Integer maxResults,
+            @ToolParam(description = "模板版本号，如: 1.0.0，默认最新版本", required = false) String version) {
+        int limit = maxResults == null || maxResults <= 0 ? DEFAULT_CONTENT_RESULTS : Math.min(maxResults, MAX_CONTENT_RESULTS);
+        try {
+            return MetricsUtils.time(MetricsUtils.TOOL, "codestyleContentSearch",
+                    () -> withDeadline(() -> doContentSearch(query, version, limit)));
+        } catch (Exception e) {
+            return "内容检索失败: " + e.getMessage();
+        }
+    }
 
-        // 校验搜索结果
-        if (matchedTemplate == null) {
+    /**
+     * 执行模板文件内容检索
+     *
+     * @param query   检索内容
+     * @param version 模板版本号，为空时检索最新版本
+     * @param limit   最大返回文件数
+     * @return 匹配的文件路径及片段字符串
+     */
+    private String doContentSearch(String query, String version, int limit) {
+        List<LuceneIndexService.ContentSearchResult> results = luceneIndexService.searchContent(query, version, limit);
+        if (results.isEmpty()) {
+            return String.format("本地仓库%s的模板文件内容中未找到匹配 '%s' 的内容。", repositoryConfig.getRepositoryDir(), query);
+        }
+
+        StringBuilder resultList = new StringBuilder();
+        for (int i = 0; i < results.size(); i++) {
+            LuceneIndexService.ContentSearchResult result = results.get(i);
+            if (i > 0) {
+                resultList.append("\n\n");
+            }
+            resultList.append(i + 1).append(". ").append(result.templatePath());
+            for (String line : result.snippets().split("\n")) {
+                if (!line.isEmpty()) {
+                    resultList.append("\n   ").append(line);
+                }
+            }
+        }
+        return promptService.buildContentSearchResult(
+                String.valueOf(results.size()),
+                query,
+                resultList.toString(),
+                results.get(0).templatePath());
+    }
+
+    /**
+     * 渲染模板
+     * <p>按模板声明的变量类型校验传入的变量后在服务端渲染，返回生成的源码
+     *
+     * @param templatePath 完整模板文件路径
+     * @param variables    变量取值，key为变量名
+     * @return 渲染结果或校验错误说明
+     * @throws IOException 文件读取异常
+     */
+    @Tool(name = "renderTemplate", description = """
+            传入模板文件路径和变量取值，在服务端用 FreeMarker 渲染模板并返回生成的源码。
+            变量按模板声明的类型(String、Integer、Boolean、List等)校验，缺少变量或类型不匹配时返回错误说明和变量列表，不进行渲染。
+            变量名和类型可通过 getTemplateByPath 查看。
+            """)
+    public String renderTemplate(
+            @ToolParam(description = "模板文件路径,如:backend/CRUD/1.0.0/src/main/java/com/air/controller/Controller.ftl") String templatePath,
+            @ToolParam(description = "变量取值，key为变量名，如: {\"packageName\": \"com.air\", \"className\": \"User\"}", required = false) Map<String, Object> variables)
+            throws IOException {
+        return MetricsUtils.time(MetricsUtils.TOOL, "renderTemplate",
+                () -> withDeadline(() -> doRender(templatePath, variables)));
+    }
+
+    /**
+     * 执行模板渲染
+     *
+     * @param templatePath 完整模板文件路径
+     * @param variables    变量取值
+     * @return 渲染结果或错误说明
+     * @throws IOException 文件读取异常
+     */
+    private String doRender(String templatePath, Map<String, Object> variables) throws IOException {
+        RenderService.RenderResult result = renderService.render(templatePath, variables);
+        if (result == null) {
             return String.format("未找到路径为 '%s' 的模板文件,请检查路径是否正确。", templatePath);
         }
+        if (result.success()) {
+            return promptService.buildRenderResult(templatePath, result.outputPath(), result.output());
+        }
 
-        // 构建变量信息
+        StringBuilder response = new StringBuilder("模板 '").append(templatePath).append("' 未渲染:");
+        for (String error : result.errors()) {
+            response.append("\n- ").append(error);
+        }
+        response.append("\n\n模板变量:\n").append(buildVarInfo(List.of(result.meta())));
+        return response.toString();
+    }
+
+    /**
+     * 渲染整个模板组
+     * <p>共用一份变量取值渲染模板组某一版本的全部文件，一次调用返回 输出文件路径 -> 渲染内容 的映射，
+     * 内容超出单次输出预算时按文件拆分为多个部分，第1部分的响应给出渲染令牌，凭令牌依次获取后续部分
+     *
+     * @param template    模板组，格式: groupId/artifactId 或 groupId/artifactId/version
+     * @param variables   变量取值，key为变量名
+     * @param part        返回第几部分，从1开始，可选
+     * @param renderToken 第1部分响应给出的渲染令牌，获取后续部分时必填
+     * @return 渲染结果或校验错误说明
+     */
+    @Tool(name = "renderTemplateGroup", description = """
+            共用一份变量取值渲染整个模板组(默认最新版本)，一次返回所有文件的 输出文件路径 -> 渲染内容 映射(JSON)。
+            变量按各文件声明的类型校验，任一文件缺少变量或类型不匹配时返回错误说明和全部变量列表，不进行渲染。
+            内容较多时按文件拆分为多个部分，响应末尾会给出下一部分的 part 值和 renderToken，各部分取自同一次渲染结果。
+            """)
+    public String renderTemplateGroup(
+            @ToolParam(description = "模板组，格式: groupId/artifactId 或 groupId/artifactId/version，如: backend/CRUD") String template,
+            @ToolParam(description = "变量取值，key为变量名，如: {\"packageName\": \"com.air\", \"className\": \"User\"}", required = false) Map<String, Object> variables,
+            @ToolParam(description = "返回第几部分，从1开始，默认1", required = false) Integer part,
+            @ToolParam(description = "第1部分响应末尾给出的渲染令牌，获取第2部分及之后时必填，传入时忽略variables", required = false) String renderToken) {
+        try {
+            return MetricsUtils.time(MetricsUtils.TOOL, "renderTemplateGroup",
+                    () -> withDeadline(() -> doRenderGroup(template, variables, part == null || part < 1 ? 1 : part,
+                            renderToken)));
+        } catch (Exception e) {
+            return "模板组渲染失败: " + e.getMessage();
+        }
+    }
+
+    /**
+     * 执行模板组渲染并按输出预算分部分返回
+     * <p>不带令牌时渲染并在需要分部分时保留结果；带令牌时从保留的结果中取出指定部分，不重新渲染，
+     * 各部分的边界和内容在多次调用间保持一致
+     *
+     * @param template    模板组
+     * @param variables   变量取值
+     * @param part        返回第几部分(从1开始)
+     * @param renderToken 渲染令牌，可为null
+     * @return 渲染结果或错误说明
+     */
+    private String doRenderGroup(String template, Map<String, Object> variables, int part, String renderToken) {
+        String[] parts = template == null ? new String[0] : template.strip().split("/");
+        if (parts.length < 2 || parts.length > 3) {
+            return "模板组格式不正确，应为 groupId/artifactId 或 groupId/artifactId/version，如: backend/CRUD";
+        }
+        RenderService.GroupRenderResult result;
+        String token = StrUtil.trimToNull(renderToken);
+        if (token != null) {
+            result = renderService.keptGroupResult(token);
+            if (result == null || !matchesGroup(result, parts)) {
+                return "renderToken 已过期或与模板组不匹配，请不带 renderToken 从 part=1 重新渲染。";
+            }
+        } else if (part > 1) {
+            return "获取第 2 部分及之后的内容需要传入第 1 部分响应末尾给出的 renderToken。";
+        } else {
+            result = renderService.renderGroup(parts[0], parts[1], parts.length == 3 ? parts[2] : null, variables);
+            if (result == null) {
+                return String.format("未找到模板组 '%s'，请先通过 codestyleSearch 确认模板组和版本。", template);
+            }
+        }
+        String coordinate = parts[0] + "/" + parts[1] + "/" + result.files().get(0).getVersion();
+        if (!result.validated()) {
+            StringBuilder response = new StringBuilder("模板组 '").append(coordinate).append("' 未渲染:");
+            for (String error : result.errors()) {
+                response.append("\n- ").append(error);
+            }
+            response.append("\n\n模板变量:\n").append(buildVarInfo(result.files()));
+            return response.toString();
+        }
+
+        // 按文件顺序装箱，单个文件超出预算时独占一个部分
+        List<List<RenderService.RenderResult>> chunks = new ArrayList<>();
+        List<RenderService.RenderResult> current = new ArrayList<>();
+        List<RenderService.RenderResult> failures = new ArrayList<>();
+        long size = 0;
+        int maxChars = renderConfig.getMaxChars();
+        for (RenderService.RenderResult file : result.results()) {
+            if (!file.success()) {
+                failures.add(file);
+                continue;
+            }
+            int length = file.output().length();
+            if (maxChars > 0 && !current.isEmpty() && size + length > maxChars) {
+                chunks.add(current);
+                current = new ArrayList<>();
+                size = 0;
+            }
+            current.add(file);
+            size += length;
+        }
+        if (!current.isEmpty() || chunks.isEmpty()) {
+            chunks.add(current);
+        }
+        if (part > chunks.size()) {
+            return String.format("模板组 '%s' 的渲染结果共 %d 部分，part=%d 超出范围。", coordinate, chunks.size(), part);
+        }
+        if (token == null && chunks.size() > 1) {
+            token = renderService.keepGroupResult(result);
+        }
+
+        Map<String, String> files = new LinkedHashMap<>();
+        for (RenderService.RenderResult file : chunks.get(part - 1)) {
+            files.put(file.outputPath(), file.output());
+        }
+        StringBuilder trailer = new StringBuilder();
+        if (!failures.isEmpty()) {
+            trailer.append("\n以下文件渲染失败:");
+            for (RenderService.RenderResult failure : failures) {
+                trailer.append("\n- ").append(failure.outputPath()).append(": ").append(String.join("; ", failure.errors()));
+            }
+        }
+        if (part < chunks.size()) {
+            trailer.append("\n还有 ").append(chunks.size() - part).append(" 部分未返回，传入 part=").append(part + 1)
+                    .append(" 和 renderToken=").append(token).append(" 继续获取");
+        }
+        return promptService.buildGroupRenderResult(
+                coordinate,
+                String.valueOf(result.files().size()),
+                part + "/" + chunks.size(),
+                JSONUtil.toJsonPrettyStr(files),
+                trailer.toString().strip());
+    }
+
+    /**
+     * 判断保留的渲染结果是否属于指定模板组
+     *
+     * @param result 渲染结果
+     * @param parts  模板组坐标: groupId, artifactId[, version]
+     * @return 是否匹配
+     */
+    private static boolean matchesGroup(RenderService.GroupRenderResult result, String[] parts) {
+        MetaInfo first = result.files().get(0);
+        return parts[0].equals(first.getGroupId()) && parts[1].equals(first.getArtifactId())
+                && (parts.length < 3 || parts[2].equals(first.getVersion()));
+    }
+
+    /**
+     * 格式化模板变量说明
+     * <p>多个文件声明同名变量时取第一个文件的说明
+     *
+     * @param metas 模板元信息列表
+     * @return 变量说明字符串，无变量时返回"无变量"
+     */
+    private String buildVarInfo(List<? extends MetaInfo> metas) {
         Map<String, String> vars = new LinkedHashMap<>();
-        if (matchedTemplate.getInputVariables() != null && !matchedTemplate.getInputVariables().isEmpty()) {
-            for (var variable : matchedTemplate.getInputVariables()) {
+        for (MetaInfo meta : metas) {
+            if (meta.getInputVariables() == null) {
+                continue;
+            }
+            for (var variable : meta.getInputVariables()) {
                 String desc = String.format("%s（示例：%s）[%s]",
                         variable.getVariableComment(),
                         variable.getExample(),
                         variable.getVariableType());
-                vars.put(variable.getVariableName(), desc);
+                vars.putIfAbsent(variable.getVariableName(), desc);
             }
         }
 
         // 使用PromptUtils格式化变量信息
-        String varInfo = vars.isEmpty() ? "无变量" : PromptUtils.buildVarString(vars).trim();
+        return vars.isEmpty() ? "无变量" : PromptUtils.buildVarString(vars).trim();
+    }
+
+    /**
+     * 在请求时限内执行工具调用
+     * <p>时限自工具入口起算，各环节超时后跳过剩余步骤，降级说明追加在返回结果末尾
+     *
+     * @param task 工具调用
+     * @return 工具结果
+     * @throws E 调用异常
+     */
+    private <E extends Exception> String withDeadline(MetricsUtils.Task<String, E> task) throws E {
+        DeadlineUtils.Deadline deadline = DeadlineUtils.create(deadlineConfig.getRequestTimeoutMs());
+        String result = DeadlineUtils.runWith(deadline, task);
+        List<String> degradations = deadline.getDegradations();
+        if (degradations.isEmpty()) {
+            return result;
+        }
+        StringBuilder response = new StringBuilder(result).append("\n");
+        for (String degradation : degradations) {
+            response.append("\n注意: ").append(degradation);
+        }
+        return response.toString();
+    }
+
+    /**
+     * 构建模板文件内容响应
+     *
+     * @param templatePath      完整模板文件路径
+     * @param knownSha256       客户端已有内容的SHA256或其前缀，可为null
+     * @param offset            起始字节偏移，可为null
+     * @param length            本段最大字节数，可为null
+     * @param continuationToken 续读令牌，可为null
+     * @return 模板文件的详细信息字符串，内容未变化时返回简短说明
+     * @throws IOException 文件读取异常
+     */
+    private String buildTemplateContent(String templatePath, String knownSha256, Long offset, Integer length,
+                                        String continuationToken) throws IOException {
+        TemplateChunk.Token token = null;
+        if (StrUtil.isNotBlank(continuationToken)) {
+            token = TemplateChunk.Token.parse(continuationToken);
+            if (token == null) {
+                return "continuationToken 无效，请不带 continuationToken 重新获取。";
+            }
+        }
+
+        // 使用精确路径搜索模板
+        MetaInfo meta = templateService.searchMetaByPath(templatePath);
+
+        // 校验搜索结果
+        if (meta == null) {
+            return String.format("未找到路径为 '%s' 的模板文件,请检查路径是否正确。", templatePath);
+        }
+
+        if (length != null && length > 0 && length < MIN_LENGTH) {
+            return String.format("length 至少为 %d 字节(一个完整字符)。", MIN_LENGTH);
+        }
+
+        // 指定了范围或文件超过单次返回上限时分段返回
+        int maxBytes = chunkConfig.getMaxBytes();
+        if (token != null || offset != null || length != null
+                || (maxBytes > 0 && templateService.templateSize(meta) > maxBytes)) {
+            long start = token != null ? token.offset() : offset != null ? offset : 0;
+            return buildTemplateChunk(templatePath, meta, knownSha256, start, length, token);
+        }
+
+        LocalMetaInfo matchedTemplate = templateService.loadTemplate(meta);
+        if (matchedTemplate == null) {
+            return "本地模板读取繁忙，请稍后重试";
+        }
+
+        // 与客户端已有内容一致时不再返回内容
+        if (sha256Matches(knownSha256, matchedTemplate.getTemplateSha256())) {
+            MetricsUtils.cacheAccess("client.sha256", true);
+            return promptService.buildUnchangedResult(templatePath, matchedTemplate.getTemplateSha256());
+        }
+        if (StrUtil.isNotBlank(knownSha256)) {
+            MetricsUtils.cacheAccess("client.sha256", false);
+        }
+        return buildContentPrompt(templatePath, matchedTemplate);
+    }
+
+    /**
+     * 构建模板文件内容分段响应
+     * <p>首段附带内容SHA256和变量说明，knownSha256 与完整读取时一样同文件实际内容的SHA256比对(流式计算并缓存)。
+     * 按续读令牌读取时校验文件大小和修改时间，文件已变化时要求从头重新获取
+     *
+     * @param templatePath 完整模板文件路径
+     * @param meta         模板元信息
+     * @param knownSha256  客户端已有内容的SHA256或其前缀，可为null
+     * @param offset       起始字节偏移
+     * @param length       本段最大字节数，可为null
+     * @param token        续读令牌，可为null
+     * @return 模板文件内容分段
+     * @throws IOException 文件读取异常
+     */
+    private String buildTemplateChunk(String templatePath, MetaInfo meta, String knownSha256, long offset,
+                                      Integer length, TemplateChunk.Token token) throws IOException {
+        String sha256 = "";
+        if (offset <= 0) {
+            sha256 = templateService.contentSha256(meta);
+            if (sha256 == null) {
+                return "本地模板读取繁忙，请稍后重试";
+            }
+        }
+        if (offset <= 0 && sha256Matches(knownSha256, sha256)) {
+            MetricsUtils.cacheAccess("client.sha256", true);
+            return promptService.buildUnchangedResult(templatePath, sha256);
+        }
+        if (offset <= 0 && StrUtil.isNotBlank(knownSha256)) {
+            MetricsUtils.cacheAccess("client.sha256", false);
+        }
+
+        // 调用方指定的length只受单次返回上限约束；最小段长只作用于按配置推导的默认段长
+        int maxBytes = chunkConfig.getMaxBytes();
+        int chunkBytes;
+        if (length != null && length > 0) {
+            chunkBytes = maxBytes > 0 ? Math.min(length, maxBytes) : length;
+        } else {
+            chunkBytes = maxBytes > 0 ? Math.max(maxBytes, MIN_CHUNK_BYTES) : 0;
+        }
+        TemplateChunk chunk = templateService.readTemplateRange(meta, offset, chunkBytes);
+        if (chunk == null) {
+            return "本地模板读取繁忙，请稍后重试";
+        }
+        if (token != null && !token.matches(chunk)) {
+            return "模板文件在分段获取期间已变化，请不带 continuationToken 从头重新获取。";
+        }
+
+        String header = chunk.offset() == 0
+                ? promptService.buildContentChunkHeader(sha256, buildVarInfo(List.of(meta)))
+                : "";
+        String trailer = chunk.last()
+                ? "#已到文件末尾"
+                : "#未完，获取下一段请传入 continuationToken：" + chunk.continuationToken();
+        return promptService.buildContentChunk(
+                templatePath,
+                header,
+                String.valueOf(chunk.offset()),
+                String.valueOf(chunk.end() - chunk.offset()),
+                String.valueOf(chunk.size()),
+                chunk.content(),
+                trailer);
+    }
+
+    /**
+     * 格式化模板文件内容
+     *
+     * @param templatePath 完整模板文件路径
+     * @param template     模板元信息(含内容)
+     * @return 模板文件的详细信息字符串(变量说明、内容SHA256和模板内容)
+     */
+    private String buildContentPrompt(String templatePath, LocalMetaInfo template) {
+        // 构建变量信息
+        String varInfo = buildVarInfo(List.of(template));
 
         // 使用PromptService模板构建最终输出
         return promptService.buildPrompt(
                 templatePath,
+                StrUtil.nullToEmpty(template.getTemplateSha256()),
                 varInfo,
-                matchedTemplate.getTemplateContent() != null ? matchedTemplate.getTemplateContent() : "");
+                template.getTemplateContent() != null ? template.getTemplateContent() : "");
+    }
+
+    /**
+     * 判断客户端已有内容的SHA256是否与当前内容一致
+     * <p>忽略大小写和目录树中的 # 前缀，至少需要 {@link PathTrie#HASH_PREFIX_LENGTH} 位以避免误判
+     *
+     * @param known  客户端已有内容的SHA256或其前缀，可为null
+     * @param actual 当前内容的SHA256
+     * @return 是否一致
+     */
+    private static boolean sha256Matches(String known, String actual) {
+        if (StrUtil.isBlank(known) || actual == null) {
+            return false;
+        }
+        String prefix = StrUtil.removePrefix(known.strip(), "#").toLowerCase(Locale.ROOT);
+        return prefix.length() >= PathTrie.HASH_PREFIX_LENGTH && actual.startsWith(prefix);
     }
 }
\ No newline at end of file
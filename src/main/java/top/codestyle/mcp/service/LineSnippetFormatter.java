@@ -0,0 +1,114 @@
+package top.codestyle.mcp.service;
+
+import org.apache.lucene.search.uhighlight.Passage;
+import org.apache.lucene.search.uhighlight.PassageFormatter;
+
+/**
+ * 按行输出的代码片段格式化器
+ * <p>每个片段为一行代码，前缀行号，命中词以 «» 标记；过长的行只保留命中位置附近的内容。
+ * 行号由片段起始偏移量在已存储内容中推算，不重新读取模板文件。
+ *
+ * @author movclantian
+ * @since 2025-12-26
+ */
+class LineSnippetFormatter extends PassageFormatter {
+
+    private static final String PRE_TAG = "«", POST_TAG = "»", ELLIPSIS = "...";
+
+    /**
+     * 单个片段最大字符数(不含标记)
+     */
+    private final int maxLineChars;
+
+    /**
+     * 创建格式化器
+     *
+     * @param maxLineChars 单个片段最大字符数
+     */
+    LineSnippetFormatter(int maxLineChars) {
+        this.maxLineChars = maxLineChars;
+    }
+
+    @Override
+    public String format(Passage[] passages, String content) {
+        var sb = new StringBuilder();
+        int line = 1;
+        int counted = 0;
+        for (Passage passage : passages) {
+            int start = passage.getStartOffset();
+            int end = passage.getEndOffset();
+            // 片段按起始偏移升序排列，行号增量统计
+            for (int i = counted; i < start; i++) {
+                if (content.charAt(i) == '\n') {
+                    line++;
+                }
+            }
+            counted = start;
+
+            // 去掉行尾换行和两端空白
+            while (end > start && Character.isWhitespace(content.charAt(end - 1))) {
+                end--;
+            }
+            while (start < end && Character.isWhitespace(content.charAt(start))) {
+                start++;
+            }
+            if (start >= end) {
+                continue;
+            }
+
+            // 过长的行以第一个命中位置为中心截取
+            int from = start, to = end;
+            if (end - start > maxLineChars) {
+                int firstMatch = passage.getNumMatches() > 0 ? passage.getMatchStarts()[0] : start;
+                from = Math.max(start, firstMatch - maxLineChars / 2);
+                to = Math.min(end, from + maxLineChars);
+                from = Math.max(start, to - maxLineChars);
+            }
+
+            if (!sb.isEmpty()) {
+                sb.append('\n');
+            }
+            sb.append('L').append(line).append(": ");
+            if (from > start) {
+                sb.append(ELLIPSIS);
+            }
+            appendHighlighted(sb, passage, content, from, to);
+            if (to < end) {
+                sb.append(ELLIPSIS);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 追加片段内容并标记命中词
+     * <p>重叠或相邻的命中(如中文二元组)合并为一处标记
+     *
+     * @param sb      输出
+     * @param passage 片段
+     * @param content 文件内容
+     * @param from    起始偏移
+     * @param to      结束偏移
+     */
+    private void appendHighlighted(StringBuilder sb, Passage passage, String content, int from, int to) {
+        int pos = from;
+        int[] starts = passage.getMatchStarts();
+        int[] ends = passage.getMatchEnds();
+        int i = 0;
+        while (i < passage.getNumMatches()) {
+            int matchStart = Math.max(starts[i], pos);
+            int matchEnd = ends[i];
+            while (++i < passage.getNumMatches() && starts[i] <= matchEnd) {
+                matchEnd = Math.max(matchEnd, ends[i]);
+            }
+            matchEnd = Math.min(matchEnd, to);
+            if (matchStart >= matchEnd) {
+                // 在截取范围之外
+                continue;
+            }
+            sb.append(content, pos, matchStart).append(PRE_TAG).append(content, matchStart, matchEnd).append(POST_TAG);
+            pos = matchEnd;
+        }
+        sb.append(content, pos, to);
+    }
+}
@@ -8,15 +8,30 @@ import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import org.apache.lucene.analysis.Analyzer;
 import org.apache.lucene.analysis.cn.smart.SmartChineseAnalyzer;
+import org.apache.lucene.analysis.miscellaneous.PerFieldAnalyzerWrapper;
 import org.apache.lucene.document.*;
 import org.apache.lucene.index.*;
 import org.apache.lucene.queryparser.classic.QueryParser;
 import org.apache.lucene.search.*;
+import org.apache.lucene.search.uhighlight.CustomSeparatorBreakIterator;
+import org.apache.lucene.search.uhighlight.UnifiedHighlighter;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.FSDirectory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.DependsOn;
 import org.springframework.stereotype.Service;
+import top.codestyle.mcp.config.BulkheadConfig;
+import top.codestyle.mcp.config.DeadlineConfig;
 import top.codestyle.mcp.config.RepositoryConfig;
-import top.codestyle.mcp.model.meta.LocalMetaConfig;
+import top.codestyle.mcp.config.RetentionConfig;
+import top.codestyle.mcp.jfr.IndexRebuildEvent;
+import top.codestyle.mcp.jfr.IndexSearchEvent;
+import top.codestyle.mcp.model.sdk.MetaInfo;
+import top.codestyle.mcp.model.meta.TemplateChangedEvent;
+import top.codestyle.mcp.util.DeadlineUtils;
+import top.codestyle.mcp.util.ManifestUtils;
+import top.codestyle.mcp.util.MetaCatalogUtils;
+import top.codestyle.mcp.util.MetricsUtils;
 
 import java.io.File;
 import java.io.IOException;
@@ -25,16 +40,25 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Lucene本地索引服务 - 模板索引和检索
+ * <p>索引包含两类文档：模板组文档(groupId、artifactId、README、路径关键词)用于模板检索，
+ * 模板文件文档(最新版本各文件的内容)用于内容全文检索，两类文档以 docType 区分，
+ * 同一模板组的文档共用 metaPath，更新时一并替换。
+ * <p>写入(重建、单模板更新)由写入锁串行化；检索每次打开最新提交的只读快照，
+ * 不等待写入完成，写入期间检索到的是上一次提交的内容。
  *
  * @author movclantian
  * @since 2025-12-02
  */
 @Service
 @RequiredArgsConstructor
+@DependsOn("codestyleMeterRegistry")
 public class LuceneIndexService {
 
     private static final String INDEX_DIR = "lucene-index",
@@ -43,12 +67,50 @@ public class LuceneIndexService {
             F_DESC = "description",
             F_PATH = "metaPath",
             F_PATH_KEYWORDS = "pathKeywords",
-            F_CONTENT = "content";
+            F_CONTENT = "content",
+            F_TYPE = "docType",
+            F_VERSION = "version",
+            F_LATEST = "latest",
+            F_TEMPLATE_PATH = "templatePath",
+            F_FILE_TEXT = "fileText",
+            TYPE_TEMPLATE = "template",
+            TYPE_FILE = "file";
+
+    /**
+     * 模板文件内容字段：存储原文并在倒排中记录偏移量，高亮直接使用索引中的偏移，无需重新分词或读取文件
+     */
+    private static final FieldType FILE_TEXT_TYPE = new FieldType();
+
+    static {
+        FILE_TEXT_TYPE.setTokenized(true);
+        FILE_TEXT_TYPE.setStored(true);
+        FILE_TEXT_TYPE.setIndexOptions(IndexOptions.DOCS_AND_FREQS_AND_POSITIONS_AND_OFFSETS);
+        FILE_TEXT_TYPE.freeze();
+    }
+
+    /**
+     * 参与内容索引的单个文件最大字节数，超出的文件只参与模板检索
+     */
+    private static final long MAX_FILE_BYTES = 512 * 1024;
+
+    /**
+     * 每个文件返回的最大片段数和单个片段最大字符数
+     */
+    private static final int MAX_SNIPPETS_PER_FILE = 3, MAX_SNIPPET_CHARS = 160;
 
     private final RepositoryConfig repositoryConfig;
-    private final ReentrantReadWriteLock indexLock = new ReentrantReadWriteLock();
+    private final DeadlineConfig deadlineConfig;
+    private final BulkheadConfig bulkheadConfig;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * 写入锁，同一索引目录同时只能有一个IndexWriter
+     */
+    private final ReentrantLock writerLock = new ReentrantLock();
     private Directory directory;
     private Analyzer analyzer;
+    private Analyzer indexAnalyzer;
+    private Analyzer codeQueryAnalyzer;
     private volatile long lastIndexBuildTime = 0;
     private volatile int lastMetaFileCount = 0;
     private volatile long lastCheckTime = 0;
@@ -56,7 +118,7 @@ public class LuceneIndexService {
 
     /**
      * 初始化Lucene索引服务
-     * <p>创建索引目录,初始化中文分词器,并重建索引
+     * <p>创建索引目录,初始化中文分词器和代码分词器,并重建索引
      *
      * @throws IOException 索引目录创建失败
      */
@@ -66,6 +128,8 @@ public class LuceneIndexService {
         FileUtil.mkdir(indexPath.toFile());
         directory = FSDirectory.open(indexPath);
         analyzer = new SmartChineseAnalyzer();
+        indexAnalyzer = new PerFieldAnalyzerWrapper(analyzer, Map.of(F_FILE_TEXT, new CodeAnalyzer(true)));
+        codeQueryAnalyzer = new CodeAnalyzer(false);
         rebuildIndex();
     }
 
@@ -89,16 +153,28 @@ public class LuceneIndexService {
      * @throws IOException 索引写入失败
      */
     public void rebuildIndex() throws IOException {
-        indexLock.writeLock().lock();
+        var event = new IndexRebuildEvent();
+        event.begin();
+        long lockStart = System.nanoTime();
+        writerLock.lock();
+        long start = System.nanoTime();
+        event.lockWait = start - lockStart;
+        boolean success = false;
         try {
-            var config = new IndexWriterConfig(analyzer).setOpenMode(IndexWriterConfig.OpenMode.CREATE);
+            var config = new IndexWriterConfig(indexAnalyzer).setOpenMode(IndexWriterConfig.OpenMode.CREATE);
             try (var writer = new IndexWriter(directory, config)) {
                 scanAndIndexTemplates(writer, repositoryConfig.getRepositoryDir());
+                event.documents = writer.getDocStats().numDocs;
             }
             lastIndexBuildTime = System.currentTimeMillis();
             lastMetaFileCount = countMetaFiles(new File(repositoryConfig.getRepositoryDir()));
+            success = true;
         } finally {
-            indexLock.writeLock().unlock();
+            MetricsUtils.record(MetricsUtils.OPERATION, "index.rebuild", start, success);
+            writerLock.unlock();
+            event.repositoryDir = repositoryConfig.getRepositoryDir();
+            event.success = success;
+            event.commit();
         }
     }
 
@@ -118,7 +194,7 @@ public class LuceneIndexService {
             return;
 
         for (var groupDir : groupDirs) {
-            if (INDEX_DIR.equals(groupDir.getName()))
+            if (isReservedDir(groupDir.getName()))
                 continue;
             var artifactDirs = groupDir.listFiles(File::isDirectory);
             if (artifactDirs == null)
@@ -139,38 +215,89 @@ public class LuceneIndexService {
      */
     private void indexTemplate(IndexWriter writer, File metaFile) {
         try {
-            var meta = JSONUtil.toBean(FileUtil.readUtf8String(metaFile), LocalMetaConfig.class);
-            var desc = readDescription(metaFile.getParentFile(), meta);
-            var pathKeywords = extractPathKeywords(meta);
-            writer.addDocument(createDoc(meta.getGroupId(), meta.getArtifactId(), desc, pathKeywords, metaFile.getAbsolutePath()));
+            writer.addDocuments(createDocs(metaFile));
         } catch (Exception ignored) {
             // 单个模板索引失败不影响其他模板
+            MetricsUtils.error(MetricsUtils.OPERATION, "index.document");
+        }
+    }
+
+    /**
+     * 创建模板组全部版本的文档
+     * <p>每个版本一个模板文档和若干文件内容文档，均带版本号，最新版本的文档另带最新标记
+     *
+     * @param metaFile meta.json文件
+     * @return 文档列表
+     * @throws IOException meta.json读取失败
+     */
+    private List<Document> createDocs(File metaFile) throws IOException {
+        var docs = new ArrayList<Document>();
+        var catalog = MetaCatalogUtils.load(metaFile);
+        if (catalog == null) {
+            return docs;
+        }
+        var artifactDir = metaFile.getParentFile();
+        var metaPath = metaFile.getAbsolutePath();
+        for (var entry : catalog.versions().entrySet()) {
+            String version = entry.getKey();
+            boolean latest = version.equals(catalog.latestVersion());
+            var desc = readDescription(artifactDir, catalog.artifactId(), version);
+            var pathKeywords = extractPathKeywords(entry.getValue());
+            docs.add(createDoc(catalog.groupId(), catalog.artifactId(), version, latest, desc, pathKeywords, metaPath));
+            docs.addAll(createFileDocs(entry.getValue(), latest, new File(artifactDir, version), metaPath));
+        }
+        return docs;
+    }
+
+    /**
+     * 创建模板文件内容文档
+     * <p>只索引版本目录中存在且不超过大小上限的文件
+     *
+     * @param files      该版本的模板元信息
+     * @param latest     是否为最新版本
+     * @param versionDir 版本目录
+     * @param metaPath   meta.json路径
+     * @return 文件文档列表
+     */
+    private List<Document> createFileDocs(List<MetaInfo> files, boolean latest, File versionDir, String metaPath) {
+        var docs = new ArrayList<Document>();
+        for (var fileInfo : files) {
+            String relativePath = ManifestUtils.relativePath(fileInfo.getFilePath(), fileInfo.getFilename());
+            var file = new File(versionDir, relativePath);
+            if (!file.isFile() || file.length() > MAX_FILE_BYTES) {
+                continue;
+            }
+            var doc = new Document();
+            doc.add(new StringField(F_TYPE, TYPE_FILE, Field.Store.NO));
+            doc.add(new StringField(F_GID, fileInfo.getGroupId(), Field.Store.YES));
+            doc.add(new StringField(F_AID, fileInfo.getArtifactId(), Field.Store.YES));
+            doc.add(new StringField(F_VERSION, fileInfo.getVersion(), Field.Store.YES));
+            doc.add(new StringField(F_LATEST, String.valueOf(latest), Field.Store.NO));
+            doc.add(new StringField(F_PATH, metaPath, Field.Store.YES));
+            doc.add(new StringField(F_TEMPLATE_PATH, ManifestUtils.templatePath(fileInfo), Field.Store.YES));
+            doc.add(new Field(F_FILE_TEXT, FileUtil.readUtf8String(file), FILE_TEXT_TYPE));
+            docs.add(doc);
         }
+        return docs;
     }
 
     /**
      * 提取路径关键词
-     * 从meta.json中提取所有文件路径的目录名作为关键词
+     * 从版本的所有文件路径中提取目录名作为关键词
      *
-     * @param meta 元配置
+     * @param files 该版本的模板元信息
      * @return 路径关键词字符串
      */
-    private String extractPathKeywords(LocalMetaConfig meta) {
+    private String extractPathKeywords(List<MetaInfo> files) {
         HashSet<String> keywords = new HashSet<>();
-        if (meta.getConfigs() != null) {
-            for (var config : meta.getConfigs()) {
-                if (config.getFiles() != null) {
-                    for (var file : config.getFiles()) {
-                        String path = file.getFilePath();
-                        if (path != null && !path.isEmpty()) {
-                            // 分割路径: /bankend/src/main → [bankend, src, main]
-                            String[] segments = path.split("[/\\\\]");
-                            for (String seg : segments) {
-                                if (!seg.isEmpty() && !seg.equals(".")) {
-                                    keywords.add(seg);
-                                }
-                            }
-                        }
+        for (var file : files) {
+            String path = file.getFilePath();
+            if (path != null && !path.isEmpty()) {
+                // 分割路径: /bankend/src/main → [bankend, src, main]
+                String[] segments = path.split("[/\\\\]");
+                for (String seg : segments) {
+                    if (!seg.isEmpty() && !seg.equals(".")) {
+                        keywords.add(seg);
                     }
                 }
             }
@@ -179,18 +306,16 @@ public class LuceneIndexService {
     }
 
     /**
-     * 从README.md读取描述信息
+     * 从版本目录的README.md读取描述信息
      *
      * @param artifactDir 模板目录
-     * @param meta        元配置信息
-     * @return 描述内容
+     * @param artifactId  项目ID
+     * @param version     版本号
+     * @return 描述内容，没有README.md时返回artifactId
      */
-    private String readDescription(File artifactDir, LocalMetaConfig meta) {
-        var configs = meta.getConfigs();
-        if (configs == null || configs.isEmpty())
-            return meta.getArtifactId();
-        var readme = new File(artifactDir, configs.get(configs.size() - 1).getVersion() + File.separator + "README.md");
-        return readme.exists() ? FileUtil.readUtf8String(readme) : meta.getArtifactId();
+    private String readDescription(File artifactDir, String artifactId, String version) {
+        var readme = new File(artifactDir, version + File.separator + "README.md");
+        return readme.exists() ? FileUtil.readUtf8String(readme) : artifactId;
     }
 
     /**
@@ -198,15 +323,21 @@ public class LuceneIndexService {
      *
      * @param groupId      组ID
      * @param artifactId   项目ID
+     * @param version      版本号
+     * @param latest       是否为最新版本
      * @param desc         模板描述
      * @param pathKeywords 路径关键词
      * @param metaPath     meta.json路径
      * @return Lucene文档
      */
-    private Document createDoc(String groupId, String artifactId, String desc, String pathKeywords, String metaPath) {
+    private Document createDoc(String groupId, String artifactId, String version, boolean latest, String desc,
+                               String pathKeywords, String metaPath) {
         var doc = new Document();
+        doc.add(new StringField(F_TYPE, TYPE_TEMPLATE, Field.Store.NO));
         doc.add(new StringField(F_GID, groupId, Field.Store.YES));
         doc.add(new StringField(F_AID, artifactId, Field.Store.YES));
+        doc.add(new StringField(F_VERSION, version, Field.Store.YES));
+        doc.add(new StringField(F_LATEST, String.valueOf(latest), Field.Store.NO));
         doc.add(new StringField(F_PATH, metaPath, Field.Store.YES));
         doc.add(new TextField(F_DESC, StrUtil.nullToEmpty(desc), Field.Store.YES));
         doc.add(new TextField(F_PATH_KEYWORDS, StrUtil.nullToEmpty(pathKeywords), Field.Store.NO));
@@ -217,25 +348,29 @@ public class LuceneIndexService {
 
     /**
      * 更新单个模板的索引
+     * <p>按 meta.json 重新生成该模板组全部版本的模板文档和文件内容文档
      *
-     * @param groupId      组ID
-     * @param artifactId   项目ID
-     * @param desc         模板描述
-     * @param pathKeywords 路径关键词
-     * @param metaPath     meta.json路径
+     * @param metaPath meta.json路径
      */
-    public void updateIndex(String groupId, String artifactId, String desc, String pathKeywords, String metaPath) {
-        indexLock.writeLock().lock();
+    public void updateIndex(String metaPath) {
+        writerLock.lock();
+        long start = System.nanoTime();
+        boolean success = false;
         try {
-            var config = new IndexWriterConfig(analyzer).setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+            var config = new IndexWriterConfig(indexAnalyzer).setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
             try (var writer = new IndexWriter(directory, config)) {
                 writer.deleteDocuments(new Term(F_PATH, metaPath));
-                writer.addDocument(createDoc(groupId, artifactId, desc, pathKeywords, metaPath));
+                var metaFile = new File(metaPath);
+                if (metaFile.isFile()) {
+                    writer.addDocuments(createDocs(metaFile));
+                }
             }
-        } catch (IOException ignored) {
+            success = true;
+        } catch (Exception ignored) {
             // 索引更新失败不影响主流程
         } finally {
-            indexLock.writeLock().unlock();
+            MetricsUtils.record(MetricsUtils.OPERATION, "index.update", start, success);
+            writerLock.unlock();
         }
     }
 
@@ -248,23 +383,50 @@ public class LuceneIndexService {
      *   <li>精确搜索：使用 groupId/artifactId 格式精确匹配</li>
      * </ul>
      * 自动检测仓库更新并重建索引。
+     * 检索受当前请求时限和单次检索时限约束，超时返回已收集的部分结果并记录降级说明。
      *
      * @param keyword 搜索关键词或 groupId/artifactId 格式
-     * @return 匹配的模板列表（按相关度排序）
+     * @return 匹配的模板列表（按相关度排序），每个模板组只返回最新版本
      */
     public List<SearchResult> fetchLocalMetaConfig(String keyword) {
+        return fetchLocalMetaConfig(keyword, null);
+    }
+
+    /**
+     * 本地检索模板的指定版本
+     * <p>每个版本都是独立的模板文档，按版本号过滤，不重新解析 meta.json
+     *
+     * @param keyword 搜索关键词或 groupId/artifactId 格式
+     * @param version 版本号，为空时只检索各模板组的最新版本
+     * @return 匹配的模板列表（按相关度排序）
+     */
+    public List<SearchResult> fetchLocalMetaConfig(String keyword, String version) {
         // 自动检测并重建索引（如果仓库有更新）
-        autoRebuildIndexIfNeeded();
+        if (!DeadlineUtils.isExpired()) {
+            autoRebuildIndexIfNeeded();
+        }
 
-        indexLock.readLock().lock();
+        var event = new IndexSearchEvent();
+        event.begin();
+        long start = System.nanoTime();
+        boolean success = false;
+        var bulkhead = bulkheadConfig.getLocalReadBulkhead();
+        boolean acquired = false;
         try {
+            acquired = bulkhead.tryAcquire();
+            event.lockWait = System.nanoTime() - start;
+            if (!acquired) {
+                return Collections.emptyList();
+            }
             if (!DirectoryReader.indexExists(directory)) {
-                indexLock.readLock().unlock();
                 rebuildIndex();
-                indexLock.readLock().lock();
             }
             try (var reader = DirectoryReader.open(directory)) {
                 var searcher = new IndexSearcher(reader);
+                var timeout = searchTimeout();
+                if (timeout != null) {
+                    searcher.setTimeout(timeout);
+                }
 
                 Query query;
                 // 检测 "groupId/artifactId" 格式
@@ -292,7 +454,18 @@ public class LuceneIndexService {
                     query = parser.parse(queryStr);
                 }
 
+                // 只检索模板组文档，排除模板文件内容文档
+                query = new BooleanQuery.Builder()
+                        .add(query, BooleanClause.Occur.MUST)
+                        .add(new TermQuery(new Term(F_TYPE, TYPE_TEMPLATE)), BooleanClause.Occur.FILTER)
+                        .add(versionFilter(version), BooleanClause.Occur.FILTER)
+                        .build();
+
                 var topDocs = searcher.search(query, Integer.MAX_VALUE);
+                if (searcher.timedOut()) {
+                    event.timedOut = true;
+                    DeadlineUtils.degrade("索引检索超时，仅返回部分匹配结果");
+                }
                 var results = new ArrayList<SearchResult>();
 
                 for (var scoreDoc : topDocs.scoreDocs) {
@@ -300,20 +473,164 @@ public class LuceneIndexService {
                     results.add(new SearchResult(
                         doc.get(F_GID),
                         doc.get(F_AID),
+                        doc.get(F_VERSION),
                         doc.get(F_DESC),
                         doc.get(F_PATH)
                     ));
                 }
+                success = true;
+                event.hits = results.size();
                 return results;
             }
         } catch (Exception ignored) {
             // 检索失败返回空列表
         } finally {
-            indexLock.readLock().unlock();
+            if (acquired) {
+                bulkhead.release();
+            }
+            MetricsUtils.record(MetricsUtils.OPERATION, "index.search", start, success);
+            event.mode = TYPE_TEMPLATE;
+            event.keyword = keyword;
+            event.success = success;
+            event.commit();
         }
         return Collections.emptyList();
     }
 
+    /**
+     * 检索模板文件内容
+     * <p>按代码分词(驼峰、下划线、点号拆分)在最新版本的模板文件内容中检索，所有词均需命中，
+     * 返回评分最高的文件及命中行片段。片段由索引中记录的偏移量和存储的原文生成，不重新读取模板文件。
+     * 与模板检索共用本地读取舱壁和检索时限，超时返回已收集的部分结果并记录降级说明。
+     *
+     * @param keyword    检索内容，如: @RequestMapping, UserService, 分页查询
+     * @param maxResults 最大返回文件数
+     * @return 匹配的文件列表（按相关度排序）
+     */
+    public List<ContentSearchResult> searchContent(String keyword, int maxResults) {
+        return searchContent(keyword, null, maxResults);
+    }
+
+    /**
+     * 检索模板文件指定版本的内容
+     *
+     * @param keyword    检索内容
+     * @param version    版本号，为空时只检索各模板组的最新版本
+     * @param maxResults 最大返回文件数
+     * @return 匹配的文件列表（按相关度排序）
+     */
+    public List<ContentSearchResult> searchContent(String keyword, String version, int maxResults) {
+        if (StrUtil.isBlank(keyword) || maxResults <= 0) {
+            return Collections.emptyList();
+        }
+        if (!DeadlineUtils.isExpired()) {
+            autoRebuildIndexIfNeeded();
+        }
+
+        var event = new IndexSearchEvent();
+        event.begin();
+        long start = System.nanoTime();
+        boolean success = false;
+        var bulkhead = bulkheadConfig.getLocalReadBulkhead();
+        boolean acquired = false;
+        try {
+            acquired = bulkhead.tryAcquire();
+            event.lockWait = System.nanoTime() - start;
+            if (!acquired) {
+                return Collections.emptyList();
+            }
+            if (!DirectoryReader.indexExists(directory)) {
+                rebuildIndex();
+            }
+            try (var reader = DirectoryReader.open(directory)) {
+                var searcher = new IndexSearcher(reader);
+                var timeout = searchTimeout();
+                if (timeout != null) {
+                    searcher.setTimeout(timeout);
+                }
+
+                var parser = new QueryParser(F_FILE_TEXT, codeQueryAnalyzer);
+                parser.setDefaultOperator(QueryParser.Operator.AND);
+                var query = new BooleanQuery.Builder()
+                        .add(parser.parse(QueryParser.escape(keyword)), BooleanClause.Occur.MUST)
+                        .add(new TermQuery(new Term(F_TYPE, TYPE_FILE)), BooleanClause.Occur.FILTER)
+                        .add(versionFilter(version), BooleanClause.Occur.FILTER)
+                        .build();
+
+                var topDocs = searcher.search(query, maxResults);
+                if (searcher.timedOut()) {
+                    event.timedOut = true;
+                    DeadlineUtils.degrade("索引检索超时，仅返回部分匹配结果");
+                }
+
+                // 按行切分片段，偏移量取自倒排索引
+                var highlighter = UnifiedHighlighter.builder(searcher, codeQueryAnalyzer)
+                        .withBreakIterator(() -> new CustomSeparatorBreakIterator('\n'))
+                        .withFormatter(new LineSnippetFormatter(MAX_SNIPPET_CHARS))
+                        .withMaxLength((int) MAX_FILE_BYTES)
+                        .build();
+                String[] snippets = highlighter.highlight(F_FILE_TEXT, query, topDocs, MAX_SNIPPETS_PER_FILE);
+
+                var results = new ArrayList<ContentSearchResult>();
+                var storedFields = reader.storedFields();
+                for (int i = 0; i < topDocs.scoreDocs.length; i++) {
+                    var doc = storedFields.document(topDocs.scoreDocs[i].doc, Set.of(F_GID, F_AID, F_VERSION, F_TEMPLATE_PATH));
+                    results.add(new ContentSearchResult(
+                        doc.get(F_GID),
+                        doc.get(F_AID),
+                        doc.get(F_VERSION),
+                        doc.get(F_TEMPLATE_PATH),
+                        StrUtil.nullToEmpty(snippets[i])
+                    ));
+                }
+                success = true;
+                event.hits = results.size();
+                return results;
+            }
+        } catch (Exception ignored) {
+            // 检索失败返回空列表
+        } finally {
+            if (acquired) {
+                bulkhead.release();
+            }
+            MetricsUtils.record(MetricsUtils.OPERATION, "index.search.content", start, success);
+            event.mode = TYPE_FILE;
+            event.keyword = keyword;
+            event.success = success;
+            event.commit();
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * 构建版本过滤条件
+     *
+     * @param version 版本号，为空时匹配最新版本
+     * @return 过滤条件
+     */
+    private static Query versionFilter(String version) {
+        return StrUtil.isBlank(version)
+                ? new TermQuery(new Term(F_LATEST, "true"))
+                : new TermQuery(new Term(F_VERSION, version.strip()));
+    }
+
+    /**
+     * 构建检索中止条件
+     * <p>取单次检索时限与请求剩余时限的较小值，请求被取消时同样中止
+     *
+     * @return 中止条件，均不限制时返回null
+     */
+    private QueryTimeout searchTimeout() {
+        long limitMs = deadlineConfig.getSearchTimeoutMs() > 0 ? deadlineConfig.getSearchTimeoutMs() : Long.MAX_VALUE;
+        limitMs = Math.min(limitMs, DeadlineUtils.remainingMillis());
+        if (limitMs == Long.MAX_VALUE) {
+            return null;
+        }
+        long expiresAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(limitMs);
+        var deadline = DeadlineUtils.current();
+        return () -> System.nanoTime() - expiresAt >= 0 || (deadline != null && deadline.isExpired());
+    }
+
     /**
      * 自动检测仓库更新并重建索引
      * <p>为避免频繁检查造成性能损失，最多每5秒检查一次。
@@ -344,16 +661,11 @@ public class LuceneIndexService {
             // 更新检查时间
             lastCheckTime = now;
 
-            // 检查文件数量变化
+            // 检查文件数量变化和文件修改时间
             int currentCount = countMetaFiles(baseDir);
-            if (currentCount != lastMetaFileCount) {
-                rebuildIndex();
-                return;
-            }
-
-            // 检查文件修改时间
-            if (hasNewerMetaFiles(baseDir, lastIndexBuildTime)) {
+            if (currentCount != lastMetaFileCount || hasNewerMetaFiles(baseDir, lastIndexBuildTime)) {
                 rebuildIndex();
+                eventPublisher.publishEvent(TemplateChangedEvent.repository());
             }
         } catch (Exception ignored) {
             // 自动重建失败不影响主流程
@@ -375,8 +687,8 @@ public class LuceneIndexService {
 
         for (File file : files) {
             if (file.isDirectory()) {
-                // 跳过lucene索引目录
-                if (INDEX_DIR.equals(file.getName())) {
+                // 跳过lucene索引目录、文件清单目录和回收目录
+                if (isReservedDir(file.getName())) {
                     continue;
                 }
                 // 递归检查子目录
@@ -393,6 +705,16 @@ public class LuceneIndexService {
         return false;
     }
 
+    /**
+     * 是否为仓库根目录下的非模板目录
+     *
+     * @param name 目录名
+     * @return 是否为lucene索引目录、文件清单目录或回收目录
+     */
+    private static boolean isReservedDir(String name) {
+        return INDEX_DIR.equals(name) || ManifestUtils.MANIFEST_DIR.equals(name) || RetentionConfig.TRASH_DIR.equals(name);
+    }
+
     /**
      * 递归统计meta.json文件数量
      *
@@ -408,8 +730,8 @@ public class LuceneIndexService {
         int count = 0;
         for (File file : files) {
             if (file.isDirectory()) {
-                // 跳过lucene索引目录
-                if (INDEX_DIR.equals(file.getName())) {
+                // 跳过lucene索引目录、文件清单目录和回收目录
+                if (isReservedDir(file.getName())) {
                     continue;
                 }
                 // 递归统计子目录
@@ -426,9 +748,24 @@ public class LuceneIndexService {
      *
      * @param groupId     组ID
      * @param artifactId  项目ID
+     * @param version     版本号
      * @param description 模板描述
      * @param metaPath    meta.json路径
      */
-    public record SearchResult(String groupId, String artifactId, String description, String metaPath) {
+    public record SearchResult(String groupId, String artifactId, String version, String description,
+                               String metaPath) {
+    }
+
+    /**
+     * 内容检索结果记录
+     *
+     * @param groupId      组ID
+     * @param artifactId   项目ID
+     * @param version      版本号
+     * @param templatePath 完整模板文件路径，可直接用于 getTemplateByPath
+     * @param snippets     命中行片段，每行一个，命中词以 «» 标记
+     */
+    public record ContentSearchResult(String groupId, String artifactId, String version, String templatePath,
+                                      String snippets) {
     }
 }
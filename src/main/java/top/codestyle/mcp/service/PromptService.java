@@ -26,6 +26,14 @@ public class PromptService {
     private static final String LOCAL_NOT_FOUND_TEMPLATE_PATH = "classpath:prompt/local-not-found.txt";
     private static final String MULTI_RESULT_TEMPLATE_PATH = "classpath:prompt/multi-result.txt";
     private static final String GROUP_AGGREGATED_TEMPLATE_PATH = "classpath:prompt/group-aggregated.txt";
+    private static final String CONTENT_SEARCH_RESULT_TEMPLATE_PATH = "classpath:prompt/content-search-result.txt";
+    private static final String RENDER_RESULT_TEMPLATE_PATH = "classpath:prompt/render-result.txt";
+    private static final String GROUP_RENDER_RESULT_TEMPLATE_PATH = "classpath:prompt/group-render-result.txt";
+    private static final String INLINE_CONTENT_TEMPLATE_PATH = "classpath:prompt/inline-content.txt";
+    private static final String UNCHANGED_RESULT_TEMPLATE_PATH = "classpath:prompt/unchanged-result.txt";
+    private static final String RESOURCE_GROUP_TEMPLATE_PATH = "classpath:prompt/resource-group.txt";
+    private static final String CONTENT_CHUNK_TEMPLATE_PATH = "classpath:prompt/content-chunk.txt";
+    private static final String CONTENT_CHUNK_HEADER_TEMPLATE_PATH = "classpath:prompt/content-chunk-header.txt";
 
     @Autowired
     private ResourceLoader resourceLoader;
@@ -36,6 +44,14 @@ public class PromptService {
     private volatile String localNotFoundTemplate;
     private volatile String multiResultTemplate;
     private volatile String groupAggregatedTemplate;
+    private volatile String contentSearchResultTemplate;
+    private volatile String renderResultTemplate;
+    private volatile String groupRenderResultTemplate;
+    private volatile String inlineContentTemplate;
+    private volatile String unchangedResultTemplate;
+    private volatile String resourceGroupTemplate;
+    private volatile String contentChunkTemplate;
+    private volatile String contentChunkHeaderTemplate;
 
     /**
      * 线程安全懒加载模板内容模板
@@ -133,6 +149,134 @@ public class PromptService {
         return groupAggregatedTemplate;
     }
 
+    /**
+     * 线程安全懒加载内容检索结果模板
+     *
+     * @return 内容检索结果模板字符串
+     */
+    private String getContentSearchResultTemplate() {
+        if (contentSearchResultTemplate == null) {
+            synchronized (this) {
+                if (contentSearchResultTemplate == null) {
+                    contentSearchResultTemplate = loadTemplate(CONTENT_SEARCH_RESULT_TEMPLATE_PATH);
+                }
+            }
+        }
+        return contentSearchResultTemplate;
+    }
+
+    /**
+     * 线程安全懒加载渲染结果模板
+     *
+     * @return 渲染结果模板字符串
+     */
+    private String getRenderResultTemplate() {
+        if (renderResultTemplate == null) {
+            synchronized (this) {
+                if (renderResultTemplate == null) {
+                    renderResultTemplate = loadTemplate(RENDER_RESULT_TEMPLATE_PATH);
+                }
+            }
+        }
+        return renderResultTemplate;
+    }
+
+    /**
+     * 线程安全懒加载模板组渲染结果模板
+     *
+     * @return 模板组渲染结果模板字符串
+     */
+    private String getGroupRenderResultTemplate() {
+        if (groupRenderResultTemplate == null) {
+            synchronized (this) {
+                if (groupRenderResultTemplate == null) {
+                    groupRenderResultTemplate = loadTemplate(GROUP_RENDER_RESULT_TEMPLATE_PATH);
+                }
+            }
+        }
+        return groupRenderResultTemplate;
+    }
+
+    /**
+     * 线程安全懒加载内联文件内容模板
+     *
+     * @return 内联文件内容模板字符串
+     */
+    private String getInlineContentTemplate() {
+        if (inlineContentTemplate == null) {
+            synchronized (this) {
+                if (inlineContentTemplate == null) {
+                    inlineContentTemplate = loadTemplate(INLINE_CONTENT_TEMPLATE_PATH);
+                }
+            }
+        }
+        return inlineContentTemplate;
+    }
+
+    /**
+     * 线程安全懒加载内容未变化模板
+     *
+     * @return 内容未变化模板字符串
+     */
+    private String getUnchangedResultTemplate() {
+        if (unchangedResultTemplate == null) {
+            synchronized (this) {
+                if (unchangedResultTemplate == null) {
+                    unchangedResultTemplate = loadTemplate(UNCHANGED_RESULT_TEMPLATE_PATH);
+                }
+            }
+        }
+        return unchangedResultTemplate;
+    }
+
+    /**
+     * 线程安全懒加载模板组资源模板
+     *
+     * @return 模板组资源模板字符串
+     */
+    private String getResourceGroupTemplate() {
+        if (resourceGroupTemplate == null) {
+            synchronized (this) {
+                if (resourceGroupTemplate == null) {
+                    resourceGroupTemplate = loadTemplate(RESOURCE_GROUP_TEMPLATE_PATH);
+                }
+            }
+        }
+        return resourceGroupTemplate;
+    }
+
+    /**
+     * 线程安全懒加载模板内容分段模板
+     *
+     * @return 模板内容分段模板字符串
+     */
+    private String getContentChunkTemplate() {
+        if (contentChunkTemplate == null) {
+            synchronized (this) {
+                if (contentChunkTemplate == null) {
+                    contentChunkTemplate = loadTemplate(CONTENT_CHUNK_TEMPLATE_PATH);
+                }
+            }
+        }
+        return contentChunkTemplate;
+    }
+
+    /**
+     * 线程安全懒加载模板内容首段头部模板
+     *
+     * @return 模板内容首段头部模板字符串
+     */
+    private String getContentChunkHeaderTemplate() {
+        if (contentChunkHeaderTemplate == null) {
+            synchronized (this) {
+                if (contentChunkHeaderTemplate == null) {
+                    contentChunkHeaderTemplate = loadTemplate(CONTENT_CHUNK_HEADER_TEMPLATE_PATH);
+                }
+            }
+        }
+        return contentChunkHeaderTemplate;
+    }
+
     /**
      * 从classpath加载模板文件
      *
@@ -221,6 +365,108 @@ public class PromptService {
         return buildFromTemplate(getGroupAggregatedTemplate(), groupId, count, artifactList);
     }
 
+    /**
+     * 构建内容检索结果
+     *
+     * @param count        文件数量
+     * @param keyword      检索内容
+     * @param resultList   文件及片段列表字符串
+     * @param examplePath  示例模板文件路径
+     * @return 格式化后的消息
+     */
+    public String buildContentSearchResult(String count, String keyword, String resultList, String examplePath) {
+        return buildFromTemplate(getContentSearchResultTemplate(), count, keyword, resultList, examplePath);
+    }
+
+    /**
+     * 构建模板渲染结果
+     *
+     * @param templatePath 模板文件路径
+     * @param outputPath   输出文件路径
+     * @param output       渲染后的内容
+     * @return 格式化后的消息
+     */
+    public String buildRenderResult(String templatePath, String outputPath, String output) {
+        return buildFromTemplate(getRenderResultTemplate(), templatePath, outputPath, output);
+    }
+
+    /**
+     * 构建模板组渲染结果
+     *
+     * @param template  模板组(groupId/artifactId/version)
+     * @param count     文件总数
+     * @param part      本次返回的部分(如 1/2)
+     * @param filesJson 输出文件路径到渲染内容的JSON映射
+     * @param trailer   渲染失败说明和后续部分提示，可为空
+     * @return 格式化后的消息
+     */
+    public String buildGroupRenderResult(String template, String count, String part, String filesJson, String trailer) {
+        return buildFromTemplate(getGroupRenderResultTemplate(), template, count, part, filesJson, trailer);
+    }
+
+    /**
+     * 构建随搜索结果内联的文件内容
+     *
+     * @param count    内联文件数量
+     * @param contents 各文件的内容提示词，以空行分隔
+     * @param trailer  未内联文件说明，可为空
+     * @return 格式化后的消息
+     */
+    public String buildInlineContent(String count, String contents, String trailer) {
+        return buildFromTemplate(getInlineContentTemplate(), count, contents, trailer);
+    }
+
+    /**
+     * 构建模板内容未变化响应
+     *
+     * @param templatePath 模板文件路径
+     * @param sha256       模板文件内容的SHA256
+     * @return 格式化后的消息
+     */
+    public String buildUnchangedResult(String templatePath, String sha256) {
+        return buildFromTemplate(getUnchangedResultTemplate(), templatePath, sha256);
+    }
+
+    /**
+     * 构建模板组资源内容
+     *
+     * @param template 模板组(groupId/artifactId/version)
+     * @param count    文件总数
+     * @param treeStr  目录树
+     * @return 格式化后的消息
+     */
+    public String buildResourceGroup(String template, String count, String treeStr) {
+        return buildFromTemplate(getResourceGroupTemplate(), template, count, template, treeStr);
+    }
+
+    /**
+     * 构建模板内容分段
+     *
+     * @param templatePath 完整模板文件路径
+     * @param header       首段的SHA256和变量说明，后续分段为空
+     * @param offset       本段起始字节偏移
+     * @param bytes        本段字节数
+     * @param size         文件总字节数
+     * @param content      本段内容
+     * @param trailer      续读令牌或文件末尾说明
+     * @return 格式化后的消息
+     */
+    public String buildContentChunk(String templatePath, String header, String offset, String bytes, String size,
+                                    String content, String trailer) {
+        return buildFromTemplate(getContentChunkTemplate(), templatePath, header, offset, bytes, size, content, trailer);
+    }
+
+    /**
+     * 构建模板内容首段头部(以换行结尾)
+     *
+     * @param sha256  meta.json 声明的文件SHA256
+     * @param varInfo 变量说明
+     * @return 格式化后的头部
+     */
+    public String buildContentChunkHeader(String sha256, String varInfo) {
+        return buildFromTemplate(getContentChunkHeaderTemplate(), sha256, varInfo) + "\n";
+    }
+
     /**
      * 从模板构建内容
      *
@@ -0,0 +1,335 @@
+package top.codestyle.mcp.service;
+
+import cn.hutool.core.util.IdUtil;
+import cn.hutool.core.util.StrUtil;
+import com.googlecode.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
+import freemarker.core.ParseException;
+import freemarker.core.TemplateClassResolver;
+import freemarker.template.Configuration;
+import freemarker.template.Template;
+import freemarker.template.TemplateException;
+import freemarker.template.TemplateExceptionHandler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import top.codestyle.mcp.config.ExecutorConfig;
+import top.codestyle.mcp.config.RenderConfig;
+import top.codestyle.mcp.model.meta.LocalMetaInfo;
+import top.codestyle.mcp.model.sdk.MetaInfo;
+import top.codestyle.mcp.util.DeadlineUtils;
+import top.codestyle.mcp.util.ManifestUtils;
+import top.codestyle.mcp.util.MetricsUtils;
+import top.codestyle.mcp.util.TemplateVariableUtils;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 模板渲染服务
+ * <p>按 meta.json 声明的变量类型校验调用方传入的变量，再用 FreeMarker 渲染模板。
+ * 编译后的模板按 路径#SHA256 缓存，同一版本的模板文件只读取和解析一次，模板更新后SHA256变化自然失效。
+ * 模板组可共用一份变量取值并行渲染全部文件，需分部分返回的结果以令牌保留，各部分取自同一次渲染。
+ * 模板来自远程仓库，禁用 ?new 和 ?api 等可访问Java类的内建函数。
+ *
+ * @author movclantian
+ * @since 2025-12-26
+ */
+@Service
+@RequiredArgsConstructor
+public class RenderService {
+
+    private static final int TEMPLATE_CACHE_CAPACITY = 256;
+    private static final int GROUP_RESULT_CACHE_CAPACITY = 32;
+    private static final String TEMPLATE_SUFFIX = ".ftl";
+
+    private final TemplateService templateService;
+    private final ExecutorService templateTaskExecutor;
+    private final ExecutorConfig executorConfig;
+    private final RenderConfig renderConfig;
+
+    /**
+     * FreeMarker配置，初始化后只读，可在线程间共享
+     */
+    private final Configuration freemarker = createConfiguration();
+
+    /**
+     * 编译后的模板缓存，key为 模板路径#内容SHA256
+     */
+    private final Map<String, Template> templateCache = new ConcurrentLinkedHashMap.Builder<String, Template>()
+            .maximumWeightedCapacity(TEMPLATE_CACHE_CAPACITY)
+            .build();
+
+    /**
+     * 分部分返回的模板组渲染结果，key为渲染令牌
+     */
+    private final Map<String, KeptGroupResult> groupResultCache = new ConcurrentLinkedHashMap.Builder<String, KeptGroupResult>()
+            .maximumWeightedCapacity(GROUP_RESULT_CACHE_CAPACITY)
+            .build();
+
+    /**
+     * 渲染模板
+     *
+     * @param templatePath 完整模板文件路径
+     * @param variables    变量取值，可为null
+     * @return 渲染结果，模板不存在时返回null
+     * @throws IOException 模板读取失败
+     */
+    public RenderResult render(String templatePath, Map<String, Object> variables) throws IOException {
+        MetaInfo meta = templateService.searchMetaByPath(templatePath);
+        if (meta == null) {
+            return null;
+        }
+        List<String> errors = new ArrayList<>();
+        Map<String, Object> model = TemplateVariableUtils.validate(meta.getInputVariables(), variables, errors);
+        if (!errors.isEmpty()) {
+            return new RenderResult(meta, outputPath(meta), null, errors);
+        }
+        return renderFile(meta, model);
+    }
+
+    /**
+     * 渲染模板组的全部文件
+     * <p>共用一份变量取值，先按各文件声明的变量逐一校验，全部通过后在模板任务线程池中并行渲染。
+     * 并行渲染受请求剩余时限约束，超时未完成的文件记为失败并记录降级说明，已完成的文件照常返回。
+     *
+     * @param groupId    组ID
+     * @param artifactId 项目ID
+     * @param version    版本号，为null时取最新版本
+     * @param variables  变量取值，可为null
+     * @return 渲染结果，模板组不存在时返回null
+     */
+    public GroupRenderResult renderGroup(String groupId, String artifactId, String version,
+                                         Map<String, Object> variables) {
+        List<MetaInfo> files = templateService.searchGroupFiles(groupId, artifactId, version);
+        if (files.isEmpty()) {
+            return null;
+        }
+
+        // 校验全部文件，同一变量的相同错误只报告一次
+        Set<String> errors = new LinkedHashSet<>();
+        List<Callable<RenderResult>> tasks = new ArrayList<>(files.size());
+        for (MetaInfo file : files) {
+            List<String> fileErrors = new ArrayList<>();
+            Map<String, Object> model = TemplateVariableUtils.validate(file.getInputVariables(), variables, fileErrors);
+            errors.addAll(fileErrors);
+            tasks.add(DeadlineUtils.propagate(() -> renderFile(file, model)));
+        }
+        if (!errors.isEmpty()) {
+            return new GroupRenderResult(files, List.of(), new ArrayList<>(errors));
+        }
+
+        List<RenderResult> results = new ArrayList<>(files.size());
+        try {
+            // 整体受超时时间和请求剩余时限约束，未设置请求时限时也不会无限等待
+            long timeoutMs = Math.min(executorConfig.getFanOutTimeoutMs(), DeadlineUtils.remainingMillis());
+            List<Future<RenderResult>> futures = templateTaskExecutor.invokeAll(tasks, timeoutMs,
+                    TimeUnit.MILLISECONDS);
+            for (int i = 0; i < futures.size(); i++) {
+                results.add(await(futures.get(i), files.get(i)));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            for (int i = results.size(); i < files.size(); i++) {
+                results.add(new RenderResult(files.get(i), outputPath(files.get(i)), null, List.of("渲染被中断")));
+            }
+        }
+        return new GroupRenderResult(files, results, List.of());
+    }
+
+    /**
+     * 保留模板组渲染结果，后续部分从保留的结果中获取
+     *
+     * @param result 模板组渲染结果
+     * @return 渲染令牌
+     */
+    public String keepGroupResult(GroupRenderResult result) {
+        String token = IdUtil.fastSimpleUUID();
+        groupResultCache.put(token, new KeptGroupResult(result,
+                System.currentTimeMillis() + renderConfig.getResultTtlMs()));
+        return token;
+    }
+
+    /**
+     * 获取保留的模板组渲染结果
+     *
+     * @param token 渲染令牌
+     * @return 渲染结果，令牌不存在、已被淘汰或已过期时返回null
+     */
+    public GroupRenderResult keptGroupResult(String token) {
+        KeptGroupResult kept = groupResultCache.get(token);
+        MetricsUtils.cacheAccess("render.group", kept != null);
+        if (kept == null) {
+            return null;
+        }
+        if (System.currentTimeMillis() > kept.expiresAt()) {
+            groupResultCache.remove(token, kept);
+            return null;
+        }
+        return kept.result();
+    }
+
+    /**
+     * 获取单个文件的渲染结果
+     *
+     * @param future 渲染任务
+     * @param file   模板元信息
+     * @return 渲染结果，超时或异常时返回失败结果
+     * @throws InterruptedException 等待被中断
+     */
+    private RenderResult await(Future<RenderResult> future, MetaInfo file) throws InterruptedException {
+        if (future.isCancelled()) {
+            DeadlineUtils.degrade("部分文件未在请求时限内完成渲染");
+            return new RenderResult(file, outputPath(file), null, List.of("未在请求时限内完成渲染"));
+        }
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            return new RenderResult(file, outputPath(file), null, List.of("模板读取失败: " + e.getCause().getMessage()));
+        }
+    }
+
+    /**
+     * 渲染单个模板文件
+     *
+     * @param meta  模板元信息
+     * @param model 已校验的数据模型
+     * @return 渲染结果
+     * @throws IOException 模板读取失败
+     */
+    private RenderResult renderFile(MetaInfo meta, Map<String, Object> model) throws IOException {
+        String outputPath = outputPath(meta);
+        Template template;
+        try {
+            template = compiledTemplate(meta);
+        } catch (ParseException e) {
+            return new RenderResult(meta, outputPath, null, List.of("模板解析失败: " + e.getEditorMessage()
+                    + "(第" + e.getLineNumber() + "行)"));
+        }
+        if (template == null) {
+            return new RenderResult(meta, outputPath, null, List.of("本地模板读取繁忙，请稍后重试"));
+        }
+
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            var writer = new StringWriter();
+            template.process(model, writer);
+            success = true;
+            return new RenderResult(meta, outputPath, writer.toString(), List.of());
+        } catch (TemplateException e) {
+            return new RenderResult(meta, outputPath, null, List.of("模板渲染失败: " + e.getMessageWithoutStackTop()));
+        } finally {
+            MetricsUtils.record(MetricsUtils.OPERATION, "template.render", start, success);
+        }
+    }
+
+    /**
+     * 获取编译后的模板(带缓存)
+     * <p>以文件实际内容的SHA256为key，内容经由模板内容缓存按文件修改时间和大小校验，本地修改模板文件后重新编译
+     *
+     * @param meta 模板元信息
+     * @return 编译后的模板，未获得本地读取许可返回null
+     * @throws IOException 读取或解析失败
+     */
+    private Template compiledTemplate(MetaInfo meta) throws IOException {
+        LocalMetaInfo loaded = templateService.loadTemplate(meta);
+        if (loaded == null) {
+            return null;
+        }
+        String templatePath = ManifestUtils.templatePath(meta);
+        String key = templatePath + "#" + loaded.getTemplateSha256();
+        Template cached = templateCache.get(key);
+        MetricsUtils.cacheAccess("template.compiled", cached != null);
+        if (cached != null) {
+            return cached;
+        }
+        Template template = new Template(templatePath, new StringReader(loaded.getTemplateContent()), freemarker);
+        templateCache.put(key, template);
+        return template;
+    }
+
+    /**
+     * 计算渲染结果对应的输出文件路径(去掉 .ftl 后缀)
+     *
+     * @param meta 模板元信息
+     * @return 相对输出路径
+     */
+    private static String outputPath(MetaInfo meta) {
+        String path = ManifestUtils.relativePath(meta.getFilePath(), meta.getFilename());
+        return StrUtil.removeSuffixIgnoreCase(path, TEMPLATE_SUFFIX);
+    }
+
+    /**
+     * 创建FreeMarker配置
+     *
+     * @return 配置
+     */
+    private static Configuration createConfiguration() {
+        var configuration = new Configuration(Configuration.VERSION_2_3_34);
+        configuration.setDefaultEncoding(StandardCharsets.UTF_8.name());
+        configuration.setTemplateExceptionHandler(TemplateExceptionHandler.RETHROW_HANDLER);
+        configuration.setLogTemplateExceptions(false);
+        configuration.setWrapUncheckedExceptions(true);
+        // 数字按原样输出，避免 1000 被格式化为 1,000
+        configuration.setNumberFormat("computer");
+        configuration.setBooleanFormat("c");
+        configuration.setNewBuiltinClassResolver(TemplateClassResolver.ALLOWS_NOTHING_RESOLVER);
+        configuration.setAPIBuiltinEnabled(false);
+        return configuration;
+    }
+
+    /**
+     * 渲染结果记录
+     *
+     * @param meta       模板元信息
+     * @param outputPath 输出文件相对路径
+     * @param output     渲染后的内容，失败时为null
+     * @param errors     校验或渲染错误，成功时为空
+     */
+    public record RenderResult(MetaInfo meta, String outputPath, String output, List<String> errors) {
+
+        /**
+         * 是否渲染成功
+         */
+        public boolean success() {
+            return errors.isEmpty();
+        }
+    }
+
+    /**
+     * 保留的模板组渲染结果
+     *
+     * @param result    渲染结果
+     * @param expiresAt 过期时间戳(毫秒)
+     */
+    private record KeptGroupResult(GroupRenderResult result, long expiresAt) {
+    }
+
+    /**
+     * 模板组渲染结果记录
+     *
+     * @param files   模板组的全部文件
+     * @param results 各文件的渲染结果，与files顺序一致，校验未通过时为空
+     * @param errors  变量校验错误，校验通过时为空
+     */
+    public record GroupRenderResult(List<MetaInfo> files, List<RenderResult> results, List<String> errors) {
+
+        /**
+         * 变量校验是否通过
+         */
+        public boolean validated() {
+            return errors.isEmpty();
+        }
+    }
+}
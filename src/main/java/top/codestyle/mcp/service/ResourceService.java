@@ -0,0 +1,458 @@
+package top.codestyle.mcp.service;
+
+import cn.hutool.crypto.digest.DigestUtil;
+import io.modelcontextprotocol.server.McpAsyncServer;
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.server.McpSyncServer;
+import io.modelcontextprotocol.spec.McpError;
+import io.modelcontextprotocol.spec.McpSchema;
+import io.modelcontextprotocol.spec.McpServerTransportProvider;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import top.codestyle.mcp.config.DeadlineConfig;
+import top.codestyle.mcp.config.RepositoryConfig;
+import top.codestyle.mcp.config.TreeOutputConfig;
+import top.codestyle.mcp.model.meta.TemplateChangedEvent;
+import top.codestyle.mcp.model.sdk.MetaInfo;
+import top.codestyle.mcp.util.DeadlineUtils;
+import top.codestyle.mcp.util.ManifestUtils;
+import top.codestyle.mcp.util.MetaCatalogUtils;
+import top.codestyle.mcp.util.MetricsUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+/**
+ * MCP资源服务
+ * <p>将本地仓库中每个模板组版本和每个模板文件发布为MCP资源:
+ * <ul>
+ *   <li>{@code codestyle://catalog} - 全部模板组版本列表</li>
+ *   <li>{@code codestyle://groupId/artifactId/version} - 模板组版本的目录树</li>
+ *   <li>{@code codestyle://groupId/artifactId/version/文件路径} - 模板文件原始内容</li>
+ * </ul>
+ * 资源列表在启动时扫描 meta.json 生成，模板下载更新或 meta.json 变化后按模板组比对差异增删资源(SDK随之发送列表变化通知)，
+ * 内容变化的资源广播 notifications/resources/updated。文件资源以实际内容的SHA256为内容标识，与 getTemplateByPath 返回的SHA256一致。
+ * SDK 0.9.0 未实现 resources/subscribe，更新通知发送给所有会话，客户端按URI自行过滤。
+ *
+ * @author movclantian
+ * @since 2025-12-26
+ */
+@Service
+@RequiredArgsConstructor
+public class ResourceService {
+
+    /**
+     * 资源URI前缀
+     */
+    public static final String URI_PREFIX = "codestyle://";
+
+    /**
+     * 模板组目录资源URI
+     */
+    public static final String CATALOG_URI = URI_PREFIX + "catalog";
+
+    private static final String MIME_TYPE = "text/plain";
+    private static final String RESOURCE_UPDATED = "notifications/resources/updated";
+
+    private final RepositoryConfig repositoryConfig;
+    private final DeadlineConfig deadlineConfig;
+    private final TreeOutputConfig treeOutputConfig;
+    private final TemplateService templateService;
+    private final PromptService promptService;
+    private final ExecutorService templateTaskExecutor;
+    private final ExecutorService backgroundTaskExecutor;
+    private final ObjectProvider<McpSyncServer> syncServer;
+    private final ObjectProvider<McpAsyncServer> asyncServer;
+    private final ObjectProvider<McpServerTransportProvider> transportProvider;
+
+    /**
+     * 已发布的资源，key为 groupId/artifactId，value为 资源URI -> 内容标识
+     * <p>文件的内容标识为文件实际内容的SHA256，模板组版本的内容标识由其全部文件的URI和SHA256计算
+     */
+    private final Map<String, Map<String, String>> published = new ConcurrentHashMap<>();
+
+    /**
+     * 是否已发布初始资源，未启用资源时不处理模板变化事件
+     */
+    private volatile boolean enabled;
+
+    /**
+     * 扫描本地仓库生成初始资源列表
+     * <p>在MCP服务器创建前调用，初始资源随服务器一起注册，不发送变化通知
+     *
+     * @return 资源列表(首个为模板组目录资源)
+     */
+    public List<McpSchema.Resource> initialResources() {
+        List<McpSchema.Resource> resources = new ArrayList<>();
+        resources.add(new McpSchema.Resource(CATALOG_URI, "catalog", "本地仓库全部模板组版本列表", MIME_TYPE, null));
+        for (String[] group : listGroups()) {
+            Map<String, Entry> entries = scanGroup(group[0], group[1], Map.of());
+            if (entries.isEmpty()) {
+                continue;
+            }
+            Map<String, String> stamps = new LinkedHashMap<>();
+            entries.forEach((uri, entry) -> {
+                resources.add(entry.resource());
+                stamps.put(uri, entry.stamp());
+            });
+            published.put(group[0] + "/" + group[1], stamps);
+        }
+        enabled = true;
+        return resources;
+    }
+
+    /**
+     * 处理模板变化事件
+     * <p>在后台任务线程池中比对差异，不阻塞下载和检索线程；线程池饱和时拒绝提交，不会回退到发布事件的线程执行。
+     * 单个文件内容变化时重新比对其所属模板组，文件和模板组版本的内容标识随之更新
+     *
+     * @param event 模板变化事件
+     */
+    @EventListener
+    public void onTemplateChanged(TemplateChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            backgroundTaskExecutor.execute(() -> {
+                if (event.templatePath() != null) {
+                    String[] parts = event.templatePath().split("/", 3);
+                    if (parts.length == 3) {
+                        refresh(parts[0], parts[1]);
+                    }
+                } else if (event.groupId() != null) {
+                    refresh(event.groupId(), event.artifactId());
+                } else {
+                    refreshAll();
+                }
+            });
+        } catch (RejectedExecutionException ignored) {
+            // 线程池已满时放弃本次同步，下次变化时重新比对
+        }
+    }
+
+    /**
+     * 重新扫描全部模板组并同步资源
+     */
+    public void refreshAll() {
+        List<String> keys = new ArrayList<>(published.keySet());
+        for (String[] group : listGroups()) {
+            keys.remove(group[0] + "/" + group[1]);
+            refresh(group[0], group[1]);
+        }
+        // 已删除的模板组
+        for (String key : keys) {
+            String[] group = key.split("/", 2);
+            refresh(group[0], group[1]);
+        }
+    }
+
+    /**
+     * 重新扫描模板组并同步资源
+     * <p>新增的资源注册到服务器，已删除的资源移除，内容标识变化的资源发送更新通知
+     *
+     * @param groupId    组ID
+     * @param artifactId 项目ID
+     */
+    public synchronized void refresh(String groupId, String artifactId) {
+        String key = groupId + "/" + artifactId;
+        Map<String, String> previous = published.getOrDefault(key, Map.of());
+        Map<String, Entry> current = scanGroup(groupId, artifactId, previous);
+
+        boolean listChanged = false;
+        for (String uri : previous.keySet()) {
+            if (!current.containsKey(uri)) {
+                removeResource(uri);
+                listChanged = true;
+            }
+        }
+        Map<String, String> stamps = new LinkedHashMap<>();
+        for (var e : current.entrySet()) {
+            String uri = e.getKey();
+            Entry entry = e.getValue();
+            String stamp = previous.get(uri);
+            if (stamp == null) {
+                addResource(entry.resource());
+                listChanged = true;
+            } else if (!stamp.equals(entry.stamp())) {
+                notifyUpdated(uri);
+            }
+            stamps.put(uri, entry.stamp());
+        }
+        if (stamps.isEmpty()) {
+            published.remove(key);
+        } else {
+            published.put(key, stamps);
+        }
+        if (listChanged) {
+            // 模板组版本增减时目录资源内容随之变化
+            notifyUpdated(CATALOG_URI);
+        }
+    }
+
+    /**
+     * 读取资源内容
+     * <p>受请求时限约束，模板文件不存在时抛出McpError
+     *
+     * @param uri 资源URI
+     * @return 资源内容
+     * @throws IOException 模板文件读取失败
+     */
+    public McpSchema.ReadResourceResult read(String uri) throws IOException {
+        String text = MetricsUtils.time(MetricsUtils.OPERATION, "resource.read",
+                () -> DeadlineUtils.runWith(DeadlineUtils.create(deadlineConfig.getRequestTimeoutMs()),
+                        () -> readText(uri)));
+        return new McpSchema.ReadResourceResult(List.of(new McpSchema.TextResourceContents(uri, MIME_TYPE, text)));
+    }
+
+    /**
+     * 创建同步资源规格
+     *
+     * @param resource 资源
+     * @return 同步资源规格
+     */
+    public McpServerFeatures.SyncResourceSpecification syncSpecification(McpSchema.Resource resource) {
+        return new McpServerFeatures.SyncResourceSpecification(resource, (exchange, request) -> {
+            try {
+                return read(request.uri());
+            } catch (IOException e) {
+                throw new McpError("模板读取失败: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * 创建异步资源规格，读取在模板任务线程池中执行
+     *
+     * @param resource 资源
+     * @return 异步资源规格
+     */
+    public McpServerFeatures.AsyncResourceSpecification asyncSpecification(McpSchema.Resource resource) {
+        return new McpServerFeatures.AsyncResourceSpecification(resource, (exchange, request) ->
+                Mono.fromCallable(() -> read(request.uri()))
+                        .subscribeOn(Schedulers.fromExecutorService(templateTaskExecutor)));
+    }
+
+    /**
+     * 读取资源文本
+     *
+     * @param uri 资源URI
+     * @return 资源文本
+     * @throws IOException 模板文件读取失败
+     */
+    private String readText(String uri) throws IOException {
+        if (CATALOG_URI.equals(uri)) {
+            String catalog = published.values().stream()
+                    .flatMap(stamps -> stamps.keySet().stream())
+                    .filter(resourceUri -> segments(resourceUri).length == 3)
+                    .sorted()
+                    .collect(Collectors.joining("\n"));
+            return catalog.isEmpty() ? "本地仓库暂无模板" : catalog;
+        }
+        String[] parts = segments(uri);
+        if (parts.length < 3) {
+            throw new McpError("资源不存在: " + uri);
+        }
+        if (parts.length == 3) {
+            List<MetaInfo> files = templateService.searchGroupFiles(parts[0], parts[1], parts[2]);
+            if (files.isEmpty()) {
+                throw new McpError("资源不存在: " + uri);
+            }
+            String treeStr = templateService.buildTreeStr(files, null, treeOutputConfig.getDefaultBudget());
+            return promptService.buildResourceGroup(String.join("/", parts), String.valueOf(files.size()), treeStr);
+        }
+        String templatePath = uri.substring(URI_PREFIX.length());
+        MetaInfo meta = templateService.searchMetaByPath(templatePath);
+        if (meta == null) {
+            throw new McpError("资源不存在: " + uri);
+        }
+        String content = templateService.readTemplate(meta);
+        if (content == null) {
+            throw new McpError("本地模板读取繁忙，请稍后重试");
+        }
+        return content;
+    }
+
+    /**
+     * 拆分资源URI为路径段
+     *
+     * @param uri 资源URI
+     * @return 路径段，非本服务的URI返回空数组
+     */
+    private static String[] segments(String uri) {
+        if (uri == null || !uri.startsWith(URI_PREFIX) || uri.length() == URI_PREFIX.length()) {
+            return new String[0];
+        }
+        return uri.substring(URI_PREFIX.length()).split("/");
+    }
+
+    /**
+     * 列出本地仓库中的全部模板组
+     *
+     * @return groupId和artifactId数组列表
+     */
+    private List<String[]> listGroups() {
+        List<String[]> groups = new ArrayList<>();
+        File[] groupDirs = new File(repositoryConfig.getRepositoryDir()).listFiles(File::isDirectory);
+        if (groupDirs == null) {
+            return groups;
+        }
+        for (File groupDir : groupDirs) {
+            File[] artifactDirs = groupDir.listFiles(File::isDirectory);
+            if (artifactDirs == null) {
+                continue;
+            }
+            for (File artifactDir : artifactDirs) {
+                if (new File(artifactDir, "meta.json").isFile()) {
+                    groups.add(new String[]{groupDir.getName(), artifactDir.getName()});
+                }
+            }
+        }
+        return groups;
+    }
+
+    /**
+     * 扫描模板组的全部版本生成资源
+     * <p>只发布本地已存在的文件，文件的内容标识为实际内容的SHA256(按文件修改时间和大小缓存)
+     *
+     * @param groupId    组ID
+     * @param artifactId 项目ID
+     * @param previous   上次发布的 资源URI -> 内容标识，文件暂时无法读取时沿用
+     * @return 资源URI -> 资源条目，模板组版本资源排在其文件之前
+     */
+    private Map<String, Entry> scanGroup(String groupId, String artifactId, Map<String, String> previous) {
+        Map<String, Entry> entries = new LinkedHashMap<>();
+        File artifactDir = new File(repositoryConfig.getRepositoryDir(), groupId + File.separator + artifactId);
+        MetaCatalogUtils.Catalog catalog;
+        try {
+            catalog = MetaCatalogUtils.load(new File(artifactDir, "meta.json"));
+        } catch (Exception e) {
+            return entries;
+        }
+        if (catalog == null) {
+            return entries;
+        }
+
+        Map<String, List<MetaInfo>> versions = new LinkedHashMap<>();
+        catalog.versions().forEach((version, metas) -> {
+            for (MetaInfo meta : metas) {
+                String relativePath = ManifestUtils.relativePath(meta.getFilePath(), meta.getFilename());
+                if (ManifestUtils.exists(new File(artifactDir, version), relativePath)) {
+                    versions.computeIfAbsent(version, v -> new ArrayList<>()).add(meta);
+                }
+            }
+        });
+        versions.forEach((version, files) -> {
+            String groupUri = URI_PREFIX + groupId + "/" + artifactId + "/" + version;
+            StringBuilder groupStamp = new StringBuilder();
+            Map<String, Entry> fileEntries = new LinkedHashMap<>();
+            for (MetaInfo file : files) {
+                String uri = URI_PREFIX + ManifestUtils.templatePath(file);
+                String stamp = contentStamp(file, previous.get(uri));
+                fileEntries.put(uri, new Entry(new McpSchema.Resource(uri, file.getFilename(),
+                        file.getDescription(), MIME_TYPE, null), stamp));
+                groupStamp.append(uri).append('#').append(stamp).append('\n');
+            }
+            entries.put(groupUri, new Entry(new McpSchema.Resource(groupUri, artifactId + " " + version,
+                    "模板组 " + groupId + "/" + artifactId + " 版本 " + version + "，共 " + files.size() + " 个文件",
+                    MIME_TYPE, null), DigestUtil.sha256Hex(groupStamp.toString())));
+            entries.putAll(fileEntries);
+        });
+        return entries;
+    }
+
+    /**
+     * 计算文件资源的内容标识
+     *
+     * @param file     模板元信息
+     * @param previous 上次发布的内容标识，可为null
+     * @return 文件内容的SHA256，未获得读取许可或读取失败时返回上次的内容标识(首次发布时为空字符串)
+     */
+    private String contentStamp(MetaInfo file, String previous) {
+        try {
+            String sha256 = templateService.contentSha256(file);
+            if (sha256 != null) {
+                return sha256;
+            }
+        } catch (IOException ignored) {
+            // 文件在扫描期间被删除，下次比对时移除
+        }
+        return previous != null ? previous : "";
+    }
+
+    /**
+     * 注册资源，SDK在注册后发送列表变化通知
+     *
+     * @param resource 资源
+     */
+    private void addResource(McpSchema.Resource resource) {
+        try {
+            McpSyncServer sync = syncServer.getIfAvailable();
+            if (sync != null) {
+                sync.addResource(syncSpecification(resource));
+                return;
+            }
+            McpAsyncServer async = asyncServer.getIfAvailable();
+            if (async != null) {
+                async.addResource(asyncSpecification(resource)).block();
+            }
+        } catch (McpError ignored) {
+            // 已注册或服务器未启用资源能力
+        }
+    }
+
+    /**
+     * 移除资源，SDK在移除后发送列表变化通知
+     *
+     * @param uri 资源URI
+     */
+    private void removeResource(String uri) {
+        try {
+            McpSyncServer sync = syncServer.getIfAvailable();
+            if (sync != null) {
+                sync.removeResource(uri);
+                return;
+            }
+            McpAsyncServer async = asyncServer.getIfAvailable();
+            if (async != null) {
+                async.removeResource(uri).block();
+            }
+        } catch (McpError ignored) {
+            // 未注册或服务器未启用资源能力
+        }
+    }
+
+    /**
+     * 广播资源更新通知
+     *
+     * @param uri 资源URI
+     */
+    private void notifyUpdated(String uri) {
+        McpServerTransportProvider provider = transportProvider.getIfAvailable();
+        if (provider != null) {
+            provider.notifyClients(RESOURCE_UPDATED, Map.of("uri", uri)).subscribe(null, e -> {
+            });
+        }
+    }
+
+    /**
+     * 资源条目
+     *
+     * @param resource 资源
+     * @param stamp    内容标识，变化时发送更新通知
+     */
+    private record Entry(McpSchema.Resource resource, String stamp) {
+    }
+}
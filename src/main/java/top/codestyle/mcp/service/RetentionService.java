@@ -0,0 +1,272 @@
+package top.codestyle.mcp.service;
+
+import cn.hutool.core.io.FileUtil;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import top.codestyle.mcp.config.RepositoryConfig;
+import top.codestyle.mcp.config.RetentionConfig;
+import top.codestyle.mcp.model.meta.TemplateChangedEvent;
+import top.codestyle.mcp.util.ManifestUtils;
+import top.codestyle.mcp.util.MetaCatalogUtils;
+import top.codestyle.mcp.util.MetricsUtils;
+import top.codestyle.mcp.util.SDKUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 历史版本清理服务
+ * <p>后台定期按保留策略淘汰本地历史版本，每个模板组的最新版本始终保留。淘汰分两步进行:
+ * <ol>
+ *     <li>持有模板组锁，从 meta.json 中移除被淘汰的版本(原子替换)，新的检索和按路径读取不再看到这些版本；
+ *     随后删除版本文件清单，并将版本目录整体移入回收目录(仓库根目录/.trash/淘汰时间/groupId/artifactId/version)</li>
+ *     <li>回收目录中超过宽限期的条目在之后的清理中删除，期间已打开文件的读取请求照常完成</li>
+ * </ol>
+ * 正在下载的模板组持有锁，本轮跳过，下一轮再处理。
+ *
+ * @author movclantian
+ * @since 2025-12-26
+ */
+@Service
+@RequiredArgsConstructor
+public class RetentionService {
+
+    private final RepositoryConfig repositoryConfig;
+    private final RetentionConfig retentionConfig;
+    private final LuceneIndexService luceneIndexService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * 定时执行清理
+     */
+    @Scheduled(initialDelayString = "${codestyle.retention.initial-delay-ms:300000}",
+            fixedDelayString = "${codestyle.retention.interval-ms:3600000}")
+    public void scheduledCollect() {
+        if (retentionConfig.isEnabled()) {
+            collect();
+        }
+    }
+
+    /**
+     * 执行一轮清理：删除超过宽限期的回收条目，再按保留策略淘汰历史版本
+     *
+     * @return 本轮淘汰的版本数
+     */
+    public int collect() {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            File baseDir = new File(repositoryConfig.getRepositoryDir());
+            File trashDir = new File(baseDir, RetentionConfig.TRASH_DIR);
+            long now = System.currentTimeMillis();
+            purgeTrash(trashDir, now);
+
+            Map<File, Set<String>> victims = selectVictims(scanVersions(baseDir), now);
+            int removed = 0;
+            for (Map.Entry<File, Set<String>> entry : victims.entrySet()) {
+                removed += evict(entry.getKey(), entry.getValue(), new File(trashDir, String.valueOf(now)));
+            }
+            success = true;
+            return removed;
+        } finally {
+            MetricsUtils.record(MetricsUtils.OPERATION, "retention.collect", start, success);
+        }
+    }
+
+    /**
+     * 删除回收目录中超过宽限期的条目
+     *
+     * @param trashDir 回收目录
+     * @param now      当前时间
+     */
+    private void purgeTrash(File trashDir, long now) {
+        File[] entries = trashDir.listFiles(File::isDirectory);
+        if (entries == null) {
+            return;
+        }
+        for (File entry : entries) {
+            long evictedAt;
+            try {
+                evictedAt = Long.parseLong(entry.getName());
+            } catch (NumberFormatException e) {
+                evictedAt = entry.lastModified();
+            }
+            if (now - evictedAt >= retentionConfig.getGracePeriodMs()) {
+                FileUtil.del(entry);
+            }
+        }
+    }
+
+    /**
+     * 扫描本地仓库中所有模板组的版本
+     *
+     * @param baseDir 仓库根目录
+     * @return 版本列表，每个模板组内按 meta.json 中的顺序排列
+     */
+    private List<VersionEntry> scanVersions(File baseDir) {
+        List<VersionEntry> entries = new ArrayList<>();
+        File[] groupDirs = baseDir.listFiles(File::isDirectory);
+        if (groupDirs == null) {
+            return entries;
+        }
+        boolean measure = retentionConfig.getMaxTotalBytes() > 0;
+        for (File groupDir : groupDirs) {
+            File[] artifactDirs = groupDir.getName().startsWith(".") ? null : groupDir.listFiles(File::isDirectory);
+            if (artifactDirs == null) {
+                continue;
+            }
+            for (File artifactDir : artifactDirs) {
+                File metaFile = new File(artifactDir, "meta.json");
+                MetaCatalogUtils.Catalog catalog;
+                try {
+                    catalog = MetaCatalogUtils.load(metaFile);
+                } catch (IOException e) {
+                    continue;
+                }
+                if (catalog == null) {
+                    continue;
+                }
+                List<String> versions = catalog.versionList();
+                for (int i = 0; i < versions.size(); i++) {
+                    File versionDir = new File(artifactDir, versions.get(i));
+                    entries.add(new VersionEntry(metaFile, versions.get(i), versions.size() - 1 - i,
+                            versionDir.lastModified(), measure ? FileUtil.size(versionDir) : 0L));
+                }
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * 按保留策略选出需要淘汰的版本
+     * <p>依次应用版本数上限、最长保留时间和总占用上限，最新版本不参与淘汰
+     *
+     * @param entries 全部版本
+     * @param now     当前时间
+     * @return meta.json文件 -> 需要淘汰的版本号
+     */
+    private Map<File, Set<String>> selectVictims(List<VersionEntry> entries, long now) {
+        int keepVersions = retentionConfig.getKeepVersions();
+        long maxAgeMs = retentionConfig.getMaxAgeMs();
+        Map<File, Set<String>> victims = new LinkedHashMap<>();
+        List<VersionEntry> kept = new ArrayList<>();
+        long totalBytes = 0L;
+        for (VersionEntry entry : entries) {
+            boolean expired = entry.rank() > 0 && ((keepVersions > 0 && entry.rank() >= keepVersions)
+                    || (maxAgeMs > 0 && entry.lastModified() > 0 && now - entry.lastModified() > maxAgeMs));
+            if (expired) {
+                victims.computeIfAbsent(entry.metaFile(), key -> new HashSet<>()).add(entry.version());
+            } else {
+                kept.add(entry);
+                totalBytes += entry.bytes();
+            }
+        }
+
+        long maxTotalBytes = retentionConfig.getMaxTotalBytes();
+        if (maxTotalBytes > 0 && totalBytes > maxTotalBytes) {
+            kept.sort(Comparator.comparingLong(VersionEntry::lastModified));
+            for (VersionEntry entry : kept) {
+                if (totalBytes <= maxTotalBytes) {
+                    break;
+                }
+                if (entry.rank() > 0) {
+                    victims.computeIfAbsent(entry.metaFile(), key -> new HashSet<>()).add(entry.version());
+                    totalBytes -= entry.bytes();
+                }
+            }
+        }
+        return victims;
+    }
+
+    /**
+     * 淘汰一个模板组的历史版本
+     *
+     * @param metaFile  meta.json文件
+     * @param versions  需要淘汰的版本号
+     * @param trashRoot 本轮的回收目录
+     * @return 实际淘汰的版本数，模板组正在下载时返回0
+     */
+    private int evict(File metaFile, Set<String> versions, File trashRoot) {
+        File artifactDir = metaFile.getParentFile();
+        String groupId = artifactDir.getParentFile().getName();
+        String artifactId = artifactDir.getName();
+        ReentrantLock lock = SDKUtils.artifactLock(groupId, artifactId);
+        if (!lock.tryLock()) {
+            return 0;
+        }
+        int removed;
+        try {
+            // 持锁后重新读取，最新版本可能已在扫描后发生变化
+            MetaCatalogUtils.Catalog catalog = MetaCatalogUtils.load(metaFile);
+            if (catalog == null) {
+                return 0;
+            }
+            Set<String> targets = new HashSet<>(versions);
+            targets.retainAll(catalog.versions().keySet());
+            targets.remove(catalog.latestVersion());
+            if (targets.isEmpty()) {
+                return 0;
+            }
+            removed = SDKUtils.removeVersionsFromMetaJson(metaFile, targets);
+            for (String version : targets) {
+                File versionDir = new File(artifactDir, version);
+                ManifestUtils.invalidate(versionDir);
+                moveToTrash(versionDir, FileUtil.file(trashRoot, groupId, artifactId, version));
+            }
+        } catch (IOException e) {
+            return 0;
+        } finally {
+            lock.unlock();
+        }
+
+        luceneIndexService.updateIndex(metaFile.getAbsolutePath());
+        eventPublisher.publishEvent(TemplateChangedEvent.group(groupId, artifactId));
+        return removed;
+    }
+
+    /**
+     * 将版本目录移入回收目录
+     * <p>同一文件系统内为原子重命名，不支持时直接删除
+     *
+     * @param versionDir 版本目录
+     * @param target     回收目录中的目标位置
+     */
+    private void moveToTrash(File versionDir, File target) {
+        if (!versionDir.exists()) {
+            return;
+        }
+        try {
+            FileUtil.mkParentDirs(target);
+            Files.move(versionDir.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            FileUtil.del(versionDir);
+        } catch (IOException e) {
+            // 移动失败时保留目录，meta.json 已不再引用该版本
+        }
+    }
+
+    /**
+     * 本地模板版本
+     *
+     * @param metaFile     所属模板组的meta.json文件
+     * @param version      版本号
+     * @param rank         距最新版本的位置，0为最新版本
+     * @param lastModified 版本目录修改时间，目录不存在时为0
+     * @param bytes        版本目录占用字节数，未启用总占用上限时为0
+     */
+    private record VersionEntry(File metaFile, String version, int rank, long lastModified, long bytes) {
+    }
+}
@@ -0,0 +1,137 @@
+package top.codestyle.mcp.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.stereotype.Service;
+import top.codestyle.mcp.util.MetricsUtils;
+
+import java.lang.management.ManagementFactory;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 运行指标服务
+ * <p>以MCP工具形式输出指标快照，stdio部署无需Web端点即可观察耗时、吞吐、失败率和缓存命中率
+ *
+ * @author movclantian
+ * @since 2025-12-23
+ */
+@Service
+public class StatsService {
+
+    /**
+     * 获取运行指标快照
+     *
+     * @return 格式化的指标快照
+     */
+    @Tool(name = "codestyleStats", description = """
+            获取服务运行指标快照：各工具和内部操作(索引检索/重建、远程请求、下载、解压、模板读取)的
+            调用次数、吞吐、失败率、耗时分布(p50/p95/p99)，以及各缓存命中率。
+            """)
+    public String codestyleStats() {
+        double uptimeSeconds = ManagementFactory.getRuntimeMXBean().getUptime() / 1000.0;
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("运行指标快照 (已运行 %.0f 秒，百分位为最近时间窗口统计)%n", uptimeSeconds));
+
+        sb.append("\n工具调用:\n");
+        appendTimers(sb, MetricsUtils.TOOL, uptimeSeconds);
+        sb.append("\n内部操作:\n");
+        appendTimers(sb, MetricsUtils.OPERATION, uptimeSeconds);
+        sb.append("\n缓存命中:\n");
+        appendCaches(sb);
+        return sb.toString();
+    }
+
+    /**
+     * 输出指定指标下所有操作的耗时统计
+     *
+     * @param sb            输出
+     * @param metric        指标名
+     * @param uptimeSeconds 运行时长(秒)
+     */
+    private void appendTimers(StringBuilder sb, String metric, double uptimeSeconds) {
+        List<Timer> timers = Metrics.globalRegistry.find(metric).timers().stream()
+                .sorted(Comparator.comparing(timer -> timer.getId().getTag("name")))
+                .toList();
+        if (timers.isEmpty()) {
+            sb.append("  暂无数据\n");
+            return;
+        }
+        for (Timer timer : timers) {
+            String name = timer.getId().getTag("name");
+            HistogramSnapshot snapshot = timer.takeSnapshot();
+            long count = snapshot.count();
+            long errors = (long) errorCount(metric, name);
+            sb.append(String.format("  %s: 调用 %d, 吞吐 %.2f 次/秒, 失败 %d (%.1f%%), 平均 %s",
+                    name, count, uptimeSeconds > 0 ? count / uptimeSeconds : 0, errors,
+                    count > 0 ? errors * 100.0 / count : 0, formatMillis(snapshot.mean(TimeUnit.MILLISECONDS))));
+            for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+                sb.append(String.format(", p%s %s", formatPercentile(percentile.percentile()),
+                        formatMillis(percentile.value(TimeUnit.MILLISECONDS))));
+            }
+            sb.append(", 最大 ").append(formatMillis(snapshot.max(TimeUnit.MILLISECONDS))).append('\n');
+        }
+    }
+
+    /**
+     * 输出各缓存命中统计
+     *
+     * @param sb 输出
+     */
+    private void appendCaches(StringBuilder sb) {
+        Map<String, long[]> caches = new TreeMap<>();
+        for (Counter counter : Metrics.globalRegistry.find(MetricsUtils.CACHE).counters()) {
+            long[] hitMiss = caches.computeIfAbsent(counter.getId().getTag("cache"), key -> new long[2]);
+            hitMiss["hit".equals(counter.getId().getTag("result")) ? 0 : 1] += (long) counter.count();
+        }
+        if (caches.isEmpty()) {
+            sb.append("  暂无数据\n");
+            return;
+        }
+        caches.forEach((cache, hitMiss) -> {
+            long total = hitMiss[0] + hitMiss[1];
+            sb.append(String.format("  %s: 命中 %d, 未命中 %d, 命中率 %.1f%%%n",
+                    cache, hitMiss[0], hitMiss[1], total > 0 ? hitMiss[0] * 100.0 / total : 0));
+        });
+    }
+
+    /**
+     * 获取操作的失败次数
+     *
+     * @param metric 指标名
+     * @param name   操作名
+     * @return 失败次数
+     */
+    private double errorCount(String metric, String name) {
+        Counter counter = Metrics.globalRegistry.find(metric + MetricsUtils.ERRORS_SUFFIX).tag("name", name).counter();
+        return counter != null ? counter.count() : 0;
+    }
+
+    /**
+     * 格式化毫秒耗时
+     *
+     * @param millis 毫秒
+     * @return 格式化字符串
+     */
+    private static String formatMillis(double millis) {
+        return String.format("%.2fms", millis);
+    }
+
+    /**
+     * 格式化百分位，如0.95格式化为95
+     *
+     * @param percentile 百分位
+     * @return 格式化字符串
+     */
+    private static String formatPercentile(double percentile) {
+        double value = percentile * 100;
+        return value == Math.rint(value) ? String.valueOf((long) value) : String.valueOf(value);
+    }
+}
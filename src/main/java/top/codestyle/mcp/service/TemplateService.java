@@ -1,26 +1,60 @@
 package top.codestyle.mcp.service;
 
+import cn.hutool.core.util.StrUtil;
+import cn.hutool.crypto.digest.DigestUtil;
+import com.googlecode.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
+import top.codestyle.mcp.config.BulkheadConfig;
+import top.codestyle.mcp.config.DeadlineConfig;
+import top.codestyle.mcp.config.ExecutorConfig;
+import top.codestyle.mcp.config.PrefetchConfig;
 import top.codestyle.mcp.config.RepositoryConfig;
+import top.codestyle.mcp.jfr.TemplateReadEvent;
 import top.codestyle.mcp.model.meta.LocalMetaInfo;
+import top.codestyle.mcp.model.meta.TemplateChangedEvent;
+import top.codestyle.mcp.model.meta.TemplateChunk;
 import top.codestyle.mcp.model.sdk.MetaInfo;
 import top.codestyle.mcp.model.sdk.RemoteMetaConfig;
-import top.codestyle.mcp.model.tree.TreeNode;
+import top.codestyle.mcp.model.tree.PathTrie;
+import top.codestyle.mcp.model.tree.TreeBudget;
+import top.codestyle.mcp.util.DeadlineUtils;
+import top.codestyle.mcp.util.ManifestUtils;
+import top.codestyle.mcp.util.MetaCatalogUtils;
 import top.codestyle.mcp.util.MetaInfoConvertUtil;
+import top.codestyle.mcp.util.MetricsUtils;
 import top.codestyle.mcp.util.PromptUtils;
 import top.codestyle.mcp.util.SDKUtils;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * 模板服务
@@ -33,7 +67,80 @@ import java.util.List;
 @RequiredArgsConstructor
 public class TemplateService {
 
+    /**
+     * 目录树缓存容量(按模板版本组合计)
+     */
+    private static final int TREE_CACHE_CAPACITY = 256;
+
+    /**
+     * 模板内容缓存容量(按字符数计)
+     */
+    private static final int CONTENT_CACHE_CHARS = 8 * 1024 * 1024;
+
+    /**
+     * 内容哈希缓存容量(按文件数计)，MCP资源以内容哈希为内容标识，需容纳本地仓库的全部文件
+     */
+    private static final int HASH_CACHE_CAPACITY = 8192;
+
     private final RepositoryConfig repositoryConfig;
+    private final ExecutorConfig executorConfig;
+    private final DeadlineConfig deadlineConfig;
+    private final BulkheadConfig bulkheadConfig;
+    private final PrefetchConfig prefetchConfig;
+    private final ExecutorService templateTaskExecutor;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * 后台任务线程池，饱和时拒绝提交，预取不会在请求线程上同步执行
+     */
+    private final ExecutorService backgroundTaskExecutor;
+
+    /**
+     * 模板下载线程池，与工具调用、本地解析使用的线程池隔离
+     */
+    private final ExecutorService remoteTaskExecutor;
+
+    /**
+     * 进行中的模板下载，key为 groupId/artifactId，同一模板组的并发请求共用一次下载
+     */
+    private final Map<String, Future<Boolean>> inFlightDownloads = new ConcurrentHashMap<>();
+
+    /**
+     * 目录树渲染结果缓存
+     * <p>key为参与渲染的 groupId/artifactId/version#文件数 组合加上输出预算和展开路径，同一版本的目录树不会变化
+     */
+    private final Map<String, String> treeCache = new ConcurrentLinkedHashMap.Builder<String, String>()
+            .maximumWeightedCapacity(TREE_CACHE_CAPACITY)
+            .build();
+
+    /**
+     * 目录树结构缓存，key同目录树缓存的模板版本组合部分
+     */
+    private final Map<String, PathTrie> trieCache = new ConcurrentLinkedHashMap.Builder<String, PathTrie>()
+            .maximumWeightedCapacity(TREE_CACHE_CAPACITY)
+            .build();
+
+    /**
+     * 模板内容缓存，key为完整模板文件路径
+     * <p>以文件修改时间和大小校验有效性，本地修改模板文件后自动重新读取
+     */
+    private final Map<String, CachedContent> contentCache = new ConcurrentLinkedHashMap.Builder<String, CachedContent>()
+            .maximumWeightedCapacity(CONTENT_CACHE_CHARS)
+            .weigher(cached -> Math.max(1, cached.content().length()))
+            .build();
+
+    /**
+     * 内容哈希缓存，key为完整模板文件路径
+     * <p>分段读取的大文件不进入内容缓存，只缓存其内容SHA256，同样以文件修改时间和大小校验有效性
+     */
+    private final Map<String, CachedHash> hashCache = new ConcurrentLinkedHashMap.Builder<String, CachedHash>()
+            .maximumWeightedCapacity(HASH_CACHE_CAPACITY)
+            .build();
+
+    /**
+     * 进行中的内容预取，key为 groupId/artifactId/version，同一版本同时只有一个预取任务
+     */
+    private final Set<String> inFlightPrefetches = ConcurrentHashMap.newKeySet();
 
     @Lazy
     private final LuceneIndexService luceneIndexService;
@@ -49,8 +156,58 @@ public class TemplateService {
      * @return 匹配的模板元信息列表
      */
     public List<MetaInfo> searchLocalRepository(String groupId, String artifactId) {
+        return searchLocalRepository(groupId, artifactId, null);
+    }
+
+    /**
+     * 根据groupId、artifactId和版本号搜索指定模板组
+     *
+     * @param groupId    组ID
+     * @param artifactId 项目ID
+     * @param version    版本号，为null时取最新版本
+     * @return 匹配的模板元信息列表
+     */
+    public List<MetaInfo> searchLocalRepository(String groupId, String artifactId, String version) {
+        String localRepoPath = repositoryConfig.getRepositoryDir();
+        return bulkheadConfig.getLocalReadBulkhead().call(
+                () -> SDKUtils.searchLocalRepository(groupId, artifactId, version, localRepoPath), List.of());
+    }
+
+    /**
+     * 列出模板组在本地的全部版本
+     * <p>从缓存的版本目录中回答，meta.json 未变化时不重新解析
+     *
+     * @param groupId    组ID
+     * @param artifactId 项目ID
+     * @return 版本号列表，最后一个为最新版本，模板组不存在时返回空列表
+     */
+    public List<String> listVersions(String groupId, String artifactId) {
+        File metaFile = Paths.get(repositoryConfig.getRepositoryDir(), groupId, artifactId, "meta.json").toFile();
+        try {
+            MetaCatalogUtils.Catalog catalog = MetaCatalogUtils.load(metaFile);
+            return catalog != null ? catalog.versionList() : List.of();
+        } catch (IOException e) {
+            return List.of();
+        }
+    }
+
+    /**
+     * 获取模板组指定版本的全部文件
+     * 本地未找到时尝试从远程下载
+     *
+     * @param groupId    组ID
+     * @param artifactId 项目ID
+     * @param version    版本号，为null时取最新版本
+     * @return 模板元信息列表，未找到返回空列表
+     */
+    public List<MetaInfo> searchGroupFiles(String groupId, String artifactId, String version) {
         String localRepoPath = repositoryConfig.getRepositoryDir();
-        return SDKUtils.searchLocalRepository(groupId, artifactId, localRepoPath);
+        List<MetaInfo> files = searchWithRepair(groupId + "/" + artifactId, () -> {
+            List<MetaInfo> local = bulkheadConfig.getLocalReadBulkhead().call(
+                    () -> SDKUtils.searchLocalRepository(groupId, artifactId, version, localRepoPath), List.of());
+            return local.isEmpty() ? null : local;
+        });
+        return files != null ? files : List.of();
     }
 
     /**
@@ -62,14 +219,135 @@ public class TemplateService {
      * @throws IOException 文件读取异常
      */
     public LocalMetaInfo searchByPath(String exactPath) throws IOException {
-        String localRepoPath = repositoryConfig.getRepositoryDir();
+        return searchWithRepair(exactPath, () -> readLocalTemplate(exactPath));
+    }
+
+    /**
+     * 根据精确路径搜索模板元信息(不读取模板内容)
+     * 本地未找到时尝试从远程下载
+     *
+     * @param exactPath 精确路径,格式: groupId/artifactId/version/filePath/filename
+     * @return 模板元信息,未找到返回null
+     */
+    public MetaInfo searchMetaByPath(String exactPath) {
+        return searchWithRepair(exactPath, () -> bulkheadConfig.getLocalReadBulkhead().call(
+                () -> SDKUtils.searchByPath(exactPath, repositoryConfig.getRepositoryDir()), null));
+    }
 
+    /**
+     * 读取模板文件内容，占用本地读取舱壁
+     *
+     * @param info 模板元信息
+     * @return 模板文件内容，未获得读取许可返回null
+     * @throws IOException 文件不存在或读取失败
+     */
+    public String readTemplate(MetaInfo info) throws IOException {
+        return bulkheadConfig.getLocalReadBulkhead().call(() -> readTemplateContent(info), null);
+    }
+
+    /**
+     * 读取模板文件内容及其SHA256，占用本地读取舱壁
+     *
+     * @param info 模板元信息
+     * @return 模板元信息(含内容)，未获得读取许可返回null
+     * @throws IOException 文件不存在或读取失败
+     */
+    public LocalMetaInfo loadTemplate(MetaInfo info) throws IOException {
+        return bulkheadConfig.getLocalReadBulkhead().call(() -> toLocalMetaInfo(info), null);
+    }
+
+    /**
+     * 获取模板文件字节数
+     *
+     * @param info 模板元信息
+     * @return 文件字节数
+     * @throws IOException 文件不存在或读取失败
+     */
+    public long templateSize(MetaInfo info) throws IOException {
+        Path templatePath = resolveTemplateFile(info);
+        if (!Files.exists(templatePath)) {
+            throw templateMissing(info, templatePath);
+        }
+        return Files.size(templatePath);
+    }
+
+    /**
+     * 计算模板文件内容的SHA256，占用本地读取舱壁
+     * <p>与完整读取返回的SHA256一致(均为文件字节的哈希)；内容已在缓存中时直接使用，否则流式计算，不将文件整体读入内存
+     *
+     * @param info 模板元信息
+     * @return 内容SHA256，未获得读取许可返回null
+     * @throws IOException 文件不存在或读取失败
+     */
+    public String contentSha256(MetaInfo info) throws IOException {
+        return bulkheadConfig.getLocalReadBulkhead().call(() -> computeContentSha256(info), null);
+    }
+
+    /**
+     * 按字节范围读取模板文件，占用本地读取舱壁
+     * <p>使用 FileChannel 定位读取，只分配本段大小的缓冲区，不经过内容缓存。
+     * 未读到文件末尾时结束位置回退到最后一个换行符之后，本段没有换行符时回退到UTF-8字符边界；
+     * 起始位置落在多字节字符中间时跳到下一个字符，分段不会截断字符
+     *
+     * @param info     模板元信息
+     * @param offset   起始字节偏移
+     * @param maxBytes 本段最大字节数，<=0表示读到文件末尾
+     * @return 模板文件分段，未获得读取许可返回null
+     * @throws IOException 文件不存在或读取失败
+     */
+    public TemplateChunk readTemplateRange(MetaInfo info, long offset, int maxBytes) throws IOException {
+        return bulkheadConfig.getLocalReadBulkhead().call(() -> MetricsUtils.time(MetricsUtils.OPERATION,
+                "template.read.range", () -> readTemplateChunk(info, offset, maxBytes)), null);
+    }
+
+    /**
+     * 在后台预取模板文件内容
+     * <p>将排名靠前的文件读入内容缓存，后续 getTemplateByPath 和渲染直接命中缓存。
+     * 预取在后台任务线程池中执行，不受请求时限约束，读取失败或线程池已满时静默放弃，不影响当前请求。
+     *
+     * @param files 按优先级排列的模板元信息列表，取前 max-files 个
+     */
+    public void prefetch(List<MetaInfo> files) {
+        if (!prefetchConfig.isEnabled() || files.isEmpty()) {
+            return;
+        }
+        MetaInfo first = files.get(0);
+        String key = first.getGroupId() + "/" + first.getArtifactId() + "/" + first.getVersion();
+        if (!inFlightPrefetches.add(key)) {
+            return;
+        }
+        List<MetaInfo> top = List.copyOf(files.subList(0, Math.min(files.size(), prefetchConfig.getMaxFiles())));
+        try {
+            backgroundTaskExecutor.execute(() -> {
+                try {
+                    for (MetaInfo info : top) {
+                        try {
+                            readTemplate(info);
+                        } catch (IOException ignored) {
+                        }
+                    }
+                } finally {
+                    inFlightPrefetches.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlightPrefetches.remove(key);
+        }
+    }
+
+    /**
+     * 按精确路径查找本地模板，未找到时从远程下载后重试
+     *
+     * @param exactPath 精确路径
+     * @param lookup    本地查找
+     * @return 查找结果,未找到返回null
+     * @throws E 本地查找异常
+     */
+    private <T, E extends Exception> T searchWithRepair(String exactPath, MetricsUtils.Task<T, E> lookup) throws E {
         // 从本地仓库中查找模板
-        MetaInfo localResult = SDKUtils.searchByPath(exactPath, localRepoPath);
+        T localResult = lookup.call();
         if (localResult != null) {
-            LocalMetaInfo result = MetaInfoConvertUtil.convert(localResult);
-            result.setTemplateContent(readTemplateContent(localResult));
-            return result;
+            return localResult;
         }
 
         // 本地未找到,尝试智能下载
@@ -90,12 +368,7 @@ public class TemplateService {
 
                 // 下载成功后重新搜索
                 if (downloadSuccess) {
-                    localResult = SDKUtils.searchByPath(exactPath, localRepoPath);
-                    if (localResult != null) {
-                        LocalMetaInfo result = MetaInfoConvertUtil.convert(localResult);
-                        result.setTemplateContent(readTemplateContent(localResult));
-                        return result;
-                    }
+                    return lookup.call();
                 }
             }
         } catch (Exception ignored) {
@@ -104,85 +377,355 @@ public class TemplateService {
         return null;
     }
 
+    /**
+     * 从本地仓库按精确路径读取模板，占用本地读取舱壁
+     *
+     * @param exactPath 精确路径
+     * @return 模板元信息(含内容)，未找到或未获得读取许可返回null
+     * @throws IOException 文件读取异常
+     */
+    private LocalMetaInfo readLocalTemplate(String exactPath) throws IOException {
+        String localRepoPath = repositoryConfig.getRepositoryDir();
+        return bulkheadConfig.getLocalReadBulkhead().call(() -> {
+            MetaInfo localResult = SDKUtils.searchByPath(exactPath, localRepoPath);
+            if (localResult == null) {
+                return null;
+            }
+            return toLocalMetaInfo(localResult);
+        }, null);
+    }
+
+    /**
+     * 转换为带模板内容和内容SHA256的元信息
+     *
+     * @param info 模板元信息
+     * @return 模板元信息(含内容)
+     * @throws IOException 文件不存在或读取失败
+     */
+    private LocalMetaInfo toLocalMetaInfo(MetaInfo info) throws IOException {
+        LocalMetaInfo result = MetaInfoConvertUtil.convert(info);
+        CachedContent content = readCachedContent(info);
+        result.setTemplateContent(content.content());
+        result.setTemplateSha256(content.sha256());
+        return result;
+    }
+
     /**
      * 智能下载或更新模板
-     * <p>根据SHA256哈希值判断是否需要更新，下载成功后自动更新Lucene索引
+     * <p>根据SHA256哈希值判断是否需要更新，下载成功后自动更新Lucene索引。
+     * 下载在独立的下载线程池中执行，调用方最多等待到请求时限；超时后按配置转入后台继续或取消，
+     * 同一模板组的并发请求等待同一次下载。
      *
      * @param remoteConfig 远程模板配置
-     * @return true-下载成功，false-下载失败
+     * @return true-下载成功，false-下载失败或未在时限内完成
      */
     public boolean smartDownloadTemplate(RemoteMetaConfig remoteConfig) {
+        if (DeadlineUtils.isExpired()) {
+            DeadlineUtils.degrade("请求时限已耗尽，未检查模板更新");
+            return false;
+        }
+        boolean cancelAbandoned = deadlineConfig.isCancelAbandonedDownload();
+        String key = remoteConfig.getGroupId() + "/" + remoteConfig.getArtifactId();
+        // 取消模式下载任务继承请求时限，传输中到期即中止；后台模式不受请求时限约束
+        Callable<Boolean> download = () -> downloadAndIndex(remoteConfig);
+        FutureTask<Boolean> created = new FutureTask<>(cancelAbandoned ? DeadlineUtils.propagate(download) : download);
+        Future<Boolean> future = inFlightDownloads.putIfAbsent(key, created);
+        if (future == null) {
+            future = created;
+            remoteTaskExecutor.execute(() -> {
+                try {
+                    created.run();
+                } finally {
+                    inFlightDownloads.remove(key, created);
+                }
+            });
+        }
+
+        try {
+            long remaining = DeadlineUtils.remainingMillis();
+            return remaining == Long.MAX_VALUE ? future.get() : future.get(remaining, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            if (cancelAbandoned) {
+                future.cancel(true);
+                inFlightDownloads.remove(key, future);
+                DeadlineUtils.degrade("模板下载未在请求时限内完成，已取消");
+            } else {
+                DeadlineUtils.degrade("模板下载未在请求时限内完成，已转入后台继续，稍后重试即可获取最新版本");
+            }
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | CancellationException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 下载或更新模板并更新Lucene索引
+     * <p>下载占用远程访问舱壁，索引更新在释放许可后进行
+     *
+     * @param remoteConfig 远程模板配置
+     * @return true-下载成功，false-下载失败
+     */
+    private boolean downloadAndIndex(RemoteMetaConfig remoteConfig) {
         String localRepoPath = repositoryConfig.getRepositoryDir();
         String remoteBaseUrl = repositoryConfig.getRemotePath();
-        boolean success = SDKUtils.smartDownloadTemplate(localRepoPath, remoteBaseUrl, remoteConfig);
+        boolean success = bulkheadConfig.getRemoteBulkhead().call(
+                () -> SDKUtils.smartDownloadTemplate(localRepoPath, remoteBaseUrl, remoteConfig), false);
 
         // 下载成功后更新Lucene索引
         if (success) {
-            try {
-                String groupId = remoteConfig.getGroupId();
-                String artifactId = remoteConfig.getArtifactId();
-                String description = remoteConfig.getDescription();
-                String metaPath = localRepoPath + File.separator + groupId + File.separator +
-                        artifactId + File.separator + "meta.json";
+            evictTreeCache(remoteConfig.getGroupId(), remoteConfig.getArtifactId());
+            String metaPath = localRepoPath + File.separator + remoteConfig.getGroupId() + File.separator +
+                    remoteConfig.getArtifactId() + File.separator + "meta.json";
+            luceneIndexService.updateIndex(new File(metaPath).getAbsolutePath());
+            eventPublisher.publishEvent(TemplateChangedEvent.group(remoteConfig.getGroupId(),
+                    remoteConfig.getArtifactId()));
+        }
+        return success;
+    }
 
-                // 提取路径关键词
-                String pathKeywords = extractPathKeywordsFromRemoteConfig(remoteConfig);
+    /**
+     * 构建模板目录树字符串(带缓存)
+     * <p>文件名后的哈希前缀取文件实际内容的SHA256(经哈希缓存，未变化的文件只读取属性)，
+     * 与 getTemplateByPath 返回和比对的SHA256一致。缓存key包含内容哈希的摘要，文件内容变化后重新构建；
+     * 未获得本地读取许可或请求时限已到时不显示哈希，结果也不缓存
+     *
+     * @param metaInfos  模板元信息列表
+     * @param expandPath 需要展开的子目录路径，可为null
+     * @param budget     输出预算
+     * @return 格式化的目录树字符串
+     */
+    public String buildTreeStr(List<MetaInfo> metaInfos, String expandPath, TreeBudget budget) {
+        List<String> sha256s = bulkheadConfig.getLocalReadBulkhead().call(() -> contentSha256s(metaInfos), null);
+        if (sha256s == null) {
+            return PromptUtils.buildTreeStr(PromptUtils.buildTree(metaInfos, Collections.nCopies(metaInfos.size(),
+                    null)), expandPath, budget);
+        }
+        String treeKey = treeCacheKey(metaInfos) + "@" + DigestUtil.sha256Hex(String.join(",", sha256s));
+        String renderKey = treeKey + "|" + budget.cacheKey() + "|" + StrUtil.nullToEmpty(expandPath);
+        String cached = treeCache.get(renderKey);
+        MetricsUtils.cacheAccess("tree.render", cached != null);
+        if (cached != null) {
+            return cached;
+        }
+        PathTrie tree = trieCache.get(treeKey);
+        MetricsUtils.cacheAccess("tree.trie", tree != null);
+        if (tree == null) {
+            tree = PromptUtils.buildTree(metaInfos, sha256s);
+            trieCache.put(treeKey, tree);
+        }
+        String treeStr = PromptUtils.buildTreeStr(tree, expandPath, budget);
+        treeCache.put(renderKey, treeStr);
+        return treeStr;
+    }
 
-                luceneIndexService.updateIndex(groupId, artifactId, description, pathKeywords, metaPath);
-            } catch (Exception ignored) {
+    /**
+     * 计算一组模板文件内容的SHA256(带缓存)
+     *
+     * @param metaInfos 模板元信息列表
+     * @return 与入参一一对应的SHA256，文件缺失或读取失败的元素为null；请求时限已到时返回null
+     */
+    private List<String> contentSha256s(List<MetaInfo> metaInfos) {
+        List<String> sha256s = new ArrayList<>(metaInfos.size());
+        for (MetaInfo info : metaInfos) {
+            if (DeadlineUtils.isExpired()) {
+                return null;
+            }
+            String sha256 = null;
+            try {
+                sha256 = computeContentSha256(info);
+            } catch (IOException ignored) {
+                // 缺失的文件在目录树中不显示哈希
             }
+            sha256s.add(sha256);
         }
-        return success;
+        return sha256s;
     }
 
     /**
-     * 从远程配置提取路径关键词
+     * 生成目录树缓存key
+     * <p>格式: groupId/artifactId/version#文件数@meta.json修改时间:大小，多个模板按字典序以逗号拼接。
+     * 包含版本目录的修改时间和大小，本地修改 meta.json(不经下载)后不会命中旧的目录树
      *
-     * @param remoteConfig 远程配置
-     * @return 路径关键词
+     * @param metaInfos 模板元信息列表
+     * @return 缓存key
      */
-    private String extractPathKeywordsFromRemoteConfig(RemoteMetaConfig remoteConfig) {
-        HashSet<String> keywords = new HashSet<>();
-        if (remoteConfig.getConfig() != null && remoteConfig.getConfig().getFiles() != null) {
-            for (var file : remoteConfig.getConfig().getFiles()) {
-                String path = file.getFilePath();
-                if (path != null && !path.isEmpty()) {
-                    String[] segments = path.split("[/\\\\]");
-                    for (String seg : segments) {
-                        if (!seg.isEmpty() && !seg.equals(".")) {
-                            keywords.add(seg);
-                        }
-                    }
-                }
+    private String treeCacheKey(List<MetaInfo> metaInfos) {
+        Map<String, Integer> counts = new TreeMap<>();
+        for (MetaInfo info : metaInfos) {
+            counts.merge(info.getGroupId() + "/" + info.getArtifactId() + "/" + info.getVersion(), 1, Integer::sum);
+        }
+        StringBuilder key = new StringBuilder();
+        counts.forEach((coordinate, count) -> {
+            if (key.length() > 0) {
+                key.append(',');
             }
+            key.append(coordinate).append('#').append(count).append('@').append(catalogStamp(coordinate));
+        });
+        return key.toString();
+    }
+
+    /**
+     * 获取模板组版本目录的修改时间和大小
+     *
+     * @param coordinate groupId/artifactId/version
+     * @return 修改时间:大小，meta.json 不存在或无法解析时为"0:0"
+     */
+    private String catalogStamp(String coordinate) {
+        String[] parts = coordinate.split("/", 3);
+        File metaFile = Paths.get(repositoryConfig.getRepositoryDir(), parts[0], parts[1], "meta.json").toFile();
+        try {
+            MetaCatalogUtils.Catalog catalog = MetaCatalogUtils.load(metaFile);
+            if (catalog != null) {
+                return catalog.lastModified() + ":" + catalog.size();
+            }
+        } catch (IOException ignored) {
+            // 按不存在处理
         }
-        return String.join(" ", keywords);
+        return "0:0";
+    }
+
+    /**
+     * 清除指定模板组相关的目录树缓存
+     *
+     * @param groupId    组ID
+     * @param artifactId 项目ID
+     */
+    private void evictTreeCache(String groupId, String artifactId) {
+        String prefix = groupId + "/" + artifactId + "/";
+        treeCache.keySet().removeIf(key -> key.startsWith(prefix) || key.contains("," + prefix));
+        trieCache.keySet().removeIf(key -> key.startsWith(prefix) || key.contains("," + prefix));
     }
 
     /**
      * 从远程仓库获取元配置
+     * <p>占用远程访问舱壁，时限内未获得许可时视为远程不可用
      *
      * @param templateKeyword 模板关键词
      * @return 远程模板配置
      */
     public RemoteMetaConfig fetchRemoteMetaConfig(String templateKeyword) {
         String remoteBaseUrl = repositoryConfig.getRemotePath();
-        return SDKUtils.fetchRemoteMetaConfig(remoteBaseUrl, templateKeyword);
+        return bulkheadConfig.getRemoteBulkhead().call(
+                () -> SDKUtils.fetchRemoteMetaConfig(remoteBaseUrl, templateKeyword), null);
     }
 
     /**
-     * 读取模板文件内容
-     * <p>从本地缓存目录读取模板文件的完整内容
+     * 读取模板文件内容(带缓存)
      *
      * @param info 模板元信息
      * @return 模板文件内容字符串
      * @throws IOException 文件不存在或读取失败
      */
     private String readTemplateContent(MetaInfo info) throws IOException {
+        return readCachedContent(info).content();
+    }
+
+    /**
+     * 读取模板文件内容及其SHA256(带缓存)
+     * <p>文件修改时间和大小与缓存一致时直接返回缓存内容，否则从本地缓存目录重新读取并计算SHA256
+     *
+     * @param info 模板元信息
+     * @return 缓存的模板内容
+     * @throws IOException 文件不存在或读取失败
+     */
+    private CachedContent readCachedContent(MetaInfo info) throws IOException {
+        Path templatePath = resolveTemplateFile(info);
+
+        // 校验文件是否存在
+        if (!Files.exists(templatePath)) {
+            throw templateMissing(info, templatePath);
+        }
+        BasicFileAttributes attributes = Files.readAttributes(templatePath, BasicFileAttributes.class);
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        long size = attributes.size();
+
+        String key = ManifestUtils.templatePath(info);
+        CachedContent cached = contentCache.get(key);
+        boolean hit = cached != null && cached.lastModified() == lastModified && cached.size() == size;
+        MetricsUtils.cacheAccess("template.content", hit);
+        if (hit) {
+            return cached;
+        }
+        // 先取属性再读内容，读取期间文件被修改时下次访问属性不一致，会重新读取
+        byte[] bytes = MetricsUtils.time(MetricsUtils.OPERATION, "template.read",
+                () -> readTemplateFile(info, templatePath));
+        CachedContent loaded = new CachedContent(lastModified, size, new String(bytes, StandardCharsets.UTF_8),
+                DigestUtil.sha256Hex(bytes));
+        contentCache.put(key, loaded);
+        if (cached != null && !cached.sha256().equals(loaded.sha256())) {
+            // 模板文件在本地被修改
+            eventPublisher.publishEvent(TemplateChangedEvent.file(key));
+        }
+        return loaded;
+    }
+
+    /**
+     * 计算模板文件内容的SHA256(带缓存)
+     *
+     * @param info 模板元信息
+     * @return 内容SHA256
+     * @throws IOException 文件不存在或读取失败
+     */
+    private String computeContentSha256(MetaInfo info) throws IOException {
+        Path templatePath = resolveTemplateFile(info);
+        if (!Files.exists(templatePath)) {
+            throw templateMissing(info, templatePath);
+        }
+        BasicFileAttributes attributes = Files.readAttributes(templatePath, BasicFileAttributes.class);
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        long size = attributes.size();
+
+        String key = ManifestUtils.templatePath(info);
+        CachedContent content = contentCache.get(key);
+        if (content != null && content.lastModified() == lastModified && content.size() == size) {
+            return content.sha256();
+        }
+        CachedHash cached = hashCache.get(key);
+        boolean hit = cached != null && cached.lastModified() == lastModified && cached.size() == size;
+        MetricsUtils.cacheAccess("template.sha256", hit);
+        if (hit) {
+            return cached.sha256();
+        }
+        String sha256;
+        try (InputStream in = Files.newInputStream(templatePath)) {
+            sha256 = DigestUtil.sha256Hex(in);
+        }
+        hashCache.put(key, new CachedHash(lastModified, size, sha256));
+        if (cached != null && !cached.sha256().equals(sha256)) {
+            // 模板文件在本地被修改
+            eventPublisher.publishEvent(TemplateChangedEvent.file(key));
+        }
+        return sha256;
+    }
+
+    /**
+     * 模板文件不存在
+     * <p>文件清单认为存在而实际读取时缺失，丢弃该版本的清单，之后的存在性检查和更新判断重新扫描目录
+     *
+     * @param info         模板元信息
+     * @param templatePath 模板文件绝对路径
+     * @return 文件不存在异常
+     */
+    private IOException templateMissing(MetaInfo info, Path templatePath) {
+        ManifestUtils.invalidate(Paths.get(repositoryConfig.getRepositoryDir(),
+                info.getGroupId(), info.getArtifactId(), info.getVersion()).toFile());
+        return new IOException("模板文件不存在: " + templatePath);
+    }
+
+    /**
+     * 拼装模板文件绝对路径
+     *
+     * @param info 模板元信息
+     * @return 模板文件绝对路径
+     */
+    private Path resolveTemplateFile(MetaInfo info) {
         String localCachePath = repositoryConfig.getRepositoryDir();
 
-        // 拼装模板文件绝对路径(本地缓存根目录 + groupId + artifactId + version + filePath + filename)
-        Path templatePath = Paths.get(localCachePath,
+        // 本地缓存根目录 + groupId + artifactId + version + filePath + filename
+        return Paths.get(localCachePath,
                 info.getGroupId(),
                 info.getArtifactId(),
                 info.getVersion(),
@@ -190,14 +733,119 @@ public class TemplateService {
                 info.getFilename())
                 .toAbsolutePath()
                 .normalize();
+    }
 
-        // 校验文件是否存在
+    /**
+     * 定位读取模板文件的一段
+     *
+     * @param info     模板元信息
+     * @param offset   起始字节偏移
+     * @param maxBytes 本段最大字节数，<=0表示读到文件末尾
+     * @return 模板文件分段
+     * @throws IOException 文件不存在或读取失败
+     */
+    private TemplateChunk readTemplateChunk(MetaInfo info, long offset, int maxBytes) throws IOException {
+        Path templatePath = resolveTemplateFile(info);
         if (!Files.exists(templatePath)) {
-            throw new IOException("模板文件不存在: " + templatePath);
+            throw templateMissing(info, templatePath);
+        }
+        var event = new TemplateReadEvent();
+        event.begin();
+        try (FileChannel channel = FileChannel.open(templatePath, StandardOpenOption.READ)) {
+            long lastModified = Files.getLastModifiedTime(templatePath).toMillis();
+            long size = channel.size();
+            long start = Math.min(Math.max(offset, 0), size);
+            long limit = maxBytes > 0 ? maxBytes : Integer.MAX_VALUE - 8;
+            ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(size - start, limit));
+            // 定位读取不改变通道位置，可能分多次读满
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, start + buffer.position()) < 0) {
+                    break;
+                }
+            }
+            byte[] bytes = buffer.array();
+            int read = buffer.position();
+
+            int from = 0;
+            while (from < read && isUtf8Continuation(bytes[from])) {
+                from++;
+            }
+            int to = start + read < size ? chunkEnd(bytes, from, read) : read;
+            String content = new String(bytes, from, to - from, StandardCharsets.UTF_8);
+            event.end();
+            if (event.shouldCommit()) {
+                event.groupId = info.getGroupId();
+                event.artifactId = info.getArtifactId();
+                event.version = info.getVersion();
+                event.path = ManifestUtils.relativePath(info.getFilePath(), info.getFilename());
+                event.bytes = to - from;
+                event.commit();
+            }
+            return new TemplateChunk(start + from, start + to, size, lastModified, content);
+        }
+    }
+
+    /**
+     * 计算分段结束位置
+     * <p>优先在最后一个换行符之后结束，没有换行符时在最后一个完整的UTF-8字符之后结束
+     *
+     * @param bytes 本段字节
+     * @param from  有效起始位置
+     * @param read  已读取的字节数
+     * @return 结束位置(不含)
+     */
+    static int chunkEnd(byte[] bytes, int from, int read) {
+        for (int i = read - 1; i >= from; i--) {
+            if (bytes[i] == '\n') {
+                return i + 1;
+            }
+        }
+        int lead = read - 1;
+        while (lead > from && isUtf8Continuation(bytes[lead])) {
+            lead--;
+        }
+        if (lead < from) {
+            return read;
         }
+        int b = bytes[lead] & 0xFF;
+        int charLength = b >= 0xF0 ? 4 : b >= 0xE0 ? 3 : b >= 0xC0 ? 2 : 1;
+        // 本段只有一个不完整的字符时照常返回，避免续读停滞
+        return lead + charLength > read && lead > from ? lead : read;
+    }
 
+    /**
+     * 是否为UTF-8多字节字符的后续字节
+     *
+     * @param b 字节
+     * @return 是否为后续字节(10xxxxxx)
+     */
+    private static boolean isUtf8Continuation(byte b) {
+        return (b & 0xC0) == 0x80;
+    }
+
+    /**
+     * 从本地缓存目录读取模板文件
+     *
+     * @param info         模板元信息
+     * @param templatePath 模板文件绝对路径
+     * @return 模板文件内容字节
+     * @throws IOException 读取失败
+     */
+    private byte[] readTemplateFile(MetaInfo info, Path templatePath) throws IOException {
         // 读取文件内容(一次性读入,文件通常几十KB以内,性能足够)
-        return Files.readString(templatePath, StandardCharsets.UTF_8);
+        var event = new TemplateReadEvent();
+        event.begin();
+        byte[] content = Files.readAllBytes(templatePath);
+        event.end();
+        if (event.shouldCommit()) {
+            event.groupId = info.getGroupId();
+            event.artifactId = info.getArtifactId();
+            event.version = info.getVersion();
+            event.path = ManifestUtils.relativePath(info.getFilePath(), info.getFilename());
+            event.bytes = content.length;
+            event.commit();
+        }
+        return content;
     }
 
     /**
@@ -225,37 +873,69 @@ public class TemplateService {
      * 构建按groupId聚合的结果
      * <p>展示该命名空间下所有模板的目录树和聚合描述
      *
-     * @param keyword 搜索关键词
-     * @param results 同一groupId的所有模板搜索结果
+     * @param keyword    搜索关键词
+     * @param results    同一groupId的所有模板搜索结果
+     * @param expandPath 需要展开的子目录路径，可为null
+     * @param budget     目录树输出预算
      * @return 聚合后的目录树字符串
      */
-    public String buildGroupAggregatedResult(String keyword, List<LuceneIndexService.SearchResult> results) {
+    public String buildGroupAggregatedResult(String keyword, List<LuceneIndexService.SearchResult> results,
+            String expandPath, TreeBudget budget) {
         String groupId = results.get(0).groupId();
-        List<MetaInfo> allMetaInfos = new ArrayList<>();
 
+        // 各模板组并行解析，整体受超时时间和请求剩余时限约束，超时未完成的模板组不计入结果；
+        // 子任务继承请求时限，其中的下载和检索同样能感知时限耗尽和取消
+        List<Callable<List<MetaInfo>>> tasks = new ArrayList<>(results.size());
         for (LuceneIndexService.SearchResult result : results) {
-            List<MetaInfo> metaInfos = searchLocalRepository(result.groupId(), result.artifactId());
-            allMetaInfos.addAll(metaInfos);
+            tasks.add(DeadlineUtils.propagate(
+                    () -> searchLocalRepository(result.groupId(), result.artifactId(), result.version())));
+        }
+        List<MetaInfo> allMetaInfos = new ArrayList<>();
+        int timedOut = 0;
+        try {
+            long timeoutMs = Math.min(executorConfig.getFanOutTimeoutMs(), DeadlineUtils.remainingMillis());
+            List<Future<List<MetaInfo>>> futures = templateTaskExecutor.invokeAll(tasks, timeoutMs,
+                    TimeUnit.MILLISECONDS);
+            for (int i = 0; i < futures.size(); i++) {
+                Future<List<MetaInfo>> future = futures.get(i);
+                if (future.isCancelled()) {
+                    timedOut++;
+                    continue;
+                }
+                try {
+                    allMetaInfos.addAll(future.get());
+                } catch (ExecutionException e) {
+                    // 单个模板组解析失败不影响其他模板组，失败原因随结果返回
+                    LuceneIndexService.SearchResult failed = results.get(i);
+                    DeadlineUtils.degrade("模板组 " + failed.groupId() + "/" + failed.artifactId() + " 加载失败: "
+                            + e.getCause().getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            timedOut = results.size();
         }
 
         if (allMetaInfos.isEmpty()) {
             return "本地仓库模板文件不完整,请检查模板目录";
         }
 
-        TreeNode treeNode = PromptUtils.buildTree(allMetaInfos);
-        String treeStr = PromptUtils.buildTreeStr(treeNode, "").trim();
+        String treeStr = buildTreeStr(allMetaInfos, expandPath, budget);
 
         StringBuilder artifactList = new StringBuilder();
         for (LuceneIndexService.SearchResult r : results) {
             artifactList.append("  - ").append(r.artifactId()).append("\n");
         }
+        if (timedOut > 0) {
+            artifactList.append("(").append(timedOut).append(" 个模板组加载超时，目录树可能不完整)\n");
+        }
 
         String description = promptService.buildGroupAggregated(
                 groupId,
                 String.valueOf(results.size()),
                 artifactList.toString());
 
-        return promptService.buildSearchResult(groupId, treeStr, description);
+        return promptService.buildSearchResult(groupId, "", treeStr, description);
     }
 
     /**
@@ -270,10 +950,11 @@ public class TemplateService {
         StringBuilder resultList = new StringBuilder();
         for (int i = 0; i < results.size(); i++) {
             LuceneIndexService.SearchResult result = results.get(i);
-            resultList.append(String.format("%d. %s/%s - %s\n",
+            resultList.append(String.format("%d. %s/%s (%s) - %s\n",
                     i + 1,
                     result.groupId(),
                     result.artifactId(),
+                    result.version(),
                     result.description() != null && !result.description().isEmpty()
                             ? result.description().split("\n")[0]
                             : result.artifactId()));
@@ -286,4 +967,25 @@ public class TemplateService {
                 resultList.toString(),
                 first.groupId() + "/" + first.artifactId());
     }
+
+    /**
+     * 缓存的模板内容
+     *
+     * @param lastModified 读取时的文件修改时间(毫秒)
+     * @param size         读取时的文件大小(字节)
+     * @param content      文件内容
+     * @param sha256       文件内容的SHA256
+     */
+    private record CachedContent(long lastModified, long size, String content, String sha256) {
+    }
+
+    /**
+     * 缓存的模板内容哈希
+     *
+     * @param lastModified 计算时的文件修改时间(毫秒)
+     * @param size         计算时的文件大小(字节)
+     * @param sha256       文件内容的SHA256
+     */
+    private record CachedHash(long lastModified, long size, String sha256) {
+    }
 }
@@ -0,0 +1,196 @@
+package top.codestyle.mcp.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 请求时限工具类
+ * <p>工具调用入口创建时限并绑定到当前线程，远程检索、下载、索引检索等环节据此收紧各自的超时，
+ * 时限耗尽或被取消时跳过剩余步骤并记录降级说明，由入口将已得到的部分结果连同说明一并返回。
+ * 嵌套创建的时限不会晚于外层时限，外层取消时内层同时失效；提交到线程池的任务需通过
+ * {@link #propagate(Callable)} 显式传递。
+ *
+ * @author movclantian
+ * @since 2025-12-26
+ */
+public class DeadlineUtils {
+
+    /**
+     * 当前线程绑定的时限
+     */
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    /**
+     * 请求时限
+     * <p>可跨线程共享，取消标记和降级说明均为线程安全
+     */
+    public static final class Deadline {
+
+        /**
+         * 到期时刻({@link System#nanoTime()})，Long.MAX_VALUE表示不限制
+         */
+        private final long expiresAt;
+
+        /**
+         * 外层时限，可为null
+         */
+        private final Deadline parent;
+
+        /**
+         * 降级说明
+         */
+        private final List<String> degradations = new CopyOnWriteArrayList<>();
+
+        private volatile boolean cancelled;
+
+        private Deadline(long expiresAt, Deadline parent) {
+            this.expiresAt = expiresAt;
+            this.parent = parent;
+        }
+
+        /**
+         * 是否已到期或被取消
+         */
+        public boolean isExpired() {
+            return cancelled
+                    || (expiresAt != Long.MAX_VALUE && System.nanoTime() - expiresAt >= 0)
+                    || (parent != null && parent.isExpired());
+        }
+
+        /**
+         * 剩余时间(毫秒)，已到期返回0，不限制返回Long.MAX_VALUE
+         */
+        public long remainingMillis() {
+            if (isExpired()) {
+                return 0;
+            }
+            if (expiresAt == Long.MAX_VALUE) {
+                return Long.MAX_VALUE;
+            }
+            return Math.max(0, TimeUnit.NANOSECONDS.toMillis(expiresAt - System.nanoTime()));
+        }
+
+        /**
+         * 取消请求，正在执行的步骤在下一个检查点退出
+         */
+        public void cancel() {
+            cancelled = true;
+        }
+
+        /**
+         * 是否被取消(区别于自然到期)
+         */
+        public boolean isCancelled() {
+            return cancelled || parent != null && parent.isCancelled();
+        }
+
+        /**
+         * 获取降级说明
+         */
+        public List<String> getDegradations() {
+            return new ArrayList<>(degradations);
+        }
+    }
+
+    /**
+     * 创建时限，当前线程已有时限时作为其内层
+     *
+     * @param timeoutMs 时限(毫秒)，<=0表示仅受外层时限约束
+     * @return 时限
+     */
+    public static Deadline create(long timeoutMs) {
+        Deadline parent = CURRENT.get();
+        long expiresAt = timeoutMs > 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs) : Long.MAX_VALUE;
+        if (parent != null && parent.expiresAt - expiresAt < 0) {
+            expiresAt = parent.expiresAt;
+        }
+        return new Deadline(expiresAt, parent);
+    }
+
+    /**
+     * 在指定时限内执行任务
+     *
+     * @param deadline 时限
+     * @param task     任务
+     * @return 任务结果
+     * @throws E 任务异常
+     */
+    public static <T, E extends Exception> T runWith(Deadline deadline, MetricsUtils.Task<T, E> task) throws E {
+        Deadline previous = CURRENT.get();
+        CURRENT.set(deadline);
+        try {
+            return task.call();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    /**
+     * 包装任务，使其在执行线程上继承当前线程的时限
+     *
+     * @param task 任务
+     * @return 包装后的任务，当前线程无时限时原样返回
+     */
+    public static <T> Callable<T> propagate(Callable<T> task) {
+        Deadline deadline = CURRENT.get();
+        if (deadline == null) {
+            return task;
+        }
+        return () -> runWith(deadline, task::call);
+    }
+
+    /**
+     * 获取当前线程的时限
+     *
+     * @return 时限，未设置返回null
+     */
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 当前时限是否已到期或被取消，未设置时限时始终为false
+     */
+    public static boolean isExpired() {
+        Deadline deadline = CURRENT.get();
+        return deadline != null && deadline.isExpired();
+    }
+
+    /**
+     * 当前时限的剩余时间(毫秒)，未设置时限时返回Long.MAX_VALUE
+     */
+    public static long remainingMillis() {
+        Deadline deadline = CURRENT.get();
+        return deadline != null ? deadline.remainingMillis() : Long.MAX_VALUE;
+    }
+
+    /**
+     * 按剩余时间收紧超时
+     *
+     * @param timeoutMs 原超时(毫秒)
+     * @return 原超时与剩余时间的较小值，至少为1
+     */
+    public static int timeout(int timeoutMs) {
+        return (int) Math.max(1, Math.min(timeoutMs, remainingMillis()));
+    }
+
+    /**
+     * 记录一条降级说明，未设置时限时忽略
+     *
+     * @param message 说明
+     */
+    public static void degrade(String message) {
+        Deadline deadline = CURRENT.get();
+        if (deadline != null && !deadline.degradations.contains(message)) {
+            deadline.degradations.add(message);
+            MetricsUtils.error(MetricsUtils.OPERATION, "deadline.degraded");
+        }
+    }
+}
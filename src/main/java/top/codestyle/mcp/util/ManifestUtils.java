@@ -0,0 +1,301 @@
+package top.codestyle.mcp.util;
+
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.util.StrUtil;
+import top.codestyle.mcp.model.sdk.MetaInfo;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 模板版本文件清单工具类
+ * <p>每个版本目录对应一份文件清单，记录该版本下存在的所有文件以及扫描时每个目录的修改时间。
+ * 清单保存在仓库根目录的 .manifest 目录下(.manifest/groupId/artifactId/version.manifest)，不写入模板目录。
+ * 清单在下载解压时写入，以所有目录的修改时间校验有效性：任意层级增删文件都会更新其所在目录的修改时间，
+ * 使清单失效。文件存在性检查直接从内存清单中回答，每次失效只需遍历一次目录，而不是每次请求逐个stat文件。
+ * <p>清单中不存在的文件会再以文件系统确认，读取清单中存在的文件失败时调用方应调用{@link #invalidate(File)}，
+ * 两个方向的偏差都会使清单重建。
+ *
+ * @author movclantian
+ * @since 2025-12-22
+ */
+public class ManifestUtils {
+
+    /**
+     * 清单目录名(位于仓库根目录下)
+     */
+    public static final String MANIFEST_DIR = ".manifest";
+
+    /**
+     * 清单文件后缀
+     */
+    private static final String MANIFEST_SUFFIX = ".manifest";
+
+    /**
+     * 清单中目录行的前缀，格式: d 修改时间 相对路径
+     */
+    private static final String DIR_LINE = "d ";
+
+    /**
+     * 清单中文件行的前缀，格式: f 相对路径
+     */
+    private static final String FILE_LINE = "f ";
+
+    /**
+     * 内存清单的校验间隔(毫秒)，间隔内直接使用内存清单
+     */
+    private static final long VALIDATE_INTERVAL_MS = 1000;
+
+    /**
+     * 内存清单缓存，key为版本目录绝对路径
+     */
+    private static final Map<String, Manifest> CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * 判断版本目录下的文件是否存在
+     *
+     * @param versionDir   版本目录(groupId/artifactId/version)
+     * @param relativePath 相对版本目录的文件路径，支持"/"和"\"分隔
+     * @return 文件是否存在
+     */
+    public static boolean exists(File versionDir, String relativePath) {
+        if (!versionDir.isDirectory()) {
+            CACHE.remove(versionDir.getAbsolutePath());
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        Manifest manifest = CACHE.compute(versionDir.getAbsolutePath(), (key, cached) -> {
+            if (cached != null && now - cached.checkedAt() < VALIDATE_INTERVAL_MS) {
+                MetricsUtils.cacheAccess("manifest", true);
+                return cached;
+            }
+            boolean valid = cached != null && cached.matches(versionDir);
+            MetricsUtils.cacheAccess("manifest", valid);
+            return valid ? cached.checked(now) : load(versionDir, now);
+        });
+        String path = normalize(relativePath);
+        if (manifest.files().contains(path)) {
+            return true;
+        }
+        // 清单中不存在时以文件系统为准，发现遗漏则丢弃清单
+        if (new File(versionDir, path).isFile()) {
+            invalidate(versionDir);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 拼接相对路径
+     *
+     * @param filePath 文件所在目录(如 /src/main/java)
+     * @param filename 文件名
+     * @return 相对版本目录的文件路径
+     */
+    public static String relativePath(String filePath, String filename) {
+        String dir = normalize(filePath);
+        return dir.isEmpty() ? normalize(filename) : dir + "/" + normalize(filename);
+    }
+
+    /**
+     * 拼接完整模板文件路径
+     *
+     * @param info 模板元信息
+     * @return 完整模板文件路径(groupId/artifactId/version/相对路径)
+     */
+    public static String templatePath(MetaInfo info) {
+        return String.join("/", info.getGroupId(), info.getArtifactId(), info.getVersion(),
+                relativePath(info.getFilePath(), info.getFilename()));
+    }
+
+    /**
+     * 扫描版本目录并写入清单文件
+     * <p>在模板下载解压完成后调用
+     *
+     * @param versionDir 版本目录
+     */
+    public static void writeManifest(File versionDir) {
+        if (!versionDir.isDirectory()) {
+            invalidate(versionDir);
+            return;
+        }
+        CACHE.put(versionDir.getAbsolutePath(), scanAndWrite(versionDir, System.currentTimeMillis()));
+    }
+
+    /**
+     * 使版本目录的清单失效(内存和磁盘)
+     *
+     * @param versionDir 版本目录
+     */
+    public static void invalidate(File versionDir) {
+        CACHE.remove(versionDir.getAbsolutePath());
+        FileUtil.del(manifestFile(versionDir));
+    }
+
+    /**
+     * 加载清单：磁盘清单有效时直接读取，否则重新扫描目录
+     *
+     * @param versionDir 版本目录
+     * @param now        当前时间
+     * @return 文件清单
+     */
+    private static Manifest load(File versionDir, long now) {
+        File file = manifestFile(versionDir);
+        if (file.isFile()) {
+            try {
+                Manifest manifest = parse(FileUtil.readLines(file, StandardCharsets.UTF_8), now);
+                if (manifest != null && manifest.matches(versionDir)) {
+                    return manifest;
+                }
+            } catch (Exception ignored) {
+                // 清单损坏时重新扫描
+            }
+        }
+        return scanAndWrite(versionDir, now);
+    }
+
+    /**
+     * 解析清单文件内容
+     *
+     * @param lines 清单文件各行
+     * @param now   当前时间
+     * @return 文件清单，不含目录记录时返回null
+     */
+    private static Manifest parse(List<String> lines, long now) {
+        Map<String, Long> dirs = new HashMap<>();
+        Set<String> files = new HashSet<>();
+        for (String line : lines) {
+            if (line.startsWith(DIR_LINE)) {
+                int space = line.indexOf(' ', DIR_LINE.length());
+                if (space < 0) {
+                    return null;
+                }
+                dirs.put(line.substring(space + 1), Long.parseLong(line.substring(DIR_LINE.length(), space)));
+            } else if (line.startsWith(FILE_LINE)) {
+                files.add(line.substring(FILE_LINE.length()));
+            }
+        }
+        return dirs.isEmpty() ? null : new Manifest(dirs, files, now);
+    }
+
+    /**
+     * 遍历版本目录生成清单并写入磁盘
+     * <p>先记录目录修改时间再列出子项，遍历期间发生的变化会在下次校验时使清单失效
+     *
+     * @param versionDir 版本目录
+     * @param now        当前时间
+     * @return 文件清单
+     */
+    private static Manifest scanAndWrite(File versionDir, long now) {
+        Map<String, Long> dirs = new HashMap<>();
+        Set<String> files = new HashSet<>();
+        scan(versionDir, "", dirs, files);
+
+        List<String> lines = new ArrayList<>(dirs.size() + files.size());
+        dirs.forEach((dir, mtime) -> lines.add(DIR_LINE + mtime + " " + dir));
+        files.forEach(file -> lines.add(FILE_LINE + file));
+        try {
+            FileUtil.writeLines(lines, manifestFile(versionDir), StandardCharsets.UTF_8);
+        } catch (Exception ignored) {
+            // 清单写入失败不影响内存清单使用
+        }
+        return new Manifest(dirs, files, now);
+    }
+
+    /**
+     * 递归扫描目录
+     *
+     * @param dir      当前目录
+     * @param relative 当前目录相对版本目录的路径
+     * @param dirs     目录相对路径 -> 修改时间
+     * @param files    文件相对路径集合
+     */
+    private static void scan(File dir, String relative, Map<String, Long> dirs, Set<String> files) {
+        dirs.put(relative, dir.lastModified());
+        File[] children = dir.listFiles();
+        if (children == null) {
+            return;
+        }
+        for (File child : children) {
+            String path = relative.isEmpty() ? child.getName() : relative + "/" + child.getName();
+            if (child.isDirectory()) {
+                scan(child, path, dirs, files);
+            } else {
+                files.add(path);
+            }
+        }
+    }
+
+    /**
+     * 版本目录对应的清单文件
+     *
+     * @param versionDir 版本目录
+     * @return 清单文件(仓库根目录/.manifest/groupId/artifactId/version.manifest)
+     */
+    private static File manifestFile(File versionDir) {
+        File artifactDir = versionDir.getAbsoluteFile().getParentFile();
+        File groupDir = artifactDir.getParentFile();
+        return FileUtil.file(groupDir.getParentFile(), MANIFEST_DIR, groupDir.getName(), artifactDir.getName(),
+                versionDir.getName() + MANIFEST_SUFFIX);
+    }
+
+    /**
+     * 规范化相对路径：统一使用"/"分隔，去除重复和首尾分隔符
+     *
+     * @param path 路径
+     * @return 规范化后的路径
+     */
+    private static String normalize(String path) {
+        if (StrUtil.isEmpty(path)) {
+            return "";
+        }
+        String normalized = path.replace('\\', '/');
+        while (normalized.contains("//")) {
+            normalized = normalized.replace("//", "/");
+        }
+        return StrUtil.strip(normalized, "/");
+    }
+
+    /**
+     * 内存清单
+     *
+     * @param dirs      目录相对路径 -> 扫描时的修改时间
+     * @param files     文件相对路径集合
+     * @param checkedAt 最近一次校验的时间
+     */
+    private record Manifest(Map<String, Long> dirs, Set<String> files, long checkedAt) {
+
+        /**
+         * 校验所有目录的修改时间是否与扫描时一致
+         *
+         * @param versionDir 版本目录
+         * @return 是否一致
+         */
+        boolean matches(File versionDir) {
+            for (Map.Entry<String, Long> entry : dirs.entrySet()) {
+                File dir = entry.getKey().isEmpty() ? versionDir : new File(versionDir, entry.getKey());
+                if (dir.lastModified() != entry.getValue()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * 更新校验时间
+         *
+         * @param now 当前时间
+         * @return 新的内存清单
+         */
+        Manifest checked(long now) {
+            return new Manifest(dirs, files, now);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package top.codestyle.mcp.util;
+
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.json.JSONUtil;
+import top.codestyle.mcp.model.meta.LocalMetaConfig;
+import top.codestyle.mcp.model.sdk.MetaInfo;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 模板组版本目录工具类
+ * <p>将 meta.json 解析为按版本分组的模板元信息并缓存在内存中，以文件修改时间和大小校验有效性，
+ * 按版本查找文件、列出全部版本和按路径定位模板都直接从内存目录中回答，meta.json 未变化时不再重复解析。
+ * configs 中最后一个版本为最新版本。
+ * <p>注意: 目录中的模板元信息在多个请求间共享，调用方不得修改。
+ *
+ * @author movclantian
+ * @since 2025-12-26
+ */
+public class MetaCatalogUtils {
+
+    /**
+     * 内存目录缓存，key为 meta.json 绝对路径
+     */
+    private static final Map<String, Catalog> CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * 加载模板组版本目录
+     *
+     * @param metaFile meta.json文件
+     * @return 版本目录，文件不存在时返回null
+     * @throws IOException 文件读取或解析失败
+     */
+    public static Catalog load(File metaFile) throws IOException {
+        long lastModified = metaFile.lastModified();
+        if (lastModified == 0L) {
+            CACHE.remove(metaFile.getAbsolutePath());
+            return null;
+        }
+        long size = metaFile.length();
+        try {
+            return CACHE.compute(metaFile.getAbsolutePath(), (key, cached) -> {
+                boolean valid = cached != null && cached.lastModified() == lastModified && cached.size() == size;
+                MetricsUtils.cacheAccess("meta.catalog", valid);
+                return valid ? cached : parse(metaFile, lastModified, size);
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * 使 meta.json 的内存目录失效
+     * <p>在写入 meta.json 后调用，避免同一毫秒内写入且大小不变时读到旧目录
+     *
+     * @param metaFile meta.json文件
+     */
+    public static void invalidate(File metaFile) {
+        CACHE.remove(metaFile.getAbsolutePath());
+    }
+
+    /**
+     * 解析 meta.json
+     *
+     * @param metaFile     meta.json文件
+     * @param lastModified 文件修改时间
+     * @param size         文件大小
+     * @return 版本目录
+     */
+    private static Catalog parse(File metaFile, long lastModified, long size) {
+        LocalMetaConfig config;
+        try {
+            config = JSONUtil.toBean(FileUtil.readUtf8String(metaFile), LocalMetaConfig.class);
+        } catch (Exception e) {
+            throw new UncheckedIOException(new IOException("meta.json 解析失败: " + metaFile, e));
+        }
+        Map<String, List<MetaInfo>> versions = new LinkedHashMap<>();
+        String latest = null;
+        if (config.getConfigs() != null) {
+            for (LocalMetaConfig.Config versionConfig : config.getConfigs()) {
+                if (versionConfig == null || versionConfig.getVersion() == null) {
+                    continue;
+                }
+                List<MetaInfo> files = new ArrayList<>();
+                if (versionConfig.getFiles() != null) {
+                    for (LocalMetaConfig.FileInfo fileInfo : versionConfig.getFiles()) {
+                        files.add(MetaInfoConvertUtil.toMetaInfo(config.getGroupId(), config.getArtifactId(),
+                                versionConfig.getVersion(), fileInfo));
+                    }
+                }
+                // 同一版本重复出现时以后出现的为准，并移到末尾
+                versions.remove(versionConfig.getVersion());
+                versions.put(versionConfig.getVersion(), List.copyOf(files));
+                latest = versionConfig.getVersion();
+            }
+        }
+        return new Catalog(lastModified, size, config.getGroupId(), config.getArtifactId(),
+                Collections.unmodifiableMap(versions), latest);
+    }
+
+    /**
+     * 模板组版本目录
+     *
+     * @param lastModified  解析时的 meta.json 修改时间
+     * @param size          解析时的 meta.json 大小
+     * @param groupId       组ID
+     * @param artifactId    项目ID
+     * @param versions      版本号 -> 该版本的模板元信息列表，按 meta.json 中的顺序排列
+     * @param latestVersion 最新版本号，没有版本时为null
+     */
+    public record Catalog(long lastModified, long size, String groupId, String artifactId,
+                          Map<String, List<MetaInfo>> versions, String latestVersion) {
+
+        /**
+         * 获取指定版本的模板元信息
+         *
+         * @param version 版本号，为null时取最新版本
+         * @return 模板元信息列表，版本不存在时返回空列表
+         */
+        public List<MetaInfo> files(String version) {
+            String key = version != null ? version : latestVersion;
+            return key == null ? List.of() : versions.getOrDefault(key, List.of());
+        }
+
+        /**
+         * 获取全部版本号
+         *
+         * @return 版本号列表，按 meta.json 中的顺序排列，最后一个为最新版本
+         */
+        public List<String> versionList() {
+            return List.copyOf(versions.keySet());
+        }
+    }
+}
@@ -75,21 +75,7 @@ public class MetaInfoConvertUtil {
 
                 if (config.getFiles() != null) {
                     for (LocalMetaConfig.FileInfo fileInfo : config.getFiles()) {
-                        MetaInfo metaInfo = new MetaInfo();
-                        metaInfo.setGroupId(groupId);
-                        metaInfo.setArtifactId(artifactId);
-                        metaInfo.setVersion(version);
-                        metaInfo.setFilename(fileInfo.getFilename());
-                        metaInfo.setFilePath(fileInfo.getFilePath());
-                        metaInfo.setDescription(fileInfo.getDescription());
-                        metaInfo.setSha256(fileInfo.getSha256());
-                        metaInfo.setInputVariables(fileInfo.getInputVariables());
-
-                        String fullPath = groupId + File.separator + artifactId + File.separator + version +
-                                fileInfo.getFilePath() + File.separator + fileInfo.getFilename();
-                        metaInfo.setPath(fullPath);
-
-                        result.add(metaInfo);
+                        result.add(toMetaInfo(groupId, artifactId, version, fileInfo));
                     }
                 }
             }
@@ -125,27 +111,40 @@ public class MetaInfoConvertUtil {
         String version = latest.getVersion();
         if (latest.getFiles() != null) {
             for (LocalMetaConfig.FileInfo fileInfo : latest.getFiles()) {
-                MetaInfo metaInfo = new MetaInfo();
-                metaInfo.setGroupId(groupId);
-                metaInfo.setArtifactId(artifactId);
-                metaInfo.setVersion(version);
-                metaInfo.setFilename(fileInfo.getFilename());
-                metaInfo.setFilePath(fileInfo.getFilePath());
-                metaInfo.setDescription(fileInfo.getDescription());
-                metaInfo.setSha256(fileInfo.getSha256());
-                metaInfo.setInputVariables(fileInfo.getInputVariables());
-
-                String fullPath = groupId + File.separator + artifactId + File.separator + version +
-                        fileInfo.getFilePath() + File.separator + fileInfo.getFilename();
-                metaInfo.setPath(fullPath);
-
-                result.add(metaInfo);
+                result.add(toMetaInfo(groupId, artifactId, version, fileInfo));
             }
         }
 
         return result;
     }
 
+    /**
+     * 转换 meta.json 中的文件信息为模板元信息
+     *
+     * @param groupId    组ID
+     * @param artifactId 项目ID
+     * @param version    版本号
+     * @param fileInfo   文件信息
+     * @return 模板元信息
+     */
+    public static MetaInfo toMetaInfo(String groupId, String artifactId, String version,
+                                      LocalMetaConfig.FileInfo fileInfo) {
+        MetaInfo metaInfo = new MetaInfo();
+        metaInfo.setGroupId(groupId);
+        metaInfo.setArtifactId(artifactId);
+        metaInfo.setVersion(version);
+        metaInfo.setFilename(fileInfo.getFilename());
+        metaInfo.setFilePath(fileInfo.getFilePath());
+        metaInfo.setDescription(fileInfo.getDescription());
+        metaInfo.setSha256(fileInfo.getSha256());
+        metaInfo.setInputVariables(fileInfo.getInputVariables());
+
+        String fullPath = groupId + File.separator + artifactId + File.separator + version +
+                fileInfo.getFilePath() + File.separator + fileInfo.getFilename();
+        metaInfo.setPath(fullPath);
+        return metaInfo;
+    }
+
     /**
      * 转换远程配置为本地配置
      *
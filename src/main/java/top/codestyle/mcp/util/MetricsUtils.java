@@ -0,0 +1,127 @@
+package top.codestyle.mcp.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 指标采集工具类
+ * <p>统一记录工具调用、索引、远程请求、模板读取等操作的耗时分布、调用次数、失败次数和缓存命中情况。
+ * 指标注册到 {@link Metrics#globalRegistry}，静态工具类和Spring Bean共用同一份数据，
+ * 未注册具体MeterRegistry时(如单元测试)所有记录均为空操作。
+ *
+ * @author movclantian
+ * @since 2025-12-23
+ */
+public class MetricsUtils {
+
+    /**
+     * MCP工具调用耗时
+     */
+    public static final String TOOL = "codestyle.tool";
+
+    /**
+     * 内部操作耗时(索引、远程请求、模板读取等)
+     */
+    public static final String OPERATION = "codestyle.operation";
+
+    /**
+     * 缓存访问次数
+     */
+    public static final String CACHE = "codestyle.cache";
+
+    /**
+     * 失败次数指标后缀
+     */
+    public static final String ERRORS_SUFFIX = ".errors";
+
+    /**
+     * 耗时分布需要发布的百分位
+     */
+    private static final double[] PERCENTILES = {0.5, 0.95, 0.99};
+
+    /**
+     * 可抛出受检异常的任务
+     *
+     * @param <T> 返回值类型
+     * @param <E> 异常类型
+     */
+    @FunctionalInterface
+    public interface Task<T, E extends Exception> {
+        T call() throws E;
+    }
+
+    /**
+     * 执行任务并记录耗时，抛出异常时同时记录一次失败
+     *
+     * @param metric 指标名，如 {@link #TOOL}、{@link #OPERATION}
+     * @param name   操作名
+     * @param task   任务
+     * @return 任务结果
+     * @throws E 任务异常
+     */
+    public static <T, E extends Exception> T time(String metric, String name, Task<T, E> task) throws E {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            T result = task.call();
+            success = true;
+            return result;
+        } finally {
+            record(metric, name, start, success);
+        }
+    }
+
+    /**
+     * 记录一次操作耗时
+     * <p>用于以返回值而非异常表示失败的操作
+     *
+     * @param metric     指标名
+     * @param name       操作名
+     * @param startNanos 开始时间({@link System#nanoTime()})
+     * @param success    是否成功
+     */
+    public static void record(String metric, String name, long startNanos, boolean success) {
+        timer(metric, name).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        if (!success) {
+            error(metric, name);
+        }
+    }
+
+    /**
+     * 记录一次失败(不计耗时)
+     *
+     * @param metric 指标名
+     * @param name   操作名
+     */
+    public static void error(String metric, String name) {
+        Counter.builder(metric + ERRORS_SUFFIX).tag("name", name).register(Metrics.globalRegistry).increment();
+    }
+
+    /**
+     * 记录一次缓存访问
+     *
+     * @param cache 缓存名
+     * @param hit   是否命中
+     */
+    public static void cacheAccess(String cache, boolean hit) {
+        Counter.builder(CACHE).tag("cache", cache).tag("result", hit ? "hit" : "miss")
+                .register(Metrics.globalRegistry).increment();
+    }
+
+    /**
+     * 获取或注册耗时分布
+     *
+     * @param metric 指标名
+     * @param name   操作名
+     * @return 计时器
+     */
+    private static Timer timer(String metric, String name) {
+        return Timer.builder(metric)
+                .tag("name", name)
+                .publishPercentiles(PERCENTILES)
+                .register(Metrics.globalRegistry);
+    }
+}
@@ -3,9 +3,13 @@ package top.codestyle.mcp.util;
 import top.codestyle.mcp.model.meta.LocalMetaInfo;
 import top.codestyle.mcp.model.sdk.MetaInfo;
 import top.codestyle.mcp.model.sdk.MetaVariable;
-import top.codestyle.mcp.model.tree.TreeNode;
+import top.codestyle.mcp.model.tree.PathTrie;
+import top.codestyle.mcp.model.tree.TreeBudget;
 
-import java.util.HashMap;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -23,82 +27,93 @@ public class PromptUtils {
      * 根据模板信息列表构建目录树
      *
      * @param list 模板元信息列表
-     * @return 目录树根节点
+     * @return 紧凑路径前缀树
      */
-    public static TreeNode buildTree(List<MetaInfo> list) {
-        TreeNode root = new TreeNode("");
-        Map<String, TreeNode> cache = new HashMap<>();
-        cache.put("", root);
-
-        for (MetaInfo t : list) {
-            // 构建完整路径(格式: groupId/artifactId/version/filePath)
-            String fullPath = t.getGroupId() + "/" + t.getArtifactId() + "/" +
-                    t.getVersion() + t.getFilePath();
-
-            // 确保完整路径目录链已存在
-            mkdir(fullPath, cache);
-
-            // 挂载文件到目录节点
-            if (t.getFilename() != null && !t.getFilename().endsWith("/")) {
-                TreeNode dir = cache.get(fullPath);
-                if (dir != null) {
-                    String fullFilePath = fullPath + "/" + t.getFilename();
-                    dir.getFiles().add(fullFilePath);
-                }
-            }
-        }
-        return root;
+    public static PathTrie buildTree(List<MetaInfo> list) {
+        return PathTrie.build(list);
     }
 
     /**
-     * 递归创建目录节点链
+     * 根据模板信息列表和文件内容SHA256构建目录树
      *
-     * @param path  完整路径
-     * @param cache 节点缓存（路径->节点映射）
+     * @param list    模板元信息列表
+     * @param sha256s 与list一一对应的文件内容SHA256，元素为null时不显示哈希
+     * @return 紧凑路径前缀树
      */
-    private static void mkdir(String path, Map<String, TreeNode> cache) {
-        if (cache.containsKey(path))
-            return;
+    public static PathTrie buildTree(List<MetaInfo> list, List<String> sha256s) {
+        return PathTrie.build(list, sha256s);
+    }
 
-        String[] parts = path.split("/");
-        StringBuilder sb = new StringBuilder();
-        TreeNode parent = cache.get("");
+    /**
+     * 构建目录树的字符串表示
+     * <p>单次遍历写入同一个StringBuilder，结果已去除首尾空白
+     *
+     * @param tree 目录树
+     * @return 格式化的目录树字符串
+     */
+    public static String buildTreeStr(PathTrie tree) {
+        return buildTreeStr(tree, null, TreeBudget.UNLIMITED);
+    }
 
-        for (String p : parts) {
-            if (p.isEmpty())
-                continue;
-            if (sb.length() > 0)
-                sb.append("/");
-            sb.append(p);
-            String curPath = sb.toString();
-            TreeNode node = cache.get(curPath);
-            if (node == null) {
-                node = new TreeNode(p);
-                parent.getChildren().put(p, node);
-                cache.put(curPath, node);
-            }
-            parent = node;
+    /**
+     * 按输出预算构建目录树的字符串表示
+     * <p>超出深度的子树折叠为统计信息，超出条目或字符上限时截断并提示剩余数量
+     *
+     * @param tree       目录树
+     * @param expandPath 需要展开的子目录路径，为空时从根目录开始
+     * @param budget     输出预算
+     * @return 格式化的目录树字符串
+     */
+    public static String buildTreeStr(PathTrie tree, String expandPath, TreeBudget budget) {
+        StringBuilder sb = new StringBuilder(256);
+        try {
+            renderTree(tree, expandPath, budget, sb);
+        } catch (IOException e) {
+            // StringBuilder不会抛出IOException
+            throw new UncheckedIOException(e);
         }
+        return sb.toString().trim();
     }
 
     /**
-     * 递归构建目录树的字符串表示
+     * 将目录树流式写入输出目标
+     * <p>深度优先遍历一次，按层级写入缩进，不产生中间字符串
      *
-     * @param node   当前节点
-     * @param indent 当前缩进
-     * @return 格式化的目录树字符串
+     * @param tree 目录树
+     * @param out  输出目标
+     * @throws IOException 写入失败
      */
-    public static String buildTreeStr(TreeNode node, String indent) {
-        StringBuilder sb = new StringBuilder();
-        if (!node.getName().isEmpty()) {
-            sb.append(indent).append(node.getName()).append("/\n");
+    public static void renderTree(PathTrie tree, Appendable out) throws IOException {
+        renderTree(tree, null, TreeBudget.UNLIMITED, out);
+    }
+
+    /**
+     * 按输出预算将目录树流式写入输出目标
+     *
+     * @param tree       目录树
+     * @param expandPath 需要展开的子目录路径，为空时从根目录开始
+     * @param budget     输出预算
+     * @param out        输出目标
+     * @throws IOException 写入失败
+     */
+    public static void renderTree(PathTrie tree, String expandPath, TreeBudget budget, Appendable out)
+            throws IOException {
+        new BoundedTreeWriter(tree, budget, out).write(expandPath);
+    }
+
+    /**
+     * 写入指定深度的缩进(每层两个空格)
+     *
+     * @param out   输出目标
+     * @param depth 深度
+     * @return 输出目标
+     * @throws IOException 写入失败
+     */
+    private static Appendable appendIndent(Appendable out, int depth) throws IOException {
+        for (int i = 0; i < depth; i++) {
+            out.append("  ");
         }
-        node.getChildren().values().forEach(c -> sb.append(buildTreeStr(c, indent + "  ")));
-        node.getFiles().forEach(f -> {
-            String fileName = f.substring(f.lastIndexOf("/") + 1);
-            sb.append(indent).append("└── ").append(fileName).append('\n');
-        });
-        return sb.toString();
+        return out;
     }
 
     /**
@@ -142,4 +157,144 @@ public class PromptUtils {
         String variables = buildVarString(vars).trim();
         return variables + detailTemplatesStr;
     }
+
+    /**
+     * 带预算的目录树写入器
+     * <p>记录已输出的条目数和字符数，超出预算时停止遍历
+     */
+    private static final class BoundedTreeWriter {
+        private final PathTrie tree;
+        private final TreeBudget budget;
+        private final Appendable out;
+        private final List<String> path = new ArrayList<>();
+        private int entries;
+        private int chars;
+        private int hidden;
+        private boolean truncated;
+        private String firstCollapsed;
+
+        BoundedTreeWriter(PathTrie tree, TreeBudget budget, Appendable out) {
+            this.tree = tree;
+            this.budget = budget;
+            this.out = out;
+        }
+
+        /**
+         * 从根目录或指定子目录开始写入
+         *
+         * @param expandPath 子目录路径，为空时从根目录开始
+         * @throws IOException 写入失败
+         */
+        void write(String expandPath) throws IOException {
+            int start = PathTrie.ROOT;
+            int total = tree.subtreeDirCount(start) + tree.subtreeFileCount(start);
+            if (expandPath != null && !expandPath.isBlank()) {
+                start = tree.find(expandPath);
+                if (start == PathTrie.NONE) {
+                    out.append("未找到目录: ").append(expandPath).append('\n');
+                    return;
+                }
+                String[] segments = expandPath.replace('\\', '/').replaceAll("^/+|/+$", "").split("/+");
+                path.addAll(Arrays.asList(segments).subList(0, segments.length - 1));
+                total = tree.subtreeDirCount(start) + tree.subtreeFileCount(start) + 1;
+                writeNode(start, 1, String.join("/", segments));
+            } else {
+                writeNode(start, 0, tree.name(start));
+            }
+            writeFooter(total);
+        }
+
+        /**
+         * 递归写入节点
+         *
+         * @param node        节点下标
+         * @param depth       当前深度
+         * @param displayName 节点展示名称
+         * @return 是否继续遍历
+         * @throws IOException 写入失败
+         */
+        private boolean writeNode(int node, int depth, String displayName) throws IOException {
+            boolean named = !displayName.isEmpty();
+            if (named) {
+                path.add(tree.name(node));
+                int dirs = tree.subtreeDirCount(node);
+                int files = tree.subtreeFileCount(node);
+                if (budget.depthLimited() && depth >= budget.maxDepth() && dirs + files > 0) {
+                    // 超出深度，折叠为统计信息
+                    String summary = "/ (已折叠: " + dirs + " 个目录, " + files + " 个文件)";
+                    if (!emit(depth, "", displayName, summary)) {
+                        return false;
+                    }
+                    hidden += dirs + files;
+                    if (firstCollapsed == null) {
+                        firstCollapsed = String.join("/", path);
+                    }
+                    path.remove(path.size() - 1);
+                    return true;
+                }
+                if (!emit(depth, "", displayName, "/")) {
+                    return false;
+                }
+            }
+            for (int c = tree.firstChild(node); c != PathTrie.NONE; c = tree.nextSibling(c)) {
+                if (!writeNode(c, depth + 1, tree.name(c))) {
+                    return false;
+                }
+            }
+            for (int i = 0, n = tree.fileCount(node); i < n; i++) {
+                String hash = tree.fileHash(node, i);
+                if (!emit(depth, "└── ", tree.fileName(node, i), hash != null ? " #" + hash : "")) {
+                    return false;
+                }
+            }
+            if (named) {
+                path.remove(path.size() - 1);
+            }
+            return true;
+        }
+
+        /**
+         * 写入一行，超出预算时不写入
+         *
+         * @param depth  缩进深度
+         * @param prefix 行前缀
+         * @param name   名称
+         * @param suffix 行后缀
+         * @return 是否写入成功
+         * @throws IOException 写入失败
+         */
+        private boolean emit(int depth, String prefix, String name, String suffix) throws IOException {
+            int length = depth * 2 + prefix.length() + name.length() + suffix.length() + 1;
+            if ((budget.entriesLimited() && entries >= budget.maxEntries())
+                    || (budget.charsLimited() && chars + length > budget.maxChars())) {
+                truncated = true;
+                return false;
+            }
+            appendIndent(out, depth).append(prefix).append(name).append(suffix).append('\n');
+            entries++;
+            chars += length;
+            return true;
+        }
+
+        /**
+         * 写入截断和折叠提示
+         *
+         * @param total 范围内的条目总数
+         * @throws IOException 写入失败
+         */
+        private void writeFooter(int total) throws IOException {
+            if (truncated) {
+                out.append("... 已达到输出上限，省略 ").append(String.valueOf(total - entries - hidden))
+                        .append(" 个条目\n");
+            }
+            if (truncated || firstCollapsed != null) {
+                String example = firstCollapsed != null ? firstCollapsed : String.join("/", path);
+                out.append("提示: 可通过 expandPath 参数展开指定子目录");
+                if (!example.isEmpty()) {
+                    out.append("，如: ").append(example);
+                }
+                out.append('\n');
+            }
+        }
+    }
 }
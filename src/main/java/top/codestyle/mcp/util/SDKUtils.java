@@ -2,18 +2,26 @@ package top.codestyle.mcp.util;
 
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.io.IORuntimeException;
 import cn.hutool.core.io.IoUtil;
+import cn.hutool.core.io.StreamProgress;
 import cn.hutool.core.util.StrUtil;
 import cn.hutool.core.util.ZipUtil;
 import cn.hutool.http.HttpRequest;
 import cn.hutool.http.HttpResponse;
 import cn.hutool.json.JSONUtil;
+import top.codestyle.mcp.jfr.TemplateDownloadEvent;
 import top.codestyle.mcp.model.meta.LocalMetaConfig;
 import top.codestyle.mcp.model.sdk.MetaInfo;
 import top.codestyle.mcp.model.sdk.RemoteMetaConfig;
 
 import java.io.*;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.regex.Pattern;
 
 /**
@@ -25,6 +33,43 @@ import java.util.regex.Pattern;
  */
 public class SDKUtils {
 
+    /**
+     * 下载进度检查，当前请求时限耗尽或被取消时中止传输
+     */
+    private static final StreamProgress DEADLINE_PROGRESS = new StreamProgress() {
+        @Override
+        public void start() {
+        }
+
+        @Override
+        public void progress(long total, long progressSize) {
+            if (DeadlineUtils.isExpired()) {
+                throw new IORuntimeException("请求时限已耗尽，下载中止");
+            }
+        }
+
+        @Override
+        public void finish() {
+        }
+    };
+
+    /**
+     * 模板组锁，key为groupId/artifactId
+     * <p>串行化同一模板组的下载合并和历史版本清理对 meta.json 的读改写
+     */
+    private static final Map<String, ReentrantLock> ARTIFACT_LOCKS = new ConcurrentHashMap<>();
+
+    /**
+     * 获取模板组锁
+     *
+     * @param groupId    组ID
+     * @param artifactId 项目ID
+     * @return 模板组锁
+     */
+    public static ReentrantLock artifactLock(String groupId, String artifactId) {
+        return ARTIFACT_LOCKS.computeIfAbsent(groupId + "/" + artifactId, key -> new ReentrantLock());
+    }
+
     /**
      * 根据groupId和artifactId搜索指定模板组
      *
@@ -34,6 +79,20 @@ public class SDKUtils {
      * @return 匹配的模板元信息列表
      */
     public static List<MetaInfo> searchLocalRepository(String groupId, String artifactId, String templateBasePath) {
+        return searchLocalRepository(groupId, artifactId, null, templateBasePath);
+    }
+
+    /**
+     * 根据groupId、artifactId和版本号搜索指定模板组
+     *
+     * @param groupId          组ID
+     * @param artifactId       项目ID
+     * @param version          版本号，为null时取最新版本
+     * @param templateBasePath 模板基础路径
+     * @return 匹配的模板元信息列表
+     */
+    public static List<MetaInfo> searchLocalRepository(String groupId, String artifactId, String version,
+                                                       String templateBasePath) {
         List<MetaInfo> result = new ArrayList<>();
         try {
             templateBasePath = normalizePath(templateBasePath);
@@ -42,8 +101,11 @@ public class SDKUtils {
             if (!metaFile.exists()) {
                 return result;
             }
-            List<MetaInfo> metaInfoList = MetaInfoConvertUtil.parseMetaJsonLatestOnly(metaFile);
-            for (MetaInfo metaInfo : metaInfoList) {
+            MetaCatalogUtils.Catalog catalog = MetaCatalogUtils.load(metaFile);
+            if (catalog == null) {
+                return result;
+            }
+            for (MetaInfo metaInfo : catalog.files(version)) {
                 if (isTemplateFileExists(templateBasePath, metaInfo)) {
                     result.add(metaInfo);
                 }
@@ -83,9 +145,12 @@ public class SDKUtils {
                 return null;
             }
 
-            // 在匹配的 meta.json 中查找模板
-            List<MetaInfo> metaInfoList = MetaInfoConvertUtil.parseMetaJsonLatestOnly(metaFile);
-            for (MetaInfo metaInfo : metaInfoList) {
+            // 在匹配的 meta.json 中查找路径所指版本的模板
+            MetaCatalogUtils.Catalog catalog = MetaCatalogUtils.load(metaFile);
+            if (catalog == null) {
+                return null;
+            }
+            for (MetaInfo metaInfo : catalog.files(parts[2])) {
                 String fullPath = metaInfo.getGroupId() + File.separator + metaInfo.getArtifactId() + File.separator +
                         metaInfo.getVersion() + metaInfo.getFilePath() + File.separator + metaInfo.getFilename();
                 if (normalizePath(fullPath).equals(normalizedExactPath)) {
@@ -100,25 +165,34 @@ public class SDKUtils {
 
     /**
      * 从远程仓库获取元配置
+     * <p>超时不超过当前请求的剩余时限，时限已耗尽时不再发起请求
      *
      * @param remoteBaseUrl   远程仓库基础URL
      * @param query 模板关键词,如: RuoYi, CRUD
      * @return 远程模板配置,失败返回null
      */
     public static RemoteMetaConfig fetchRemoteMetaConfig(String remoteBaseUrl, String query) {
+        if (DeadlineUtils.isExpired()) {
+            DeadlineUtils.degrade("请求时限已耗尽，未查询远程仓库");
+            return null;
+        }
+        long start = System.nanoTime();
+        RemoteMetaConfig result = null;
         try {
             String responseBody = HttpRequest.get(remoteBaseUrl + "/api/mcp/search")
                     .form("query", query)
-                    .timeout(30000)
+                    .timeout(DeadlineUtils.timeout(30000))
                     .header("User-Agent", "MCP-CodeStyle-Server/1.0")
                     .execute()
                     .body();
 
-            return JSONUtil.toBean(responseBody, RemoteMetaConfig.class);
-
+            result = JSONUtil.toBean(responseBody, RemoteMetaConfig.class);
         } catch (Exception e) {
-            return null;
+            // 远程不可用时返回null
+        } finally {
+            MetricsUtils.record(MetricsUtils.OPERATION, "remote.fetch", start, result != null);
         }
+        return result;
     }
 
     /**
@@ -154,7 +228,13 @@ public class SDKUtils {
             }
 
             if (needsUpdate) {
-                return downloadAndExtractTemplate(localRepoPath, remoteBaseUrl, groupId, artifactId, remoteConfig);
+                ReentrantLock lock = artifactLock(groupId, artifactId);
+                lock.lock();
+                try {
+                    return downloadAndExtractTemplate(localRepoPath, remoteBaseUrl, groupId, artifactId, remoteConfig);
+                } finally {
+                    lock.unlock();
+                }
             } else {
                 return true;
             }
@@ -166,22 +246,19 @@ public class SDKUtils {
 
     /**
      * 验证模板文件是否存在
+     * <p>通过版本文件清单判断，避免每个文件单独stat
      *
      * @param templateBasePath 模板基础路径
      * @param metaInfo         模板元信息
      * @return 文件是否存在
      */
     private static boolean isTemplateFileExists(String templateBasePath, MetaInfo metaInfo) {
-        String normalizedFilePath = StrUtil.removePrefix(normalizePath(metaInfo.getFilePath()), File.separator);
-        String versionPath = metaInfo.getVersion();
-
-        String actualFilePath = templateBasePath + File.separator +
+        File versionDir = new File(templateBasePath + File.separator +
                 metaInfo.getGroupId() + File.separator +
                 metaInfo.getArtifactId() + File.separator +
-                versionPath + File.separator +
-                normalizedFilePath + File.separator +
-                metaInfo.getFilename();
-        return new File(actualFilePath).exists();
+                metaInfo.getVersion());
+        return ManifestUtils.exists(versionDir,
+                ManifestUtils.relativePath(metaInfo.getFilePath(), metaInfo.getFilename()));
     }
 
     /**
@@ -212,19 +289,12 @@ public class SDKUtils {
             }
 
             List<LocalMetaConfig.FileInfo> localFiles = matchedConfig.getFiles();
-            String versionPath = remoteVersion;
+            File versionDir = new File(localRepoPath + File.separator + groupId + File.separator +
+                    artifactId + File.separator + remoteVersion);
 
             for (RemoteMetaConfig.FileInfo remoteFile : remoteFiles) {
-                String normalizedFilePath = normalizePath(remoteFile.getFilePath());
-                if (normalizedFilePath.startsWith(File.separator)) {
-                    normalizedFilePath = normalizedFilePath.substring(1);
-                }
-
-                String actualFilePath = localRepoPath + File.separator + groupId + File.separator +
-                        artifactId + File.separator + versionPath + File.separator + normalizedFilePath
-                        + File.separator + remoteFile.getFilename();
-
-                if (!new File(actualFilePath).exists()) {
+                String relativePath = ManifestUtils.relativePath(remoteFile.getFilePath(), remoteFile.getFilename());
+                if (!ManifestUtils.exists(versionDir, relativePath)) {
                     return true;
                 }
 
@@ -299,6 +369,9 @@ public class SDKUtils {
         File localMetaFile = new File(templateDir, "meta.json");
         String backupContent = null;
         File zipFile = null;
+        var event = new TemplateDownloadEvent();
+        event.begin();
+        boolean success = false;
 
         try {
             // 备份现有meta.json内容，用于后续版本追加
@@ -306,25 +379,30 @@ public class SDKUtils {
                 backupContent = FileUtil.readUtf8String(localMetaFile);
             }
 
-            HttpResponse response = HttpRequest.get(remoteBaseUrl + "/api/file/load")
-                    .form("paths", templatePath)
-                    .timeout(60000)
-                    .header("User-Agent", "MCP-CodeStyle-Server/1.0")
-                    .execute();
-
-            if (!response.isOk()) {
+            long downloadStart = System.nanoTime();
+            zipFile = downloadZip(remoteBaseUrl, templatePath);
+            event.downloadTime = System.nanoTime() - downloadStart;
+            if (zipFile == null) {
                 return false;
             }
+            event.bytes = zipFile.length();
 
-            zipFile = FileUtil.createTempFile("template-", ".zip", true);
-
-            IoUtil.copy(response.bodyStream(), FileUtil.getOutputStream(zipFile));
+            // 解压一旦开始需完整执行，时限在此之前耗尽则放弃本次下载
+            if (DeadlineUtils.isExpired()) {
+                return false;
+            }
 
             // 解压到仓库根目录
-            if (extractZipFile(zipFile, localRepoPath, templateDir)) {
+            long extractStart = System.nanoTime();
+            boolean extracted = extractZipFile(zipFile, localRepoPath, templateDir);
+            MetricsUtils.record(MetricsUtils.OPERATION, "template.extract", extractStart, extracted);
+            if (extracted) {
                 updateLocalMetaJson(localRepoPath, groupId, artifactId, remoteConfig, backupContent);
                 // 将远程的description写入README.md（缓存到本地）
                 saveDescriptionToReadme(templateDir, remoteConfig);
+                // 解压完成后重建该版本的文件清单
+                ManifestUtils.writeManifest(new File(templateDir, remoteConfig.getConfig().getVersion()));
+                success = true;
                 return true;
             }
             return false;
@@ -332,6 +410,48 @@ public class SDKUtils {
             return false;
         } finally {
             FileUtil.del(zipFile);
+            event.groupId = groupId;
+            event.artifactId = artifactId;
+            event.version = remoteConfig.getConfig() != null ? remoteConfig.getConfig().getVersion() : null;
+            event.success = success;
+            event.commit();
+        }
+    }
+
+    /**
+     * 下载模板ZIP到临时文件
+     * <p>超时不超过当前线程的剩余时限，传输过程中时限耗尽或被取消时中止
+     *
+     * @param remoteBaseUrl 远程基础URL
+     * @param templatePath  模板路径(/groupId/artifactId)
+     * @return 临时ZIP文件，下载失败返回null
+     */
+    private static File downloadZip(String remoteBaseUrl, String templatePath) {
+        long start = System.nanoTime();
+        File zipFile = null;
+        try {
+            HttpResponse response = HttpRequest.get(remoteBaseUrl + "/api/file/load")
+                    .form("paths", templatePath)
+                    .timeout(DeadlineUtils.timeout(60000))
+                    .header("User-Agent", "MCP-CodeStyle-Server/1.0")
+                    .execute();
+
+            if (!response.isOk()) {
+                return null;
+            }
+
+            zipFile = FileUtil.createTempFile("template-", ".zip", true);
+
+            try (OutputStream out = FileUtil.getOutputStream(zipFile)) {
+                IoUtil.copy(response.bodyStream(), out, IoUtil.DEFAULT_BUFFER_SIZE, DEADLINE_PROGRESS);
+            }
+            return zipFile;
+        } catch (Exception e) {
+            FileUtil.del(zipFile);
+            zipFile = null;
+            return null;
+        } finally {
+            MetricsUtils.record(MetricsUtils.OPERATION, "remote.download", start, zipFile != null);
         }
     }
 
@@ -351,6 +471,7 @@ public class SDKUtils {
             File metaFile = new File(templateDir, "meta.json");
             if (metaFile.exists()) {
                 FileUtil.del(metaFile);
+                MetaCatalogUtils.invalidate(metaFile);
             }
             return true;
         } catch (Exception e) {
@@ -366,9 +487,10 @@ public class SDKUtils {
      * @param artifactId    项目ID
      * @param remoteConfig  远程配置
      * @param backupContent 备份的meta.json内容（用于版本追加）
+     * @throws IOException 写入失败
      */
     private static void updateLocalMetaJson(String localRepoPath, String groupId,
-            String artifactId, RemoteMetaConfig remoteConfig, String backupContent) {
+            String artifactId, RemoteMetaConfig remoteConfig, String backupContent) throws IOException {
 
         String newVersion = remoteConfig.getConfig().getVersion();
 
@@ -402,7 +524,52 @@ public class SDKUtils {
         LocalMetaConfig.Config newConfig = MetaInfoConvertUtil.convertRemoteToLocalConfig(remoteConfig);
         configs.add(newConfig);
 
-        FileUtil.writeUtf8String(JSONUtil.toJsonPrettyStr(localConfig), localMetaFile);
+        writeMetaJson(localConfig, localMetaFile);
+    }
+
+    /**
+     * 从本地meta.json中移除指定版本
+     * <p>调用方需持有该模板组的锁({@link #artifactLock})
+     *
+     * @param metaFile meta.json文件
+     * @param versions 需要移除的版本号
+     * @return 实际移除的版本数
+     * @throws IOException 读取或写入失败
+     */
+    public static int removeVersionsFromMetaJson(File metaFile, Set<String> versions) throws IOException {
+        LocalMetaConfig localConfig = JSONUtil.toBean(FileUtil.readUtf8String(metaFile), LocalMetaConfig.class);
+        List<LocalMetaConfig.Config> configs = localConfig.getConfigs();
+        if (CollUtil.isEmpty(configs)) {
+            return 0;
+        }
+        int before = configs.size();
+        configs.removeIf(config -> config != null && versions.contains(config.getVersion()));
+        int removed = before - configs.size();
+        if (removed > 0) {
+            writeMetaJson(localConfig, metaFile);
+        }
+        return removed;
+    }
+
+    /**
+     * 写入meta.json
+     * <p>先写入同目录下的临时文件再原子替换，并发读取方只会读到完整的旧文件或新文件
+     *
+     * @param localConfig 本地meta配置
+     * @param metaFile    meta.json文件
+     * @throws IOException 写入失败
+     */
+    private static void writeMetaJson(LocalMetaConfig localConfig, File metaFile) throws IOException {
+        File tempFile = new File(metaFile.getParentFile(), metaFile.getName() + ".tmp");
+        FileUtil.writeUtf8String(JSONUtil.toJsonPrettyStr(localConfig), tempFile);
+        try {
+            Files.move(tempFile.toPath(), metaFile.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile.toPath(), metaFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            MetaCatalogUtils.invalidate(metaFile);
+        }
     }
 
     /**
@@ -0,0 +1,218 @@
+package top.codestyle.mcp.util;
+
+import cn.hutool.core.util.StrUtil;
+import top.codestyle.mcp.model.sdk.MetaVariable;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * 模板变量校验工具类
+ * <p>按 meta.json 中声明的 variableType 校验并转换调用方传入的变量值，
+ * 数字和布尔值允许以字符串形式传入；未声明类型或无法识别的类型原样透传。
+ *
+ * @author movclantian
+ * @since 2025-12-26
+ */
+public class TemplateVariableUtils {
+
+    /**
+     * 校验并转换变量值
+     *
+     * @param declared 模板声明的变量列表，可为null
+     * @param values   调用方传入的变量值，可为null
+     * @param errors   校验错误输出，每项一条说明
+     * @return 渲染用的数据模型，包含转换后的声明变量和原样保留的未声明变量
+     */
+    public static Map<String, Object> validate(List<MetaVariable> declared, Map<String, Object> values,
+                                               List<String> errors) {
+        Map<String, Object> model = new LinkedHashMap<>();
+        if (values != null) {
+            values.forEach((name, value) -> {
+                if (value != null) {
+                    model.put(name, value);
+                }
+            });
+        }
+        if (declared == null) {
+            return model;
+        }
+        for (MetaVariable variable : declared) {
+            String name = variable.getVariableName();
+            if (StrUtil.isBlank(name)) {
+                continue;
+            }
+            Object value = model.get(name);
+            if (value == null) {
+                errors.add(String.format("缺少变量 %s: %s（示例：%s）[%s]", name,
+                        variable.getVariableComment(), variable.getExample(), variable.getVariableType()));
+                continue;
+            }
+            try {
+                model.put(name, convert(variable.getVariableType(), value));
+            } catch (IllegalArgumentException e) {
+                errors.add(String.format("变量 %s 应为 %s，实际为 %s", name, variable.getVariableType(), describe(value)));
+            }
+        }
+        return model;
+    }
+
+    /**
+     * 按声明类型转换变量值
+     *
+     * @param type  声明类型，如 String、Integer、Boolean、List、List&lt;String&gt;、String[]
+     * @param value 变量值(非null)
+     * @return 转换后的值
+     * @throws IllegalArgumentException 值与类型不匹配
+     */
+    public static Object convert(String type, Object value) {
+        String kind = normalizeType(type);
+        return switch (kind) {
+            case "string", "char", "character" -> {
+                requireScalar(value);
+                yield value.toString();
+            }
+            case "int", "integer", "short", "byte" -> exact(() -> toBigDecimal(value).intValueExact());
+            case "long" -> exact(() -> toBigDecimal(value).longValueExact());
+            case "float", "double", "bigdecimal", "number" -> toBigDecimal(value);
+            case "boolean" -> toBoolean(value);
+            case "list", "array", "set", "collection" -> toList(value);
+            case "map" -> {
+                if (!(value instanceof Map<?, ?>)) {
+                    throw new IllegalArgumentException();
+                }
+                yield value;
+            }
+            default -> value;
+        };
+    }
+
+    /**
+     * 归一化类型名，去除包名和泛型参数，数组类型归为array
+     *
+     * @param type 声明类型
+     * @return 小写类型名，未声明返回空字符串
+     */
+    private static String normalizeType(String type) {
+        if (StrUtil.isBlank(type)) {
+            return "";
+        }
+        String kind = type.trim();
+        if (kind.endsWith("[]")) {
+            return "array";
+        }
+        int generic = kind.indexOf('<');
+        if (generic >= 0) {
+            kind = kind.substring(0, generic);
+        }
+        kind = kind.substring(kind.lastIndexOf('.') + 1);
+        return kind.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 执行精确的整数转换
+     *
+     * @param conversion 转换逻辑，带小数或超出范围时抛出ArithmeticException
+     * @return 转换结果
+     * @throws IllegalArgumentException 无法精确转换
+     */
+    private static Object exact(Supplier<Number> conversion) {
+        try {
+            return conversion.get();
+        } catch (ArithmeticException e) {
+            // 带小数或超出范围
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    /**
+     * 校验取值为标量(非Map、集合或数组)
+     *
+     * @param value 变量取值
+     * @throws IllegalArgumentException 取值不是标量
+     */
+    private static void requireScalar(Object value) {
+        if (value instanceof Map<?, ?> || value instanceof Collection<?> || value.getClass().isArray()) {
+            throw new IllegalArgumentException();
+        }
+    }
+
+    /**
+     * 将数字或数字字符串转换为BigDecimal
+     *
+     * @param value 变量取值
+     * @return 数值
+     * @throws IllegalArgumentException 取值不是数字
+     */
+    private static BigDecimal toBigDecimal(Object value) {
+        try {
+            if (value instanceof BigDecimal decimal) {
+                return decimal;
+            }
+            if (value instanceof Number || value instanceof CharSequence) {
+                return new BigDecimal(value.toString().trim());
+            }
+        } catch (NumberFormatException ignored) {
+            // 统一按类型不匹配处理
+        }
+        throw new IllegalArgumentException();
+    }
+
+    /**
+     * 将布尔值或 "true"/"false" 字符串(忽略大小写)转换为布尔值
+     *
+     * @param value 变量取值
+     * @return 布尔值
+     * @throws IllegalArgumentException 取值不是布尔值
+     */
+    private static Boolean toBoolean(Object value) {
+        if (value instanceof Boolean bool) {
+            return bool;
+        }
+        if (value instanceof CharSequence text) {
+            String s = text.toString().trim();
+            if ("true".equalsIgnoreCase(s) || "false".equalsIgnoreCase(s)) {
+                return Boolean.parseBoolean(s);
+            }
+        }
+        throw new IllegalArgumentException();
+    }
+
+    /**
+     * 将List、集合或对象数组转换为List
+     *
+     * @param value 变量取值
+     * @return 列表
+     * @throws IllegalArgumentException 取值不是集合或数组
+     */
+    private static List<?> toList(Object value) {
+        if (value instanceof List<?> list) {
+            return list;
+        }
+        if (value instanceof Collection<?> collection) {
+            return new ArrayList<>(collection);
+        }
+        if (value instanceof Object[] array) {
+            return Arrays.asList(array);
+        }
+        throw new IllegalArgumentException();
+    }
+
+    /**
+     * 描述变量值，用于错误说明
+     *
+     * @param value 变量值
+     * @return 带类型的描述
+     */
+    private static String describe(Object value) {
+        String text = value instanceof CharSequence ? "\"" + value + "\"" : String.valueOf(value);
+        return StrUtil.maxLength(text, 60) + "(" + value.getClass().getSimpleName() + ")";
+    }
+}
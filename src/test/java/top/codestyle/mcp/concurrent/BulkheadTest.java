@@ -0,0 +1,47 @@
+package top.codestyle.mcp.concurrent;
+
+import org.junit.jupiter.api.Test;
+import top.codestyle.mcp.util.DeadlineUtils;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 舱壁许可等待测试
+ *
+ * @author movclantian
+ * @since 2025-12-26
+ */
+class BulkheadTest {
+
+    @Test
+    void boundsWaitWithoutDeadline() {
+        Bulkhead bulkhead = new Bulkhead("test", "测试", 1, 50);
+        assertTrue(bulkhead.tryAcquire());
+
+        // 未绑定请求时限时不会一直等待
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> assertFalse(bulkhead.tryAcquire()));
+        assertEquals("rejected", bulkhead.call(() -> "called", "rejected"));
+
+        bulkhead.release();
+        assertEquals("called", bulkhead.call(() -> "called", "rejected"));
+        assertEquals(0, bulkhead.getActive());
+    }
+
+    @Test
+    void waitsUpToDeadlineWhenBound() {
+        Bulkhead bulkhead = new Bulkhead("test", "测试", 1, 60_000);
+        assertTrue(bulkhead.tryAcquire());
+
+        DeadlineUtils.Deadline deadline = DeadlineUtils.create(50);
+        boolean acquired = DeadlineUtils.runWith(deadline, bulkhead::tryAcquire);
+
+        assertFalse(acquired);
+        assertEquals(1, deadline.getDegradations().size());
+        bulkhead.release();
+    }
+}
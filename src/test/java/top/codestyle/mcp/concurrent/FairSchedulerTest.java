@@ -0,0 +1,158 @@
+package top.codestyle.mcp.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 按客户端公平调度的并发许可测试
+ *
+ * @author movclantian
+ * @since 2025-12-26
+ */
+class FairSchedulerTest {
+
+    private static final long WAIT_MS = 5000;
+
+    @Test
+    void rotatesBetweenClients() throws Exception {
+        FairScheduler scheduler = new FairScheduler("test", 1, 0);
+        Object holder = new Object(), a = new Object(), b = new Object();
+        assertTrue(scheduler.acquire(holder, 0));
+
+        List<String> order = new CopyOnWriteArrayList<>();
+        // a 先排队两个请求，b 后排队一个请求
+        Thread a1 = queue(scheduler, a, "a1", order);
+        Thread a2 = queue(scheduler, a, "a2", order);
+        Thread b1 = queue(scheduler, b, "b1", order);
+        scheduler.release(holder);
+        join(a1, a2, b1);
+
+        assertEquals(List.of("a1", "b1", "a2"), order);
+        assertEquals(0, scheduler.getRunning());
+    }
+
+    @Test
+    void skipsClientsAtPerClientLimit() throws Exception {
+        FairScheduler scheduler = new FairScheduler("test", 2, 1);
+        Object a = new Object(), b = new Object();
+        assertTrue(scheduler.acquire(a, 0));
+        // 仍有空闲许可，但 a 已达到单客户端上限
+        assertFalse(scheduler.acquire(a, 50));
+
+        List<String> order = new CopyOnWriteArrayList<>();
+        Thread a2 = queue(scheduler, a, "a2", order);
+        // 排在 a 之后的 b 不被 a 的排队请求阻塞
+        assertTrue(scheduler.acquire(b, 0));
+        assertEquals(2, scheduler.getRunning());
+        assertTrue(order.isEmpty());
+
+        scheduler.release(b);
+        assertTrue(order.isEmpty());
+        scheduler.release(a);
+        join(a2);
+
+        assertEquals(List.of("a2"), order);
+        assertEquals(0, scheduler.getRunning());
+    }
+
+    @Test
+    void abandonsWaiterOnTimeout() {
+        FairScheduler scheduler = new FairScheduler("test", 1, 0);
+        Object holder = new Object(), a = new Object(), b = new Object();
+        assertTrue(scheduler.acquire(holder, 0));
+
+        assertFalse(scheduler.acquire(a, 50));
+        assertEquals(1, scheduler.getRunning());
+
+        // 超时放弃的请求不会在许可归还时被放行
+        scheduler.release(holder);
+        assertEquals(0, scheduler.getRunning());
+        assertTrue(scheduler.acquire(b, 0));
+        scheduler.release(b);
+        assertEquals(0, scheduler.getRunning());
+    }
+
+    @Test
+    void returnsPermitGrantedBeforeInterrupt() throws Exception {
+        FairScheduler scheduler = new FairScheduler("test", 1, 0);
+        Object holder = new Object(), a = new Object(), b = new Object();
+        assertTrue(scheduler.acquire(holder, 0));
+
+        AtomicBoolean acquired = new AtomicBoolean(true);
+        AtomicBoolean interrupted = new AtomicBoolean();
+        Thread waiter = new Thread(() -> {
+            acquired.set(scheduler.acquire(a, WAIT_MS));
+            interrupted.set(Thread.currentThread().isInterrupted());
+        });
+        waiter.start();
+        awaitParked(waiter);
+
+        // 持有调度器的锁：等待线程响应中断后阻塞在锁上，此时许可分配给它
+        ReentrantLock lock = lockOf(scheduler);
+        lock.lock();
+        try {
+            waiter.interrupt();
+            awaitState(waiter, Thread.State.WAITING);
+            scheduler.release(holder);
+            assertEquals(1, scheduler.getRunning());
+        } finally {
+            lock.unlock();
+        }
+        join(waiter);
+
+        assertFalse(acquired.get());
+        assertTrue(interrupted.get());
+        assertEquals(0, scheduler.getRunning());
+        assertTrue(scheduler.acquire(b, 0));
+    }
+
+    /**
+     * 启动线程为客户端排队获取许可，获得后记录名称并立即归还；返回时线程已在排队
+     */
+    private static Thread queue(FairScheduler scheduler, Object client, String name, List<String> order)
+            throws InterruptedException {
+        Thread thread = new Thread(() -> {
+            if (scheduler.acquire(client, WAIT_MS)) {
+                order.add(name);
+                scheduler.release(client);
+            }
+        }, name);
+        thread.start();
+        awaitParked(thread);
+        return thread;
+    }
+
+    private static void awaitParked(Thread thread) throws InterruptedException {
+        awaitState(thread, Thread.State.TIMED_WAITING);
+    }
+
+    private static void awaitState(Thread thread, Thread.State state) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + WAIT_MS;
+        while (thread.getState() != state) {
+            assertTrue(thread.isAlive() && System.currentTimeMillis() < deadline, thread.getName() + " 未进入 " + state);
+            Thread.sleep(1);
+        }
+    }
+
+    private static void join(Thread... threads) throws InterruptedException {
+        for (Thread thread : threads) {
+            thread.join(WAIT_MS);
+            assertFalse(thread.isAlive(), thread.getName() + " 未结束");
+        }
+    }
+
+    private static ReentrantLock lockOf(FairScheduler scheduler) throws ReflectiveOperationException {
+        Field field = FairScheduler.class.getDeclaredField("lock");
+        field.setAccessible(true);
+        return (ReentrantLock) field.get(scheduler);
+    }
+}
@@ -0,0 +1,177 @@
+package top.codestyle.mcp.config;
+
+import cn.hutool.core.io.FileUtil;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import top.codestyle.mcp.util.SDKUtils;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 虚拟线程与平台线程池的并发负载对比
+ * <p>模拟N个并发代理，每次工具调用先阻塞等待远程响应，再解析本地模板仓库，
+ * 对比两种执行器的吞吐量、峰值堆内存和峰值平台线程数。
+ * 完整负载耗时较长，默认只以小规模验证有界平台线程池(Java 17可运行)，完整负载运行方式:
+ *
+ * <pre>
+ * ./mvnw test -Dtest=ExecutorLoadTest -Dcodestyle.loadtest=true [-Pjava21]
+ * </pre>
+ * 只有完整负载输出统计，默认运行的小规模验证只做断言。
+ *
+ * @author movclantian
+ * @since 2025-12-26
+ */
+class ExecutorLoadTest {
+
+    private static final int AGENTS = Integer.getInteger("codestyle.loadtest.agents", 200);
+    private static final int CALLS_PER_AGENT = Integer.getInteger("codestyle.loadtest.calls", 20);
+    private static final long REMOTE_LATENCY_MS = Long.getLong("codestyle.loadtest.latency-ms", 50);
+
+    private static File repoDir;
+
+    @BeforeAll
+    static void createRepository() {
+        repoDir = FileUtil.mkdir(FileUtil.file(FileUtil.getTmpDir(), "codestyle-loadtest-" + System.nanoTime()));
+        String meta = """
+                {"groupId":"backend","artifactId":"CRUD","configs":[{"version":"1.0.0","files":[
+                {"filePath":"/src/main/java/com/air/controller","filename":"Controller.ftl","sha256":"a"},
+                {"filePath":"/src/main/java/com/air/service","filename":"Service.ftl","sha256":"b"}]}]}
+                """;
+        FileUtil.writeUtf8String(meta, FileUtil.file(repoDir, "backend/CRUD/meta.json"));
+        FileUtil.writeUtf8String("controller", FileUtil.file(repoDir, "backend/CRUD/1.0.0/src/main/java/com/air/controller/Controller.ftl"));
+        FileUtil.writeUtf8String("service", FileUtil.file(repoDir, "backend/CRUD/1.0.0/src/main/java/com/air/service/Service.ftl"));
+    }
+
+    @AfterAll
+    static void deleteRepository() {
+        FileUtil.del(repoDir);
+    }
+
+    @Test
+    void boundedPlatformPoolCompletesOverflowingLoad() throws Exception {
+        // 队列容量远小于任务数，溢出的任务由提交线程执行(CallerRunsPolicy)，所有调用仍须完成
+        int threads = 4;
+        int agents = 16;
+        int calls = 5;
+        ExecutorService executor = ExecutorConfig.newBoundedExecutor(threads, 8, "codestyle-loadtest-");
+        Set<String> workers = ConcurrentHashMap.newKeySet();
+        LoadStats stats = run(executor, agents, calls, 5, workers);
+
+        assertEquals(agents * calls, stats.calls());
+        assertTrue(executor.isTerminated());
+        long poolThreads = workers.stream().filter(name -> name.startsWith("codestyle-loadtest-")).count();
+        assertTrue(poolThreads > 0 && poolThreads <= threads, "pool threads: " + workers);
+        assertTrue(workers.contains(Thread.currentThread().getName()), "溢出任务应由提交线程执行: " + workers);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "codestyle.loadtest", matches = "true")
+    void platformThreadPool() throws Exception {
+        int threads = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+        report("platform(" + threads + ")", run(ExecutorConfig.newBoundedExecutor(threads, AGENTS * CALLS_PER_AGENT),
+                AGENTS, CALLS_PER_AGENT, REMOTE_LATENCY_MS, ConcurrentHashMap.newKeySet()));
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "codestyle.loadtest", matches = "true")
+    void virtualThreads() throws Exception {
+        Assumptions.assumeTrue(ExecutorConfig.isVirtualThreadSupported(), "虚拟线程需要Java 21+");
+        report("virtual", run(ExecutorConfig.newVirtualThreadExecutor(),
+                AGENTS, CALLS_PER_AGENT, REMOTE_LATENCY_MS, ConcurrentHashMap.newKeySet()));
+    }
+
+    /**
+     * 执行负载并收集统计
+     *
+     * @param executor  执行器
+     * @param agents    并发代理数
+     * @param calls     每个代理的调用次数
+     * @param latencyMs 模拟远程等待时间(毫秒)
+     * @param workers   收集执行任务的线程名
+     * @return 负载统计
+     * @throws Exception 执行失败
+     */
+    private LoadStats run(ExecutorService executor, int agents, int calls, long latencyMs,
+                          Set<String> workers) throws Exception {
+        var threadBean = ManagementFactory.getThreadMXBean();
+        threadBean.resetPeakThreadCount();
+        System.gc();
+
+        AtomicLong peakHeap = new AtomicLong();
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread sampler = new Thread(() -> {
+            while (running.get()) {
+                Runtime rt = Runtime.getRuntime();
+                peakHeap.accumulateAndGet(rt.totalMemory() - rt.freeMemory(), Math::max);
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        sampler.setDaemon(true);
+        sampler.start();
+
+        long start = System.nanoTime();
+        List<Future<Integer>> futures = new ArrayList<>(agents * calls);
+        for (int i = 0; i < agents * calls; i++) {
+            futures.add(executor.submit(() -> {
+                workers.add(Thread.currentThread().getName());
+                // 模拟远程检索等待
+                Thread.sleep(latencyMs);
+                return SDKUtils.searchLocalRepository("backend", "CRUD", repoDir.getAbsolutePath()).size();
+            }));
+        }
+        for (Future<Integer> future : futures) {
+            assertEquals(2, future.get());
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        running.set(false);
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        return new LoadStats(agents, futures.size(), elapsedNanos, peakHeap.get(), threadBean.getPeakThreadCount());
+    }
+
+    /**
+     * 输出负载统计
+     *
+     * @param name  执行器名称
+     * @param stats 负载统计
+     */
+    private static void report(String name, LoadStats stats) {
+        double seconds = stats.elapsedNanos() / 1e9;
+        System.out.printf("[%s] agents=%d calls=%d elapsed=%.2fs throughput=%.1f calls/s peakHeap=%dMB peakPlatformThreads=%d%n",
+                name, stats.agents(), stats.calls(), seconds, stats.calls() / seconds,
+                stats.peakHeapBytes() / (1024 * 1024), stats.peakThreads());
+    }
+
+    /**
+     * 负载统计
+     *
+     * @param agents        并发代理数
+     * @param calls         完成的调用数
+     * @param elapsedNanos  总耗时(纳秒)
+     * @param peakHeapBytes 峰值堆内存(字节)
+     * @param peakThreads   峰值平台线程数
+     */
+    private record LoadStats(int agents, int calls, long elapsedNanos, long peakHeapBytes, int peakThreads) {
+    }
+}
@@ -0,0 +1,145 @@
+package top.codestyle.mcp.model.tree;
+
+import org.junit.jupiter.api.Test;
+import top.codestyle.mcp.model.sdk.MetaInfo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * 紧凑路径前缀树测试
+ *
+ * @author movclantian
+ * @since 2025-12-26
+ */
+class PathTrieTest {
+
+    @Test
+    void buildsSortedTreeWithSubtreeCounts() {
+        PathTrie trie = PathTrie.build(List.of(
+                meta("backend", "CRUD", "1.0.0", "/src/main/java/service", "Service.ftl", null),
+                meta("backend", "CRUD", "1.0.0", "/src/main/java/controller", "Controller.ftl", null),
+                meta("backend", "CRUD", "1.0.0", "/src/main/java/controller", "Api.ftl", null),
+                meta("backend", "CRUD", "1.0.0", "/", "README.md", null)));
+
+        assertEquals(List.of("backend"), children(trie, PathTrie.ROOT));
+        int version = trie.find("backend/CRUD/1.0.0");
+        assertEquals(List.of("README.md"), files(trie, version));
+        assertEquals(List.of("controller", "service"), children(trie, trie.find("backend/CRUD/1.0.0/src/main/java")));
+        assertEquals(List.of("Api.ftl", "Controller.ftl"), files(trie, trie.find("backend/CRUD/1.0.0/src/main/java/controller")));
+
+        // backend, CRUD, 1.0.0, src, main, java, controller, service
+        assertEquals(9, trie.size());
+        assertEquals(8, trie.subtreeDirCount(PathTrie.ROOT));
+        assertEquals(4, trie.subtreeFileCount(PathTrie.ROOT));
+        assertEquals(5, trie.subtreeDirCount(version));
+        assertEquals(4, trie.subtreeFileCount(version));
+    }
+
+    @Test
+    void findNormalizesSeparators() {
+        PathTrie trie = PathTrie.build(List.of(meta("g", "a", "1.0.0", "\\src\\\\main\\", "A.ftl", null)));
+
+        int node = trie.find("g/a/1.0.0/src/main");
+        assertEquals("main", trie.name(node));
+        assertEquals(node, trie.find("/g\\a/./1.0.0//src/main/"));
+        assertEquals(PathTrie.ROOT, trie.find(null));
+        assertEquals(PathTrie.ROOT, trie.find(""));
+        assertEquals(PathTrie.NONE, trie.find("g/a/2.0.0"));
+    }
+
+    @Test
+    void deduplicatesFilesAndSkipsDirectoryPlaceholders() {
+        PathTrie trie = PathTrie.build(List.of(
+                meta("g", "a", "1.0.0", "/src", "A.ftl", null),
+                meta("g", "a", "1.0.0", "src/", "A.ftl", null),
+                meta("g", "a", "1.0.0", "/empty", "placeholder/", null),
+                meta("g", "a", "1.0.0", "/src", "", null)));
+
+        assertEquals(List.of("A.ftl"), files(trie, trie.find("g/a/1.0.0/src")));
+        int empty = trie.find("g/a/1.0.0/empty");
+        assertEquals(0, trie.fileCount(empty));
+        assertEquals(PathTrie.NONE, trie.firstChild(empty));
+        assertEquals(1, trie.subtreeFileCount(PathTrie.ROOT));
+    }
+
+    @Test
+    void prefersGivenContentHashes() {
+        List<String> sha256s = new ArrayList<>();
+        sha256s.add("1234567890ABCDEF");
+        sha256s.add(null);
+        PathTrie trie = PathTrie.build(List.of(
+                meta("g", "a", "1.0.0", "/", "B.ftl", "ffffffffffffffff"),
+                meta("g", "a", "1.0.0", "/", "A.ftl", "eeeeeeeeeeeeeeee")), sha256s);
+
+        int node = trie.find("g/a/1.0.0");
+        assertEquals(List.of("A.ftl", "B.ftl"), files(trie, node));
+        assertNull(trie.fileHash(node, 0));
+        assertEquals("1234567890ab", trie.fileHash(node, 1));
+    }
+
+    @Test
+    void keepsLowercaseHashPrefix() {
+        PathTrie trie = PathTrie.build(List.of(
+                meta("g", "a", "1.0.0", "/", "A.ftl", "ABCDEF0123456789ABCDEF"),
+                meta("g", "a", "1.0.0", "/", "B.ftl", "abc"),
+                meta("g", "a", "1.0.0", "/", "C.ftl", null)));
+
+        int node = trie.find("g/a/1.0.0");
+        assertEquals("abcdef012345", trie.fileHash(node, 0));
+        assertEquals(PathTrie.HASH_PREFIX_LENGTH, trie.fileHash(node, 0).length());
+        assertNull(trie.fileHash(node, 1));
+        assertNull(trie.fileHash(node, 2));
+    }
+
+    @Test
+    void internsRepeatedSegments() {
+        PathTrie trie = PathTrie.build(List.of(
+                meta("g", "a", "1.0.0", new String("/src"), "A.ftl", null),
+                meta("g", "a", "2.0.0", new String("/src"), "A.ftl", null)));
+
+        assertSame(trie.name(trie.find("g/a/1.0.0/src")), trie.name(trie.find("g/a/2.0.0/src")));
+    }
+
+    @Test
+    void buildsEmptyTrie() {
+        PathTrie trie = PathTrie.build(List.of());
+
+        assertEquals(1, trie.size());
+        assertEquals("", trie.name(PathTrie.ROOT));
+        assertEquals(PathTrie.NONE, trie.firstChild(PathTrie.ROOT));
+        assertEquals(0, trie.subtreeFileCount(PathTrie.ROOT));
+    }
+
+    private static List<String> children(PathTrie trie, int node) {
+        List<String> names = new ArrayList<>();
+        for (int c = trie.firstChild(node); c != PathTrie.NONE; c = trie.nextSibling(c)) {
+            names.add(trie.name(c));
+        }
+        return names;
+    }
+
+    private static List<String> files(PathTrie trie, int node) {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < trie.fileCount(node); i++) {
+            names.add(trie.fileName(node, i));
+        }
+        return names;
+    }
+
+    static MetaInfo meta(String groupId, String artifactId, String version, String filePath, String filename,
+                         String sha256) {
+        MetaInfo info = new MetaInfo();
+        info.setGroupId(groupId);
+        info.setArtifactId(artifactId);
+        info.setVersion(version);
+        info.setFilePath(filePath);
+        info.setFilename(filename);
+        info.setSha256(sha256);
+        return info;
+    }
+}
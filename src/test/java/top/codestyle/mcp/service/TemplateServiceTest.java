@@ -0,0 +1,82 @@
+package top.codestyle.mcp.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 模板分段边界测试
+ *
+ * @author movclantian
+ * @since 2025-12-26
+ */
+class TemplateServiceTest {
+
+    @Test
+    void endsAfterLastNewline() {
+        byte[] bytes = utf8("ab\ncd\nef");
+
+        assertEquals(6, TemplateService.chunkEnd(bytes, 0, bytes.length));
+        assertEquals(3, TemplateService.chunkEnd(bytes, 0, 5));
+        assertEquals(3, TemplateService.chunkEnd(utf8("ab\n"), 0, 3));
+    }
+
+    @Test
+    void prefersNewlineOverCharacterBoundary() {
+        // "a\n中" 截断在"中"的第二个字节
+        byte[] bytes = utf8("a\n中");
+
+        assertEquals(2, TemplateService.chunkEnd(bytes, 0, 4));
+    }
+
+    @Test
+    void ignoresNewlinesBeforeStart() {
+        byte[] bytes = utf8("x\nabc");
+
+        assertEquals(5, TemplateService.chunkEnd(bytes, 2, 5));
+    }
+
+    @Test
+    void endsBeforeIncompleteCharacter() {
+        byte[] chinese = utf8("a中");
+        byte[] emoji = utf8("ab😀");
+
+        assertEquals(1, TemplateService.chunkEnd(chinese, 0, 2));
+        assertEquals(1, TemplateService.chunkEnd(chinese, 0, 3));
+        assertEquals(2, TemplateService.chunkEnd(emoji, 0, 3));
+        assertEquals(2, TemplateService.chunkEnd(emoji, 0, 5));
+        assertEquals(1, TemplateService.chunkEnd(utf8("aé"), 0, 2));
+    }
+
+    @Test
+    void keepsCompleteTrailingCharacter() {
+        byte[] chinese = utf8("a中");
+        byte[] emoji = utf8("ab😀");
+
+        assertEquals(4, TemplateService.chunkEnd(chinese, 0, 4));
+        assertEquals(6, TemplateService.chunkEnd(emoji, 0, 6));
+        assertEquals(3, TemplateService.chunkEnd(utf8("abc"), 0, 3));
+    }
+
+    @Test
+    void returnsWholeChunkWhenOnlyAnIncompleteCharacterWasRead() {
+        // 避免续读时偏移不前进
+        byte[] bytes = utf8("中");
+
+        assertEquals(2, TemplateService.chunkEnd(bytes, 0, 2));
+        assertEquals(3, TemplateService.chunkEnd(utf8("x中"), 1, 3));
+    }
+
+    @Test
+    void returnsWholeChunkWhenOnlyContinuationBytesWereRead() {
+        byte[] bytes = {(byte) 0x80, (byte) 0xBF};
+
+        assertEquals(2, TemplateService.chunkEnd(bytes, 0, 2));
+    }
+
+    private static byte[] utf8(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,352 @@
+package top.codestyle.mcp.support;
+
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.net.NetUtil;
+import cn.hutool.core.util.StrUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.client.McpClient;
+import io.modelcontextprotocol.client.McpAsyncClient;
+import io.modelcontextprotocol.client.transport.HttpClientSseClientTransport;
+import io.modelcontextprotocol.client.transport.ServerParameters;
+import io.modelcontextprotocol.client.transport.StdioClientTransport;
+import io.modelcontextprotocol.spec.McpSchema;
+
+import java.io.File;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * MCP并发负载测试工具
+ * <p>通过真实的MCP传输(stdio或HTTP/SSE)驱动服务器jar，N个模拟代理并发重放
+ * "codestyleSearch → getTemplateByPath" 调用序列，输出各工具的吞吐、失败数和p50/p99/p999耗时。
+ * <ul>
+ *   <li>remote模式(默认): 服务器以空缓存启动并开启远程检索，远程接口由 {@link StubRemoteServer} 提供，覆盖下载解压路径</li>
+ *   <li>local模式: 服务器直接使用生成的仓库，走本地Lucene检索</li>
+ * </ul>
+ * stdio传输下每个代理各自启动一个服务器进程(与每个IDE各自拉起stdio服务器一致，
+ * MCP SDK 0.9.0 的stdio传输也不支持同一会话上并发发送请求)，HTTP传输下所有代理连接同一个服务器，各自建立SSE会话。
+ * 响应丢失的调用在 --timeout-s 后计为失败，失败样本随报告输出。
+ * stdio客户端按平台默认字符集解码服务器输出，运行时需指定 {@code MAVEN_OPTS=-Dfile.encoding=UTF-8}。
+ * 需要先构建服务器jar，运行方式:
+ *
+ * <pre>
+ * ./mvnw -q package -DskipTests
+ * MAVEN_OPTS=-Dfile.encoding=UTF-8 ./mvnw -q test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=top.codestyle.mcp.support.McpLoadHarness \
+ *   -Dexec.args="--transport=http --agents=16 --iterations=50 --mode=remote --remote-latency-ms=20"
+ * </pre>
+ *
+ * @author movclantian
+ * @since 2025-12-26
+ */
+public class McpLoadHarness {
+
+    private static final String SEARCH_TOOL = "codestyleSearch";
+    private static final String TEMPLATE_TOOL = "getTemplateByPath";
+
+    /**
+     * 客户端初始化超时，需覆盖服务器启动和首次建索引
+     */
+    private static final Duration INITIALIZE_TIMEOUT = Duration.ofSeconds(120);
+
+    /**
+     * 客户端关闭超时
+     */
+    private static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(10);
+
+    /**
+     * 单次工具调用超时，响应丢失时计为失败而不是一直等待
+     */
+    private Duration timeout;
+
+    /**
+     * 各工具的调用耗时(纳秒)
+     */
+    private final Map<String, ConcurrentLinkedQueue<Long>> latencies = new ConcurrentHashMap<>();
+
+    /**
+     * 各工具的失败次数
+     */
+    private final Map<String, AtomicLong> errors = new ConcurrentHashMap<>();
+
+    /**
+     * 每个工具的首个失败样本，便于定位
+     */
+    private final Map<String, String> failureSamples = new ConcurrentHashMap<>();
+
+    /**
+     * 命令行入口
+     * <p>参数: --transport=stdio|http --agents=N --iterations=每个代理的序列数 --mode=remote|local
+     * --remote-latency-ms=N --server-type=SYNC|ASYNC --jar=服务器jar路径 --timeout-s=单次请求超时秒数，
+     * 仓库规模参数同 {@link TemplateRepositoryGenerator.Spec#parse(String[])}
+     *
+     * @param args 命令行参数
+     * @throws Exception 执行失败
+     */
+    public static void main(String[] args) throws Exception {
+        new McpLoadHarness().run(args);
+    }
+
+    /**
+     * 执行负载测试
+     *
+     * @param args 命令行参数
+     * @throws Exception 执行失败
+     */
+    private void run(String[] args) throws Exception {
+        String transport = TemplateRepositoryGenerator.stringArg(args, "transport", "stdio");
+        String mode = TemplateRepositoryGenerator.stringArg(args, "mode", "remote");
+        String serverType = TemplateRepositoryGenerator.stringArg(args, "server-type", "SYNC");
+        String jar = TemplateRepositoryGenerator.stringArg(args, "jar", "target/mcp-codestyle-server-1.0.2.jar");
+        int agents = TemplateRepositoryGenerator.intArg(args, "agents", 8);
+        int iterations = TemplateRepositoryGenerator.intArg(args, "iterations", 20);
+        int remoteLatency = TemplateRepositoryGenerator.intArg(args, "remote-latency-ms", 20);
+        timeout = Duration.ofSeconds(TemplateRepositoryGenerator.intArg(args, "timeout-s", 30));
+        TemplateRepositoryGenerator.Spec spec = TemplateRepositoryGenerator.Spec.parse(args);
+        boolean remote = "remote".equals(mode);
+        if (!new File(jar).isFile()) {
+            throw new IllegalArgumentException("服务器jar不存在，请先执行 ./mvnw package -DskipTests: " + jar);
+        }
+
+        File sourceRepo = TemplateRepositoryGenerator.generateTemp(spec);
+        StubRemoteServer stub = remote ? new StubRemoteServer(sourceRepo, 0, remoteLatency) : null;
+        String remotePath = stub != null ? stub.baseUrl() : "http://127.0.0.1:1";
+        List<File> repoDirs = new ArrayList<>();
+        Process serverProcess = null;
+        List<McpAsyncClient> clients = new ArrayList<>();
+        try {
+            if ("http".equals(transport)) {
+                File repoDir = repositoryDir(sourceRepo, remote, repoDirs);
+                int port = NetUtil.getUsableLocalPort();
+                List<String> command = new ArrayList<>();
+                command.add("java");
+                command.addAll(serverJvmArgs(serverType, repoDir, remote, remotePath));
+                command.addAll(List.of("-jar", jar, "--spring.profiles.active=sse", "--server.port=" + port));
+                serverProcess = new ProcessBuilder(command).redirectErrorStream(true)
+                        .redirectOutput(FileUtil.file(FileUtil.getTmpDir(), "codestyle-load-server.log")).start();
+                waitForPort(port, Duration.ofSeconds(60));
+                for (int i = 0; i < agents; i++) {
+                    initialize(McpClient.async(HttpClientSseClientTransport.builder("http://127.0.0.1:" + port).build()),
+                            clients);
+                }
+            } else {
+                for (int i = 0; i < agents; i++) {
+                    List<String> serverArgs = new ArrayList<>(serverJvmArgs(serverType,
+                            repositoryDir(sourceRepo, remote, repoDirs), remote, remotePath));
+                    serverArgs.addAll(List.of("-jar", jar));
+                    initialize(McpClient.async(new StdioClientTransport(
+                            ServerParameters.builder("java").args(serverArgs).build(), new ObjectMapper())), clients);
+                }
+            }
+
+            System.out.printf("传输: %s(%s), 模式: %s, 代理: %d, 每代理序列: %d, 模板组: %d, 远程延迟: %dms%n",
+                    transport, serverType, mode, agents, iterations, spec.templates(), remote ? remoteLatency : 0);
+            long start = System.nanoTime();
+            ExecutorService executor = Executors.newFixedThreadPool(agents);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < agents; i++) {
+                McpAsyncClient client = clients.get(i);
+                Random random = new Random(spec.seed() + i);
+                futures.add(executor.submit(() -> replay(client, spec, iterations, random)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            executor.shutdown();
+            double seconds = (System.nanoTime() - start) / 1e9;
+            report(seconds);
+            if (stub != null) {
+                System.out.printf("桩服务请求: search=%d, load=%d%n", stub.searchRequests(), stub.loadRequests());
+            }
+        } finally {
+            clients.forEach(client -> client.closeGracefully().block(CLOSE_TIMEOUT));
+            if (serverProcess != null) {
+                serverProcess.destroy();
+                serverProcess.waitFor(CLOSE_TIMEOUT.toSeconds(), TimeUnit.SECONDS);
+            }
+            if (stub != null) {
+                stub.close();
+            }
+            FileUtil.del(sourceRepo);
+            repoDirs.forEach(FileUtil::del);
+        }
+    }
+
+    /**
+     * 为一个服务器进程准备独立的仓库目录
+     * <p>Lucene索引位于仓库目录下且由写锁独占，多个服务器进程不能共用同一目录。
+     * remote模式为空缓存目录，local模式为生成仓库的副本。
+     *
+     * @param sourceRepo 生成的模板仓库
+     * @param remote     是否remote模式
+     * @param repoDirs   已创建目录列表，用于结束后清理
+     * @return 仓库目录
+     */
+    private static File repositoryDir(File sourceRepo, boolean remote, List<File> repoDirs) {
+        File repoDir = FileUtil.file(FileUtil.getTmpDir(), "codestyle-load-" + System.nanoTime());
+        if (remote) {
+            FileUtil.mkdir(repoDir);
+        } else {
+            FileUtil.copyContent(sourceRepo, repoDir, true);
+        }
+        repoDirs.add(repoDir);
+        return repoDir;
+    }
+
+    /**
+     * 服务器进程的JVM参数
+     *
+     * @param serverType MCP服务器类型
+     * @param repoDir    仓库目录
+     * @param remote     是否开启远程检索
+     * @param remotePath 远程仓库地址
+     * @return JVM参数
+     */
+    private static List<String> serverJvmArgs(String serverType, File repoDir, boolean remote, String remotePath) {
+        return List.of(
+                "-Dfile.encoding=UTF-8",
+                "-Dlogging.pattern.console=",
+                "-Dspring.main.banner-mode=off",
+                "-Dspring.ai.mcp.server.type=" + serverType,
+                "-Drepository.dir=" + repoDir.getAbsolutePath(),
+                "-Drepository.remote-search-enabled=" + remote,
+                "-Drepository.remote-path=" + remotePath);
+    }
+
+    /**
+     * 单个代理重放调用序列
+     *
+     * @param client     MCP客户端
+     * @param spec       仓库规模
+     * @param iterations 序列数
+     * @param random     随机源
+     */
+    private void replay(McpAsyncClient client, TemplateRepositoryGenerator.Spec spec, int iterations, Random random) {
+        for (int i = 0; i < iterations; i++) {
+            String groupId = TemplateRepositoryGenerator.groupId(random.nextInt(spec.groups()));
+            String artifactId = TemplateRepositoryGenerator.artifactId(random.nextInt(spec.artifactsPerGroup()));
+            call(client, SEARCH_TOOL, Map.of("templateKeyword", groupId + "/" + artifactId), "目录树");
+
+            int f = random.nextInt(spec.filesPerVersion());
+            String path = String.join("/", groupId, artifactId,
+                    TemplateRepositoryGenerator.version(spec.versions() - 1),
+                    TemplateRepositoryGenerator.filePath(f), TemplateRepositoryGenerator.filename(f));
+            call(client, TEMPLATE_TOOL, Map.of("templatePath", path), "#文件内容");
+        }
+    }
+
+    /**
+     * 调用工具并记录耗时，结果不含预期标记时计为失败
+     *
+     * @param client    MCP客户端
+     * @param tool      工具名
+     * @param arguments 参数
+     * @param expected  成功结果应包含的文本
+     */
+    private void call(McpAsyncClient client, String tool, Map<String, Object> arguments, String expected) {
+        long start = System.nanoTime();
+        String failure;
+        try {
+            McpSchema.CallToolResult result = client.callTool(new McpSchema.CallToolRequest(tool, arguments))
+                    .block(timeout);
+            String text = result.content().stream()
+                    .filter(McpSchema.TextContent.class::isInstance)
+                    .map(content -> ((McpSchema.TextContent) content).text())
+                    .collect(Collectors.joining("\n"));
+            failure = !Boolean.TRUE.equals(result.isError()) && text.contains(expected) ? null : text;
+        } catch (Exception e) {
+            failure = e.toString();
+        }
+        latencies.computeIfAbsent(tool, key -> new ConcurrentLinkedQueue<>()).add(System.nanoTime() - start);
+        if (failure != null) {
+            errors.computeIfAbsent(tool, key -> new AtomicLong()).incrementAndGet();
+            failureSamples.putIfAbsent(tool, arguments + " -> " + StrUtil.maxLength(failure, 200));
+        }
+    }
+
+    /**
+     * 输出各工具统计
+     *
+     * @param seconds 总耗时(秒)
+     */
+    private void report(double seconds) {
+        System.out.printf("总耗时: %.2fs%n%n", seconds);
+        System.out.println("| 工具 | 调用 | 失败 | 吞吐(次/秒) | p50(ms) | p99(ms) | p999(ms) | 最大(ms) |");
+        System.out.println("|---|---:|---:|---:|---:|---:|---:|---:|");
+        Map<String, ConcurrentLinkedQueue<Long>> ordered = new LinkedHashMap<>();
+        for (String tool : List.of(SEARCH_TOOL, TEMPLATE_TOOL)) {
+            if (latencies.containsKey(tool)) {
+                ordered.put(tool, latencies.get(tool));
+            }
+        }
+        ordered.forEach((tool, samples) -> {
+            long[] sorted = samples.stream().mapToLong(Long::longValue).sorted().toArray();
+            System.out.printf("| %s | %d | %d | %.1f | %.2f | %.2f | %.2f | %.2f |%n",
+                    tool, sorted.length, errors.getOrDefault(tool, new AtomicLong()).get(), sorted.length / seconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999),
+                    sorted[sorted.length - 1] / 1e6);
+        });
+        failureSamples.forEach((tool, sample) -> System.out.printf("%s 失败样本: %s%n", tool, sample));
+    }
+
+    /**
+     * 计算百分位(最近秩法)
+     *
+     * @param sorted     升序耗时(纳秒)
+     * @param percentile 百分位，如0.99
+     * @return 耗时(毫秒)
+     */
+    private static double percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+    }
+
+    /**
+     * 构建并初始化客户端
+     * <p>客户端先加入列表再初始化，初始化失败时也能在结束时关闭，避免残留服务器进程
+     *
+     * @param spec    客户端构建器
+     * @param clients 客户端列表
+     */
+    private static void initialize(McpClient.AsyncSpec spec, List<McpAsyncClient> clients) {
+        McpAsyncClient client = spec.requestTimeout(INITIALIZE_TIMEOUT)
+                .initializationTimeout(INITIALIZE_TIMEOUT)
+                .build();
+        clients.add(client);
+        client.initialize().block();
+    }
+
+    /**
+     * 等待端口可连接
+     *
+     * @param port    端口
+     * @param timeout 超时时间
+     * @throws InterruptedException 等待被中断
+     */
+    private static void waitForPort(int port, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            try (Socket socket = new Socket()) {
+                socket.connect(new InetSocketAddress("127.0.0.1", port), 500);
+                return;
+            } catch (Exception e) {
+                Thread.sleep(200);
+            }
+        }
+        throw new IllegalStateException("服务器启动超时，端口: " + port);
+    }
+}
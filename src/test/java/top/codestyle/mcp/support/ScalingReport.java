@@ -0,0 +1,133 @@
+package top.codestyle.mcp.support;
+
+import cn.hutool.core.io.FileUtil;
+import top.codestyle.mcp.model.sdk.MetaInfo;
+import top.codestyle.mcp.model.tree.PathTrie;
+import top.codestyle.mcp.model.tree.TreeBudget;
+import top.codestyle.mcp.service.LuceneIndexService;
+import top.codestyle.mcp.util.PromptUtils;
+import top.codestyle.mcp.util.SDKUtils;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * 规模测试报告
+ * <p>按递增的模板组数量生成仓库，统计索引构建、检索和目录树渲染耗时随规模的变化，输出Markdown表格。
+ * 运行方式:
+ *
+ * <pre>
+ * ./mvnw -q test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=top.codestyle.mcp.support.ScalingReport \
+ *   -Dexec.args="--sizes=100,1000,5000 --artifacts=20 --versions=3 --files=20 --readme-chars=2000"
+ * </pre>
+ *
+ * @author movclantian
+ * @since 2025-12-26
+ */
+public class ScalingReport {
+
+    /**
+     * 中文关键词检索使用的查询词
+     */
+    private static final String CHINESE_KEYWORD = "增删改查";
+
+    /**
+     * 命令行入口
+     * <p>参数: --sizes=模板组总数列表 --artifacts=每个groupId的模板数 --iterations=每项检索的重复次数，
+     * 其余规模参数同 {@link TemplateRepositoryGenerator.Spec#parse(String[])}
+     *
+     * @param args 命令行参数
+     * @throws Exception 执行失败
+     */
+    public static void main(String[] args) throws Exception {
+        int[] sizes = Arrays.stream(TemplateRepositoryGenerator.stringArg(args, "sizes", "100,1000,5000").split(","))
+                .mapToInt(size -> Integer.parseInt(size.trim())).toArray();
+        int iterations = TemplateRepositoryGenerator.intArg(args, "iterations", 50);
+        TemplateRepositoryGenerator.Spec base = TemplateRepositoryGenerator.Spec.parse(args);
+
+        System.out.printf("每个groupId %d 个模板, 每个模板 %d 个版本 x %d 个文件, 每文件 %d 个变量, README约 %d 字, 检索重复 %d 次%n%n",
+                base.artifactsPerGroup(), base.versions(), base.filesPerVersion(), base.variablesPerFile(),
+                base.readmeChars(), iterations);
+        System.out.println("| 模板组 | 生成(s) | 索引构建(ms) | 索引大小(MB) | 关键词检索(ms) | 中文检索(ms) | 精确检索(ms) | 命名空间目录树(ms) | 目录树条目 |");
+        System.out.println("|---:|---:|---:|---:|---:|---:|---:|---:|---:|");
+        for (int size : sizes) {
+            int groups = Math.max(1, (size + base.artifactsPerGroup() - 1) / base.artifactsPerGroup());
+            var spec = new TemplateRepositoryGenerator.Spec(groups, base.artifactsPerGroup(), base.versions(),
+                    base.filesPerVersion(), base.variablesPerFile(), base.readmeChars(), base.seed());
+            report(spec, iterations);
+        }
+    }
+
+    /**
+     * 生成指定规模的仓库并输出一行统计
+     *
+     * @param spec       仓库规模
+     * @param iterations 检索重复次数
+     * @throws Exception 执行失败
+     */
+    private static void report(TemplateRepositoryGenerator.Spec spec, int iterations) throws Exception {
+        long start = System.nanoTime();
+        File repoDir = TemplateRepositoryGenerator.generateTemp(spec);
+        double generateSeconds = (System.nanoTime() - start) / 1e9;
+        LuceneIndexService indexService = null;
+        try {
+            start = System.nanoTime();
+            indexService = ServiceFixtures.luceneIndexService(repoDir);
+            double buildMillis = (System.nanoTime() - start) / 1e6;
+            double indexMegabytes = FileUtil.size(FileUtil.file(repoDir, "lucene-index")) / (1024.0 * 1024.0);
+
+            LuceneIndexService service = indexService;
+            String exact = TemplateRepositoryGenerator.groupId(spec.groups() / 2) + "/"
+                    + TemplateRepositoryGenerator.artifactId(0);
+            double keywordMillis = averageMillis(iterations, () -> service.fetchLocalMetaConfig("CRUD"));
+            double chineseMillis = averageMillis(iterations, () -> service.fetchLocalMetaConfig(CHINESE_KEYWORD));
+            double exactMillis = averageMillis(iterations, () -> service.fetchLocalMetaConfig(exact));
+
+            // 命名空间聚合: 解析一个groupId下全部模板并渲染目录树
+            String repoPath = repoDir.getAbsolutePath();
+            String groupId = TemplateRepositoryGenerator.groupId(0);
+            int[] entries = new int[1];
+            double treeMillis = averageMillis(iterations, () -> {
+                List<MetaInfo> metaInfos = new ArrayList<>();
+                for (int a = 0; a < spec.artifactsPerGroup(); a++) {
+                    metaInfos.addAll(SDKUtils.searchLocalRepository(groupId, TemplateRepositoryGenerator.artifactId(a),
+                            repoPath));
+                }
+                PathTrie tree = PromptUtils.buildTree(metaInfos);
+                entries[0] = tree.size() + tree.subtreeFileCount(PathTrie.ROOT);
+                return PromptUtils.buildTreeStr(tree, null, new TreeBudget(0, 400, 16000));
+            });
+
+            System.out.printf("| %d | %.1f | %.0f | %.1f | %.3f | %.3f | %.3f | %.3f | %d |%n",
+                    spec.templates(), generateSeconds, buildMillis, indexMegabytes,
+                    keywordMillis, chineseMillis, exactMillis, treeMillis, entries[0]);
+        } finally {
+            if (indexService != null) {
+                indexService.destroy();
+            }
+            FileUtil.del(repoDir);
+        }
+    }
+
+    /**
+     * 预热后重复执行，返回平均耗时
+     *
+     * @param iterations 重复次数
+     * @param task       任务
+     * @return 平均耗时(毫秒)
+     */
+    private static double averageMillis(int iterations, Supplier<?> task) {
+        for (int i = 0; i < Math.min(iterations, 10); i++) {
+            task.get();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            task.get();
+        }
+        return (System.nanoTime() - start) / 1e6 / iterations;
+    }
+}
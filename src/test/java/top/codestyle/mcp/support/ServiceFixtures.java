@@ -0,0 +1,94 @@
+package top.codestyle.mcp.support;
+
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.test.util.ReflectionTestUtils;
+import top.codestyle.mcp.config.BulkheadConfig;
+import top.codestyle.mcp.config.DeadlineConfig;
+import top.codestyle.mcp.config.RepositoryConfig;
+import top.codestyle.mcp.service.LuceneIndexService;
+import top.codestyle.mcp.service.PromptService;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * 服务装配工具
+ * <p>不启动Spring容器，直接构造被测服务并注入配置字段，供基准测试和规模测试使用
+ *
+ * @author movclantian
+ * @since 2025-12-25
+ */
+public final class ServiceFixtures {
+
+    private ServiceFixtures() {
+    }
+
+    /**
+     * 创建指向指定仓库的仓库配置(本地检索模式)
+     *
+     * @param repoDir 仓库根目录
+     * @return 仓库配置
+     */
+    public static RepositoryConfig repositoryConfig(File repoDir) {
+        RepositoryConfig config = new RepositoryConfig();
+        ReflectionTestUtils.setField(config, "localPath", repoDir.getParent());
+        ReflectionTestUtils.setField(config, "repositoryDir", repoDir.getAbsolutePath());
+        ReflectionTestUtils.setField(config, "remotePath", "http://localhost");
+        ReflectionTestUtils.setField(config, "remoteSearchEnabled", false);
+        return config;
+    }
+
+    /**
+     * 创建不限制时限的请求时限配置
+     *
+     * @return 请求时限配置
+     */
+    public static DeadlineConfig deadlineConfig() {
+        DeadlineConfig config = new DeadlineConfig();
+        ReflectionTestUtils.setField(config, "requestTimeoutMs", 0L);
+        ReflectionTestUtils.setField(config, "searchTimeoutMs", 0L);
+        ReflectionTestUtils.setField(config, "abandonedDownload", "background");
+        return config;
+    }
+
+    /**
+     * 创建使用默认并发数的并发隔离配置
+     *
+     * @return 并发隔离配置
+     */
+    public static BulkheadConfig bulkheadConfig() {
+        BulkheadConfig config = new BulkheadConfig();
+        ReflectionTestUtils.setField(config, "remote", 4);
+        ReflectionTestUtils.setField(config, "localRead", 16);
+        ReflectionTestUtils.setField(config, "tool", 8);
+        ReflectionTestUtils.setField(config, "perClient", 0);
+        config.init();
+        return config;
+    }
+
+    /**
+     * 创建并初始化Lucene索引服务(构建索引)
+     *
+     * @param repoDir 仓库根目录
+     * @return 索引服务
+     * @throws IOException 索引构建失败
+     */
+    public static LuceneIndexService luceneIndexService(File repoDir) throws IOException {
+        LuceneIndexService service = new LuceneIndexService(repositoryConfig(repoDir), deadlineConfig(), bulkheadConfig(),
+                event -> {
+                });
+        service.init();
+        return service;
+    }
+
+    /**
+     * 创建从classpath加载提示词模板的服务
+     *
+     * @return 提示词服务
+     */
+    public static PromptService promptService() {
+        PromptService service = new PromptService();
+        ReflectionTestUtils.setField(service, "resourceLoader", new DefaultResourceLoader());
+        return service;
+    }
+}
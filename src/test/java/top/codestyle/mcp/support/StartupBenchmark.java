@@ -0,0 +1,173 @@
+package top.codestyle.mcp.support;
+
+import cn.hutool.core.io.FileUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.client.McpAsyncClient;
+import io.modelcontextprotocol.client.McpClient;
+import io.modelcontextprotocol.client.transport.ServerParameters;
+import io.modelcontextprotocol.client.transport.StdioClientTransport;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 启动耗时对比
+ * <p>以stdio方式反复拉起服务器，统计从启动进程到MCP initialize握手完成的耗时(即IDE重启后首次可用的等待时间)，
+ * 对比以下变体，缺少构建产物的变体自动跳过:
+ * <ul>
+ *   <li>jar: 普通 {@code java -jar}</li>
+ *   <li>extracted: 解压后的jar，类路径为独立jar文件</li>
+ *   <li>cds: 解压jar + AppCDS归档</li>
+ *   <li>cds-aot: 解压jar + AppCDS归档 + Spring AOT</li>
+ *   <li>native: GraalVM原生镜像</li>
+ * </ul>
+ * 服务器仓库为生成的模拟仓库，启动时的索引重建和中文分词词典加载计入耗时。运行方式:
+ *
+ * <pre>
+ * ./mvnw -q -Pfast-startup package -DskipTests
+ * ./mvnw -q test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=top.codestyle.mcp.support.StartupBenchmark -Dexec.args="--runs=5"
+ * </pre>
+ *
+ * @author movclantian
+ * @since 2025-12-26
+ */
+public class StartupBenchmark {
+
+    private static final String JAR_NAME = "mcp-codestyle-server-1.0.2";
+
+    /**
+     * 单次启动的超时
+     */
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(120);
+
+    /**
+     * 启动变体
+     *
+     * @param name    名称
+     * @param command 启动命令(不含仓库相关参数)
+     */
+    private record Variant(String name, List<String> command) {
+    }
+
+    /**
+     * 命令行入口
+     * <p>参数: --runs=每个变体的启动次数 --target=构建输出目录 --variants=逗号分隔的变体名，
+     * 仓库规模参数同 {@link TemplateRepositoryGenerator.Spec#parse(String[])}
+     *
+     * @param args 命令行参数
+     * @throws Exception 执行失败
+     */
+    public static void main(String[] args) throws Exception {
+        int runs = TemplateRepositoryGenerator.intArg(args, "runs", 5);
+        File target = new File(TemplateRepositoryGenerator.stringArg(args, "target", "target"));
+        List<String> selected = Arrays.asList(TemplateRepositoryGenerator.stringArg(args, "variants",
+                "jar,extracted,cds,cds-aot,native").split(","));
+        TemplateRepositoryGenerator.Spec spec = TemplateRepositoryGenerator.Spec.parse(args);
+
+        File repoDir = TemplateRepositoryGenerator.generateTemp(spec);
+        try {
+            System.out.printf("模板组: %d, 每个变体启动 %d 次(首次不计入统计)%n%n", spec.templates(), runs);
+            System.out.println("| 变体 | 最小(ms) | 中位数(ms) | 最大(ms) |");
+            System.out.println("|---|---:|---:|---:|");
+            for (Variant variant : variants(target)) {
+                if (!selected.contains(variant.name())) {
+                    continue;
+                }
+                long[] millis = new long[runs];
+                // 首次启动预热文件系统缓存
+                startup(variant, repoDir);
+                for (int i = 0; i < runs; i++) {
+                    millis[i] = startup(variant, repoDir);
+                }
+                Arrays.sort(millis);
+                System.out.printf("| %s | %d | %d | %d |%n", variant.name(), millis[0], millis[runs / 2],
+                        millis[runs - 1]);
+            }
+        } finally {
+            FileUtil.del(repoDir);
+        }
+    }
+
+    /**
+     * 根据构建产物确定可用的变体
+     *
+     * @param target 构建输出目录
+     * @return 变体列表
+     */
+    private static List<Variant> variants(File target) {
+        String java = FileUtil.file(System.getProperty("java.home"), "bin", "java").getAbsolutePath();
+        File jar = FileUtil.file(target, JAR_NAME + ".jar");
+        File extracted = FileUtil.file(target, "fast-startup", JAR_NAME + ".jar");
+        File archive = FileUtil.file(target, "fast-startup", "application.jsa");
+        File nativeImage = FileUtil.file(target, "mcp-codestyle-server");
+
+        List<Variant> variants = new ArrayList<>();
+        if (jar.isFile()) {
+            variants.add(new Variant("jar", List.of(java, "-jar", jar.getAbsolutePath())));
+        }
+        if (extracted.isFile()) {
+            variants.add(new Variant("extracted", List.of(java, "-jar", extracted.getAbsolutePath())));
+        }
+        if (extracted.isFile() && archive.isFile()) {
+            // 归档不匹配时JVM警告默认写到标准输出，会破坏stdio协议，需重定向到标准错误
+            List<String> cds = List.of(java, "-XX:SharedArchiveFile=" + archive.getAbsolutePath(),
+                    "-Xlog:disable", "-Xlog:all=warning:stderr");
+            variants.add(new Variant("cds", concat(cds, "-jar", extracted.getAbsolutePath())));
+            variants.add(new Variant("cds-aot", concat(cds, "-Dspring.aot.enabled=true", "-jar",
+                    extracted.getAbsolutePath())));
+        }
+        if (nativeImage.canExecute()) {
+            variants.add(new Variant("native", List.of(nativeImage.getAbsolutePath())));
+        }
+        return variants;
+    }
+
+    /**
+     * 拼接启动参数
+     *
+     * @param head 前置参数
+     * @param tail 追加参数
+     * @return 新的参数列表
+     */
+    private static List<String> concat(List<String> head, String... tail) {
+        List<String> command = new ArrayList<>(head);
+        command.addAll(Arrays.asList(tail));
+        return command;
+    }
+
+    /**
+     * 启动一次服务器并完成initialize握手
+     *
+     * @param variant 启动变体
+     * @param repoDir 模板仓库
+     * @return 耗时(毫秒)
+     */
+    private static long startup(Variant variant, File repoDir) {
+        List<String> command = new ArrayList<>(variant.command());
+        // 系统属性需位于 -jar 之前，原生镜像直接跟在可执行文件之后
+        int insertAt = command.contains("-jar") ? command.indexOf("-jar") : 1;
+        command.addAll(insertAt, List.of(
+                "-Dfile.encoding=UTF-8",
+                "-Dlogging.pattern.console=",
+                "-Drepository.dir=" + repoDir.getAbsolutePath(),
+                "-Drepository.remote-search-enabled=false"));
+
+        long start = System.nanoTime();
+        McpAsyncClient client = McpClient.async(new StdioClientTransport(
+                        ServerParameters.builder(command.get(0)).args(command.subList(1, command.size())).build(),
+                        new ObjectMapper()))
+                .requestTimeout(STARTUP_TIMEOUT)
+                .initializationTimeout(STARTUP_TIMEOUT)
+                .build();
+        try {
+            client.initialize().block();
+            return (System.nanoTime() - start) / 1_000_000;
+        } finally {
+            client.closeGracefully().block(Duration.ofSeconds(10));
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package top.codestyle.mcp.support;
+
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.util.StrUtil;
+import cn.hutool.core.util.URLUtil;
+import cn.hutool.json.JSONUtil;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import top.codestyle.mcp.model.meta.LocalMetaConfig;
+import top.codestyle.mcp.model.sdk.RemoteMetaConfig;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * 本地远程仓库桩服务
+ * <p>基于JDK HttpServer，以一个本地模板仓库为数据源模拟远程仓库的两个接口:
+ * <ul>
+ *   <li>{@code GET /api/mcp/search?query=xxx}: 返回最新版本的 RemoteMetaConfig，
+ *   query支持 groupId/artifactId 或 artifactId</li>
+ *   <li>{@code GET /api/file/load?paths=/groupId/artifactId}: 返回最新版本文件的ZIP，
+ *   条目路径为 groupId/artifactId/version/...，解压到仓库根目录即可</li>
+ * </ul>
+ * 可配置固定响应延迟以模拟网络往返。
+ *
+ * @author movclantian
+ * @since 2025-12-26
+ */
+public class StubRemoteServer implements AutoCloseable {
+
+    private final File repoDir;
+    private final long latencyMillis;
+    private final HttpServer server;
+
+    /**
+     * 已打包的ZIP缓存，key为 groupId/artifactId
+     */
+    private final Map<String, byte[]> zipCache = new ConcurrentHashMap<>();
+
+    private final AtomicLong searchRequests = new AtomicLong();
+    private final AtomicLong loadRequests = new AtomicLong();
+
+    /**
+     * 启动桩服务
+     *
+     * @param repoDir       作为数据源的模板仓库
+     * @param port          监听端口，0表示随机端口
+     * @param latencyMillis 每个请求的固定延迟(毫秒)
+     * @throws IOException 端口绑定失败
+     */
+    public StubRemoteServer(File repoDir, int port, long latencyMillis) throws IOException {
+        this.repoDir = repoDir;
+        this.latencyMillis = latencyMillis;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        server.createContext("/api/mcp/search", this::handleSearch);
+        server.createContext("/api/file/load", this::handleLoad);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+    }
+
+    /**
+     * 桩服务基础URL，用作 repository.remote-path
+     */
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /**
+     * 已处理的检索请求数
+     */
+    public long searchRequests() {
+        return searchRequests.get();
+    }
+
+    /**
+     * 已处理的下载请求数
+     */
+    public long loadRequests() {
+        return loadRequests.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    /**
+     * 处理模板元数据检索
+     */
+    private void handleSearch(HttpExchange exchange) throws IOException {
+        searchRequests.incrementAndGet();
+        delay();
+        String query = queryParam(exchange, "query");
+        File metaFile = findMetaFile(query);
+        if (metaFile == null) {
+            respond(exchange, 404, "application/json", "{}".getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        LocalMetaConfig meta = JSONUtil.toBean(FileUtil.readUtf8String(metaFile), LocalMetaConfig.class);
+        LocalMetaConfig.Config latest = meta.getConfigs().get(meta.getConfigs().size() - 1);
+
+        RemoteMetaConfig remote = new RemoteMetaConfig();
+        remote.setGroupId(meta.getGroupId());
+        remote.setArtifactId(meta.getArtifactId());
+        File readme = FileUtil.file(metaFile.getParentFile(), latest.getVersion(), "README.md");
+        remote.setDescription(readme.isFile() ? FileUtil.readUtf8String(readme) : meta.getArtifactId());
+        RemoteMetaConfig.Config config = new RemoteMetaConfig.Config();
+        config.setVersion(latest.getVersion());
+        config.setFiles(JSONUtil.toList(JSONUtil.toJsonStr(latest.getFiles()), RemoteMetaConfig.FileInfo.class));
+        remote.setConfig(config);
+        respond(exchange, 200, "application/json", JSONUtil.toJsonStr(remote).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 处理模板ZIP下载
+     */
+    private void handleLoad(HttpExchange exchange) throws IOException {
+        loadRequests.incrementAndGet();
+        delay();
+        String coordinate = StrUtil.strip(StrUtil.nullToEmpty(queryParam(exchange, "paths")).replace('\\', '/'), "/");
+        File metaFile = findMetaFile(coordinate);
+        if (metaFile == null) {
+            respond(exchange, 404, "text/plain", new byte[0]);
+            return;
+        }
+        byte[] zip = zipCache.computeIfAbsent(coordinate, key -> zipLatestVersion(metaFile));
+        respond(exchange, 200, "application/zip", zip);
+    }
+
+    /**
+     * 查找meta.json
+     *
+     * @param query groupId/artifactId 或 artifactId
+     * @return meta.json文件，未找到返回null
+     */
+    private File findMetaFile(String query) {
+        if (StrUtil.isBlank(query)) {
+            return null;
+        }
+        if (query.contains("/")) {
+            File metaFile = FileUtil.file(repoDir, query, "meta.json");
+            return metaFile.isFile() ? metaFile : null;
+        }
+        File[] groups = repoDir.listFiles(File::isDirectory);
+        if (groups != null) {
+            for (File group : groups) {
+                File metaFile = FileUtil.file(group, query, "meta.json");
+                if (metaFile.isFile()) {
+                    return metaFile;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 打包模板最新版本的文件
+     *
+     * @param metaFile meta.json文件
+     * @return ZIP字节
+     */
+    private byte[] zipLatestVersion(File metaFile) {
+        LocalMetaConfig meta = JSONUtil.toBean(FileUtil.readUtf8String(metaFile), LocalMetaConfig.class);
+        String version = meta.getConfigs().get(meta.getConfigs().size() - 1).getVersion();
+        File versionDir = FileUtil.file(metaFile.getParentFile(), version);
+        String base = repoDir.getAbsolutePath();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            List<File> files = FileUtil.loopFiles(versionDir);
+            for (File file : files) {
+                String name = file.getAbsolutePath().substring(base.length() + 1).replace('\\', '/');
+                zip.putNextEntry(new ZipEntry(name));
+                zip.write(Files.readAllBytes(file.toPath()));
+                zip.closeEntry();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("打包模板失败: " + versionDir, e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * 解析查询参数
+     */
+    private static String queryParam(HttpExchange exchange, String name) {
+        String rawQuery = exchange.getRequestURI().getRawQuery();
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery != null) {
+            for (String pair : rawQuery.split("&")) {
+                int eq = pair.indexOf('=');
+                if (eq > 0) {
+                    params.put(pair.substring(0, eq), URLUtil.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return params.get(name);
+    }
+
+    /**
+     * 写出响应
+     */
+    private static void respond(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * 模拟网络延迟
+     */
+    private void delay() {
+        if (latencyMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(latencyMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
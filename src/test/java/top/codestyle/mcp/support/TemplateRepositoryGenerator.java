@@ -0,0 +1,346 @@
+package top.codestyle.mcp.support;
+
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.crypto.SecureUtil;
+import cn.hutool.json.JSONUtil;
+import top.codestyle.mcp.model.meta.LocalMetaConfig;
+import top.codestyle.mcp.model.sdk.MetaVariable;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 模板仓库生成器
+ * <p>按指定规模生成 groupId/artifactId/version 结构的本地模板仓库(多版本meta.json、中文README.md和模板文件)，
+ * 供基准测试、负载测试和规模测试使用。相同参数和种子生成的仓库内容完全一致。
+ * <p>也可作为命令行工具生成仓库:
+ *
+ * <pre>
+ * ./mvnw -q test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=top.codestyle.mcp.support.TemplateRepositoryGenerator \
+ *   -Dexec.args="/tmp/codestyle-cache --groups=100 --artifacts=20 --versions=3 --files=30 --variables=4 --readme-chars=4000"
+ * </pre>
+ *
+ * @author movclantian
+ * @since 2025-12-25
+ */
+public class TemplateRepositoryGenerator {
+
+    /**
+     * 模板组关键词，artifactId由关键词和序号组成，便于按关键词检索
+     */
+    static final String[] KEYWORDS = {"CRUD", "Auth", "Upload", "Export", "Cache", "Queue", "Report", "Logo"};
+
+    /**
+     * 与关键词对应的中文主题，写入README供中文分词检索
+     */
+    static final String[] TOPICS = {"增删改查", "登录认证", "文件上传", "数据导出", "缓存管理", "消息队列", "统计报表", "品牌标志"};
+
+    /**
+     * README正文使用的中文短语
+     */
+    private static final String[] PHRASES = {
+            "本模板提供完整的分层结构", "包含控制器、服务层和数据访问层", "支持分页查询和条件过滤",
+            "适用于后台管理系统", "遵循统一的代码风格规范", "生成代码后可直接编译运行",
+            "变量说明见文件头部注释", "推荐配合前端页面模板使用", "支持多数据源和事务管理",
+            "接口返回统一的响应结构", "内置参数校验和异常处理", "可根据业务需要裁剪文件"};
+
+    /**
+     * 模板文件所在的分层目录
+     */
+    static final String[] LAYERS = {"controller", "service", "mapper", "model", "config", "util"};
+
+    /**
+     * 模板变量类型
+     */
+    private static final String[] VARIABLE_TYPES = {"String", "Integer", "Boolean", "List"};
+
+    /**
+     * 单版本仓库的版本号
+     */
+    public static final String VERSION = "1.0.0";
+
+    /**
+     * 仓库规模
+     *
+     * @param groups            groupId数量
+     * @param artifactsPerGroup 每个groupId下的artifactId数量
+     * @param versions          每个模板的版本数量，meta.json中按版本升序排列
+     * @param filesPerVersion   每个版本的文件数量
+     * @param variablesPerFile  每个文件的输入变量数量
+     * @param readmeChars       README.md的大致字符数
+     * @param seed              随机种子
+     */
+    public record Spec(int groups, int artifactsPerGroup, int versions, int filesPerVersion, int variablesPerFile,
+            int readmeChars, long seed) {
+
+        /**
+         * 单版本、每文件2个变量、短README的仓库规模
+         */
+        public Spec(int groups, int artifactsPerGroup, int filesPerVersion) {
+            this(groups, artifactsPerGroup, 1, filesPerVersion, 2, 200, 42L);
+        }
+
+        /**
+         * 模板组总数
+         */
+        public int templates() {
+            return groups * artifactsPerGroup;
+        }
+
+        /**
+         * 从命令行参数解析规模，未指定的项使用默认值
+         * <p>支持 --groups --artifacts --versions --files --variables --readme-chars --seed
+         *
+         * @param args 命令行参数
+         * @return 仓库规模
+         */
+        public static Spec parse(String[] args) {
+            return new Spec(
+                    intArg(args, "groups", 10),
+                    intArg(args, "artifacts", 10),
+                    intArg(args, "versions", 1),
+                    intArg(args, "files", 12),
+                    intArg(args, "variables", 2),
+                    intArg(args, "readme-chars", 200),
+                    intArg(args, "seed", 42));
+        }
+    }
+
+    /**
+     * 命令行入口
+     *
+     * @param args 第一个参数为输出目录，其余为规模参数
+     */
+    public static void main(String[] args) {
+        if (args.length == 0 || args[0].startsWith("--")) {
+            System.err.println("用法: TemplateRepositoryGenerator <输出目录> [--groups=N] [--artifacts=N] [--versions=N]"
+                    + " [--files=N] [--variables=N] [--readme-chars=N] [--seed=N]");
+            System.exit(1);
+        }
+        Spec spec = Spec.parse(args);
+        long start = System.nanoTime();
+        File dir = generate(new File(args[0]), spec);
+        System.out.printf("已生成 %d 个模板组(%d 个版本目录, %d 个文件)到 %s, 耗时 %.1fs%n",
+                spec.templates(), spec.templates() * spec.versions(),
+                (long) spec.templates() * spec.versions() * spec.filesPerVersion(),
+                dir.getAbsolutePath(), (System.nanoTime() - start) / 1e9);
+    }
+
+    /**
+     * 生成模板仓库
+     *
+     * @param baseDir 仓库根目录，不存在时自动创建
+     * @param spec    仓库规模
+     * @return 仓库根目录
+     */
+    public static File generate(File baseDir, Spec spec) {
+        Random random = new Random(spec.seed());
+        FileUtil.mkdir(baseDir);
+        for (int g = 0; g < spec.groups(); g++) {
+            String groupId = groupId(g);
+            for (int a = 0; a < spec.artifactsPerGroup(); a++) {
+                writeTemplate(baseDir, groupId, a, spec, random);
+            }
+        }
+        return baseDir;
+    }
+
+    /**
+     * 生成临时目录下的模板仓库
+     *
+     * @param spec 仓库规模
+     * @return 仓库根目录
+     */
+    public static File generateTemp(Spec spec) {
+        File dir = FileUtil.file(FileUtil.getTmpDir(), "codestyle-repo-" + System.nanoTime());
+        return generate(dir, spec);
+    }
+
+    /**
+     * 第g个groupId
+     */
+    public static String groupId(int g) {
+        return "group" + g;
+    }
+
+    /**
+     * 第a个artifactId
+     */
+    public static String artifactId(int a) {
+        return KEYWORDS[a % KEYWORDS.length] + a;
+    }
+
+    /**
+     * 第v个版本号，v从0开始
+     */
+    public static String version(int v) {
+        return v == 0 ? VERSION : "1." + v + ".0";
+    }
+
+    /**
+     * 模板中第f个文件相对版本目录的路径(不含前导"/")
+     */
+    public static String filePath(int f) {
+        return "src/main/java/com/example/module" + (f / LAYERS.length) + "/" + LAYERS[f % LAYERS.length];
+    }
+
+    /**
+     * 模板中第f个文件的文件名
+     */
+    public static String filename(int f) {
+        String layer = LAYERS[f % LAYERS.length];
+        return Character.toUpperCase(layer.charAt(0)) + layer.substring(1) + f + ".ftl";
+    }
+
+    /**
+     * 写入单个模板组的所有版本
+     *
+     * @param baseDir 仓库根目录
+     * @param groupId 组ID
+     * @param a       artifact序号
+     * @param spec    仓库规模
+     * @param random  随机源
+     */
+    private static void writeTemplate(File baseDir, String groupId, int a, Spec spec, Random random) {
+        String artifactId = artifactId(a);
+        File artifactDir = FileUtil.file(baseDir, groupId, artifactId);
+
+        List<LocalMetaConfig.Config> configs = new ArrayList<>(spec.versions());
+        for (int v = 0; v < spec.versions(); v++) {
+            String version = version(v);
+            File versionDir = FileUtil.file(artifactDir, version);
+
+            List<LocalMetaConfig.FileInfo> fileInfos = new ArrayList<>(spec.filesPerVersion());
+            for (int f = 0; f < spec.filesPerVersion(); f++) {
+                List<MetaVariable> variables = variables(f, spec.variablesPerFile());
+                String content = templateContent(artifactId, version, f, variables, random);
+                FileUtil.writeUtf8String(content, FileUtil.file(versionDir, filePath(f), filename(f)));
+
+                LocalMetaConfig.FileInfo fileInfo = new LocalMetaConfig.FileInfo();
+                fileInfo.setFilePath("/" + filePath(f));
+                fileInfo.setFilename(filename(f));
+                fileInfo.setDescription(TOPICS[a % TOPICS.length] + LAYERS[f % LAYERS.length] + "模板");
+                fileInfo.setSha256(SecureUtil.sha256(content));
+                fileInfo.setInputVariables(variables);
+                fileInfos.add(fileInfo);
+            }
+            FileUtil.writeUtf8String(readme(groupId, a, version, spec.readmeChars(), random),
+                    FileUtil.file(versionDir, "README.md"));
+
+            LocalMetaConfig.Config config = new LocalMetaConfig.Config();
+            config.setVersion(version);
+            config.setFiles(fileInfos);
+            configs.add(config);
+        }
+
+        LocalMetaConfig meta = new LocalMetaConfig();
+        meta.setGroupId(groupId);
+        meta.setArtifactId(artifactId);
+        meta.setConfigs(configs);
+        FileUtil.writeUtf8String(JSONUtil.toJsonPrettyStr(meta), FileUtil.file(artifactDir, "meta.json"));
+    }
+
+    /**
+     * 生成文件的输入变量
+     *
+     * @param f     文件序号
+     * @param count 变量数量
+     * @return 变量列表
+     */
+    private static List<MetaVariable> variables(int f, int count) {
+        List<MetaVariable> variables = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            MetaVariable variable = new MetaVariable();
+            variable.setVariableName(i == 0 ? "packageName" : i == 1 ? "className" : "var" + i);
+            variable.setVariableType(i < 2 ? "String" : VARIABLE_TYPES[(f + i) % VARIABLE_TYPES.length]);
+            variable.setVariableComment(i == 0 ? "包名" : i == 1 ? "类名" : "变量" + i + "说明");
+            variable.setExample(i == 0 ? "com.example" : i == 1 ? "User" : "example" + i);
+            variables.add(variable);
+        }
+        return variables;
+    }
+
+    /**
+     * 生成中文README
+     *
+     * @param groupId 组ID
+     * @param a       artifact序号
+     * @param version 版本号
+     * @param chars   大致字符数
+     * @param random  随机源
+     * @return README内容
+     */
+    private static String readme(String groupId, int a, String version, int chars, Random random) {
+        StringBuilder sb = new StringBuilder(chars + 64);
+        sb.append("# ").append(artifactId(a)).append(' ').append(TOPICS[a % TOPICS.length]).append("模板\n\n");
+        sb.append(groupId).append(" 命名空间下的").append(TOPICS[a % TOPICS.length]).append("模板，版本 ")
+                .append(version).append("。\n\n");
+        while (sb.length() < chars) {
+            sb.append(PHRASES[random.nextInt(PHRASES.length)]).append('，')
+                    .append(PHRASES[random.nextInt(PHRASES.length)]).append("。\n");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 生成模板文件内容
+     *
+     * @param artifactId 项目ID
+     * @param version    版本号
+     * @param f          文件序号
+     * @param variables  输入变量
+     * @param random     随机源
+     * @return 模板内容
+     */
+    private static String templateContent(String artifactId, String version, int f, List<MetaVariable> variables,
+            Random random) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("<#-- ").append(artifactId).append(' ').append(version).append(" -->\n");
+        sb.append("package ${packageName}.").append(LAYERS[f % LAYERS.length]).append(";\n\n");
+        sb.append("public class ${className}").append(f).append(" {\n");
+        for (int i = 2; i < variables.size(); i++) {
+            sb.append("    private String field").append(i).append(" = \"${")
+                    .append(variables.get(i).getVariableName()).append("}\";\n");
+        }
+        int methods = 2 + random.nextInt(6);
+        for (int m = 0; m < methods; m++) {
+            sb.append("    public void ").append(artifactId.toLowerCase()).append("Method").append(m).append("() {\n");
+            sb.append("        // ${className} 方法").append(m).append('\n');
+            sb.append("    }\n");
+        }
+        return sb.append("}\n").toString();
+    }
+
+    /**
+     * 读取 --name=value 形式的整数参数
+     *
+     * @param args         命令行参数
+     * @param name         参数名
+     * @param defaultValue 默认值
+     * @return 参数值
+     */
+    static int intArg(String[] args, String name, int defaultValue) {
+        return Integer.parseInt(stringArg(args, name, String.valueOf(defaultValue)));
+    }
+
+    /**
+     * 读取 --name=value 形式的字符串参数
+     *
+     * @param args         命令行参数
+     * @param name         参数名
+     * @param defaultValue 默认值
+     * @return 参数值
+     */
+    static String stringArg(String[] args, String name, String defaultValue) {
+        String prefix = "--" + name + "=";
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) {
+                return arg.substring(prefix.length());
+            }
+        }
+        return defaultValue;
+    }
+}
@@ -0,0 +1,135 @@
+package top.codestyle.mcp.util;
+
+import org.junit.jupiter.api.Test;
+import top.codestyle.mcp.model.sdk.MetaInfo;
+import top.codestyle.mcp.model.tree.PathTrie;
+import top.codestyle.mcp.model.tree.TreeBudget;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 目录树输出预算测试
+ *
+ * @author movclantian
+ * @since 2025-12-26
+ */
+class PromptUtilsTest {
+
+    /**
+     * g/a/1.0.0 下共4个目录、3个文件
+     */
+    private static final PathTrie TREE = PromptUtils.buildTree(List.of(
+            meta("/src", "A.ftl", "ABCDEF0123456789"),
+            meta("/src", "B.ftl", null),
+            meta("/", "README.md", null)));
+
+    @Test
+    void rendersWholeTreeWithoutBudget() {
+        assertEquals("""
+                g/
+                    a/
+                      1.0.0/
+                        src/
+                        └── A.ftl #abcdef012345
+                        └── B.ftl
+                      └── README.md""", PromptUtils.buildTreeStr(TREE));
+    }
+
+    @Test
+    void collapsesSubtreesBeyondMaxDepth() {
+        assertEquals("""
+                g/
+                    a/
+                      1.0.0/ (已折叠: 1 个目录, 3 个文件)
+                提示: 可通过 expandPath 参数展开指定子目录，如: g/a/1.0.0""",
+                PromptUtils.buildTreeStr(TREE, null, new TreeBudget(3, 0, 0)));
+    }
+
+    @Test
+    void truncatesAtMaxEntriesAndCountsOmittedEntries() {
+        assertEquals("""
+                g/
+                    a/
+                      1.0.0/
+                ... 已达到输出上限，省略 4 个条目
+                提示: 可通过 expandPath 参数展开指定子目录，如: g/a/1.0.0/src""",
+                PromptUtils.buildTreeStr(TREE, null, new TreeBudget(0, 3, 0)));
+    }
+
+    @Test
+    void truncatesAtMaxChars() {
+        // "  g/\n" 和 "    a/\n" 共12个字符
+        assertEquals("""
+                g/
+                    a/
+                ... 已达到输出上限，省略 5 个条目
+                提示: 可通过 expandPath 参数展开指定子目录，如: g/a/1.0.0""",
+                PromptUtils.buildTreeStr(TREE, null, new TreeBudget(0, 0, 12)));
+    }
+
+    @Test
+    void omittedCountExcludesCollapsedEntries() {
+        // a/1.0.0 折叠隐藏2个条目，截断提示只计入未输出也未折叠的 b、b/1.0.0 和 B.ftl
+        PathTrie tree = PromptUtils.buildTree(List.of(
+                meta("/src", "A.ftl", null),
+                metaOf("b", "/", "B.ftl")));
+        assertEquals("""
+                g/
+                    a/
+                      1.0.0/ (已折叠: 1 个目录, 1 个文件)
+                ... 已达到输出上限，省略 3 个条目
+                提示: 可通过 expandPath 参数展开指定子目录，如: g/a/1.0.0""",
+                PromptUtils.buildTreeStr(tree, null, new TreeBudget(3, 3, 0)));
+    }
+
+    @Test
+    void expandsSubdirectoryWithFullPathAsRoot() {
+        assertEquals("""
+                g/a/1.0.0/src/
+                  └── A.ftl #abcdef012345
+                  └── B.ftl""", PromptUtils.buildTreeStr(TREE, "/g\\a/1.0.0/src/", TreeBudget.UNLIMITED));
+    }
+
+    @Test
+    void expandedSubdirectoryAppliesBudget() {
+        assertEquals("""
+                g/a/1.0.0/src/
+                  └── A.ftl #abcdef012345
+                ... 已达到输出上限，省略 1 个条目
+                提示: 可通过 expandPath 参数展开指定子目录，如: g/a/1.0.0/src""",
+                PromptUtils.buildTreeStr(TREE, "g/a/1.0.0/src", new TreeBudget(0, 2, 0)));
+    }
+
+    @Test
+    void expandedSubdirectoryCollapsesRelativeToItsDepth() {
+        assertEquals("""
+                g/a/1.0.0/
+                    src/ (已折叠: 0 个目录, 2 个文件)
+                  └── README.md
+                提示: 可通过 expandPath 参数展开指定子目录，如: g/a/1.0.0/src""",
+                PromptUtils.buildTreeStr(TREE, "g/a/1.0.0", new TreeBudget(2, 0, 0)));
+    }
+
+    @Test
+    void reportsUnknownExpandPath() {
+        assertEquals("未找到目录: g/a/9.9.9", PromptUtils.buildTreeStr(TREE, "g/a/9.9.9", TreeBudget.UNLIMITED));
+    }
+
+    private static MetaInfo meta(String filePath, String filename, String sha256) {
+        MetaInfo info = metaOf("a", filePath, filename);
+        info.setSha256(sha256);
+        return info;
+    }
+
+    private static MetaInfo metaOf(String artifactId, String filePath, String filename) {
+        MetaInfo info = new MetaInfo();
+        info.setGroupId("g");
+        info.setArtifactId(artifactId);
+        info.setVersion("1.0.0");
+        info.setFilePath(filePath);
+        info.setFilename(filename);
+        return info;
+    }
+}
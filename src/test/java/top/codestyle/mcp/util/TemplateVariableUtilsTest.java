@@ -0,0 +1,133 @@
+package top.codestyle.mcp.util;
+
+import org.junit.jupiter.api.Test;
+import top.codestyle.mcp.model.sdk.MetaVariable;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 模板变量校验测试
+ *
+ * @author movclantian
+ * @since 2025-12-26
+ */
+class TemplateVariableUtilsTest {
+
+    @Test
+    void convertsStrings() {
+        assertEquals("abc", TemplateVariableUtils.convert("String", "abc"));
+        assertEquals("42", TemplateVariableUtils.convert("java.lang.String", 42));
+        assertEquals("x", TemplateVariableUtils.convert("char", 'x'));
+        assertThrows(IllegalArgumentException.class, () -> TemplateVariableUtils.convert("String", List.of("a")));
+        assertThrows(IllegalArgumentException.class, () -> TemplateVariableUtils.convert("String", Map.of()));
+        assertThrows(IllegalArgumentException.class, () -> TemplateVariableUtils.convert("String", new int[0]));
+    }
+
+    @Test
+    void convertsIntegersExactly() {
+        assertEquals(42, TemplateVariableUtils.convert("Integer", " 42 "));
+        assertEquals(42, TemplateVariableUtils.convert("int", 42L));
+        assertEquals(42, TemplateVariableUtils.convert("Integer", "42.0"));
+        assertEquals(3_000_000_000L, TemplateVariableUtils.convert("Long", "3000000000"));
+        assertThrows(IllegalArgumentException.class, () -> TemplateVariableUtils.convert("Integer", "4.5"));
+        assertThrows(IllegalArgumentException.class, () -> TemplateVariableUtils.convert("Integer", 3_000_000_000L));
+        assertThrows(IllegalArgumentException.class, () -> TemplateVariableUtils.convert("Long", "1e30"));
+        assertThrows(IllegalArgumentException.class, () -> TemplateVariableUtils.convert("Integer", "abc"));
+        assertThrows(IllegalArgumentException.class, () -> TemplateVariableUtils.convert("Integer", true));
+    }
+
+    @Test
+    void convertsDecimals() {
+        assertEquals(new BigDecimal("4.50"), TemplateVariableUtils.convert("Double", "4.50"));
+        assertEquals(new BigDecimal("2"), TemplateVariableUtils.convert("BigDecimal", 2));
+        BigDecimal value = new BigDecimal("1.25");
+        assertSame(value, TemplateVariableUtils.convert("java.math.BigDecimal", value));
+        assertThrows(IllegalArgumentException.class, () -> TemplateVariableUtils.convert("Number", "NaN"));
+    }
+
+    @Test
+    void convertsBooleans() {
+        assertEquals(true, TemplateVariableUtils.convert("Boolean", true));
+        assertEquals(true, TemplateVariableUtils.convert("boolean", " TRUE "));
+        assertEquals(false, TemplateVariableUtils.convert("Boolean", "false"));
+        assertThrows(IllegalArgumentException.class, () -> TemplateVariableUtils.convert("Boolean", "yes"));
+        assertThrows(IllegalArgumentException.class, () -> TemplateVariableUtils.convert("Boolean", 1));
+    }
+
+    @Test
+    void convertsCollections() {
+        List<String> list = List.of("a", "b");
+        assertSame(list, TemplateVariableUtils.convert("List<String>", list));
+        assertEquals(list, TemplateVariableUtils.convert("Set", new LinkedHashSet<>(list)));
+        assertEquals(list, TemplateVariableUtils.convert("String[]", new String[]{"a", "b"}));
+        assertThrows(IllegalArgumentException.class, () -> TemplateVariableUtils.convert("List", "a,b"));
+        assertThrows(IllegalArgumentException.class, () -> TemplateVariableUtils.convert("Collection", new int[]{1}));
+
+        Map<String, Object> map = Map.of("k", "v");
+        assertSame(map, TemplateVariableUtils.convert("Map<String, Object>", map));
+        assertThrows(IllegalArgumentException.class, () -> TemplateVariableUtils.convert("Map", list));
+    }
+
+    @Test
+    void passesThroughUndeclaredOrUnknownTypes() {
+        Object value = new Object();
+        assertSame(value, TemplateVariableUtils.convert(null, value));
+        assertSame(value, TemplateVariableUtils.convert(" ", value));
+        assertSame(value, TemplateVariableUtils.convert("com.example.Custom", value));
+    }
+
+    @Test
+    void validateConvertsDeclaredAndKeepsUndeclaredVariables() {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("count", "3");
+        values.put("extra", "kept");
+        values.put("dropped", null);
+        List<String> errors = new ArrayList<>();
+
+        Map<String, Object> model = TemplateVariableUtils.validate(
+                List.of(variable("count", "Integer"), variable(" ", "Integer")), values, errors);
+
+        assertTrue(errors.isEmpty(), errors.toString());
+        assertEquals(Map.of("count", 3, "extra", "kept"), model);
+    }
+
+    @Test
+    void validateReportsMissingAndMismatchedVariables() {
+        List<String> errors = new ArrayList<>();
+
+        TemplateVariableUtils.validate(List.of(variable("name", "String"), variable("enabled", "Boolean")),
+                Map.of("enabled", "maybe"), errors);
+
+        assertEquals(List.of(
+                "缺少变量 name: name说明（示例：name示例）[String]",
+                "变量 enabled 应为 Boolean，实际为 \"maybe\"(String)"), errors);
+    }
+
+    @Test
+    void validateAcceptsNullInputs() {
+        List<String> errors = new ArrayList<>();
+
+        assertTrue(TemplateVariableUtils.validate(null, null, errors).isEmpty());
+        assertEquals(Map.of("a", 1), TemplateVariableUtils.validate(null, Map.of("a", 1), errors));
+        assertTrue(errors.isEmpty());
+    }
+
+    private static MetaVariable variable(String name, String type) {
+        MetaVariable variable = new MetaVariable();
+        variable.setVariableName(name);
+        variable.setVariableType(type);
+        variable.setVariableComment(name + "说明");
+        variable.setExample(name + "示例");
+        return variable;
+    }
+}